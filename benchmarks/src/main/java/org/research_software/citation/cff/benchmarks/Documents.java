@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Provides the `CITATION.cff` documents used in the benchmarks.
+ * 
+ * Apart from the key-complete test file of the reader, documents
+ * are generated synthetically, and can be scaled by the number of
+ * authors and references they contain.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public final class Documents {
+
+	/**
+	 * The sizes of documents used in parameterized benchmarks.
+	 */
+	public enum Size {
+		/**
+		 * A document containing only the required keys and a single author.
+		 */
+		SMALL,
+		/**
+		 * The key-complete test file of the reader.
+		 */
+		TYPICAL,
+		/**
+		 * A document with 3,000 authors and 1,000 references.
+		 */
+		HUGE;
+
+		/**
+		 * @return The document of this size as UTF-8 encoded bytes
+		 */
+		public byte[] bytes() {
+			switch (this) {
+			case SMALL:
+				return generate(1, 0, 0);
+			case TYPICAL:
+				return typical();
+			default:
+				return generate(3000, 1000, 3);
+			}
+		}
+	}
+
+	private Documents() {
+		// Static utility
+	}
+
+	/**
+	 * @return The key-complete test file of the reader as UTF-8 encoded bytes
+	 */
+	public static byte[] typical() {
+		try (InputStream stream = Documents.class.getResourceAsStream("/CITATION.cff")) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not read the typical benchmark document.", e);
+		}
+	}
+
+	/**
+	 * Generates a valid `CITATION.cff` document.
+	 * 
+	 * @param authorCount The number of top-level authors
+	 * @param referenceCount The number of references
+	 * @param authorsPerReference The number of authors per reference
+	 * @return The document as UTF-8 encoded bytes
+	 */
+	public static byte[] generate(int authorCount, int referenceCount, int authorsPerReference) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("cff-version: 1.0.3\n");
+		builder.append("message: If you use this software, please cite it as below.\n");
+		builder.append("title: Synthetic benchmark document\n");
+		builder.append("version: 1.0.0\n");
+		builder.append("date-released: 2018-01-31\n");
+		builder.append("doi: 10.5281/zenodo.1003150\n");
+		builder.append("license: Apache-2.0\n");
+		builder.append("repository-code: https://github.com/citation-file-format/cff-reader-java\n");
+		builder.append("authors:\n");
+		for (int i = 0; i < authorCount; i++) {
+			appendPerson(builder, "  ", i);
+		}
+		if (referenceCount > 0) {
+			builder.append("references:\n");
+			for (int i = 0; i < referenceCount; i++) {
+				builder.append("  - type: software\n");
+				builder.append("    title: Reference ").append(i).append('\n');
+				builder.append("    doi: 10.5281/zenodo.").append(1000000 + i).append('\n');
+				builder.append("    version: ").append(i % 10).append(".0.0\n");
+				builder.append("    date-released: 2017-10-").append(10 + i % 20).append('\n');
+				builder.append("    date-accessed: 2018-01-31\n");
+				builder.append("    url: https://example.org/references/").append(i).append('\n');
+				builder.append("    repository-code: https://github.com/example/reference-").append(i).append('\n');
+				builder.append("    license: MIT\n");
+				builder.append("    keywords:\n");
+				builder.append("      - benchmark\n");
+				builder.append("      - synthetic\n");
+				builder.append("    languages:\n");
+				builder.append("      - en\n");
+				builder.append("      - deu\n");
+				builder.append("    year: 2017\n");
+				builder.append("    authors:\n");
+				for (int j = 0; j < authorsPerReference; j++) {
+					appendPerson(builder, "      ", j);
+				}
+				builder.append("      - name: The Example Consortium\n");
+				builder.append("        country: GB\n");
+				builder.append("        date-start: 2017-01-01\n");
+			}
+		}
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void appendPerson(StringBuilder builder, String indent, int index) {
+		builder.append(indent).append("- family-names: Family").append(index).append('\n');
+		builder.append(indent).append("  given-names: Given Names\n");
+		builder.append(indent).append("  affiliation: Excellent University\n");
+		builder.append(indent).append("  city: Citationburgh\n");
+		builder.append(indent).append("  country: DE\n");
+		builder.append(indent).append("  orcid: https://orcid.org/0000-0001-2345-6789\n");
+		builder.append(indent).append("  website: https://www.example.org/~person").append(index).append('\n');
+	}
+
+}
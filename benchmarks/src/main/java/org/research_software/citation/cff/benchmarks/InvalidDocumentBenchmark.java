@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataReader;
+
+/**
+ * Benchmarks for reading an invalid document, in default and in bulk mode
+ * of {@link SoftwareCitationMetadataPojoReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvalidDocumentBenchmark {
+
+	private static final String INVALID = "cff-version: 1.0.3\n"
+			+ "message: Message\n"
+			+ "authors:\n"
+			+ "  - name: Team\n"
+			+ "title: Title\n"
+			+ "version: 1.0.0\n"
+			+ "date-released: December 2018\n";
+
+	private SoftwareCitationMetadataReader defaultReader;
+	private SoftwareCitationMetadataReader bulkReader;
+	private byte[] document;
+
+	/**
+	 * Creates the readers.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		defaultReader = new SoftwareCitationMetadataPojoReader();
+		bulkReader = new SoftwareCitationMetadataPojoReader(true);
+		document = INVALID.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The exception thrown by the reader in default mode
+	 * @throws Exception
+	 */
+	@Benchmark
+	public InvalidDataException readInvalid() throws Exception {
+		return read(defaultReader);
+	}
+
+	/**
+	 * @return The exception thrown by the reader in bulk mode
+	 * @throws Exception
+	 */
+	@Benchmark
+	public InvalidDataException readInvalidInBulkMode() throws Exception {
+		return read(bulkReader);
+	}
+
+	private InvalidDataException read(SoftwareCitationMetadataReader reader) throws Exception {
+		try {
+			reader.readFromStream(new ByteArrayInputStream(document));
+		}
+		catch (InvalidDataException e) {
+			return e;
+		}
+		throw new IllegalStateException("The document has been read without errors.");
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.reader.CitationHeader;
+import org.research_software.citation.cff.reader.FieldMask;
+import org.research_software.citation.cff.reader.Projection;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+
+/**
+ * Benchmarks for reading small, typical and huge documents
+ * through {@link SoftwareCitationMetadataPojoReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReaderBenchmark {
+
+	@Param({ "SMALL", "TYPICAL", "HUGE" })
+	private Documents.Size size;
+
+	private static final FieldMask MASK = FieldMask.of("title", "doi", "version", "authors.family-names");
+
+	private SoftwareCitationMetadataPojoReader reader;
+	private byte[] document;
+	private ByteBuffer directDocument;
+	private File directory;
+	private File cffFile;
+
+	/**
+	 * Creates the reader, and writes the document to a temporary `CITATION.cff` file.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		reader = new SoftwareCitationMetadataPojoReader();
+		document = size.bytes();
+		directDocument = ByteBuffer.allocateDirect(document.length);
+		directDocument.put(document).flip();
+		directory = Files.createTempDirectory("cff-benchmark").toFile();
+		cffFile = new File(directory, "CITATION.cff");
+		Files.write(cffFile.toPath(), document);
+	}
+
+	/**
+	 * Deletes the temporary file.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		cffFile.delete();
+		directory.delete();
+	}
+
+	/**
+	 * @return The metadata read from an in-memory stream
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromStream() throws Exception {
+		return reader.readFromStream(new ByteArrayInputStream(document));
+	}
+
+	/**
+	 * @return The metadata read from the file system
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromFile() throws Exception {
+		return reader.readFromFile(cffFile);
+	}
+
+	/**
+	 * @return The metadata read from the file system via a heap or memory-mapped buffer
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromPath() throws Exception {
+		return reader.readFromPath(cffFile.toPath());
+	}
+
+	/**
+	 * @return The metadata read in place from a direct buffer
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromDirectBuffer() throws Exception {
+		return reader.readFromBuffer(directDocument);
+	}
+
+	/**
+	 * @return The values of a few keys read from an in-memory stream, skipping all others
+	 * @throws Exception
+	 */
+	@Benchmark
+	public Projection readProjectedFromStream() throws Exception {
+		return reader.readFromStream(new ByteArrayInputStream(document), MASK);
+	}
+
+	/**
+	 * @return The header keys probed from an in-memory stream, reading at most 8 KiB
+	 * @throws Exception
+	 */
+	@Benchmark
+	public CitationHeader probeFromStream() throws Exception {
+		return reader.probeFromStream(new ByteArrayInputStream(document), 8192);
+	}
+
+	/**
+	 * Includes the construction of the reader in every read, which
+	 * is how the reader was used before readers have been re-usable.
+	 * 
+	 * @return The metadata read from an in-memory stream
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromStreamWithNewReader() throws Exception {
+		return new SoftwareCitationMetadataPojoReader().readFromStream(new ByteArrayInputStream(document));
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataReader;
+
+/**
+ * Benchmarks for reading synthetic documents with large numbers
+ * of `references`, with references bound reflectively or directly.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReferencesBenchmark {
+
+	@Param({ "100", "1000", "5000" })
+	private int referenceCount;
+
+	/**
+	 * Whether references are bound by the hand-written deserializer,
+	 * or by Jackson's reflective bean deserializer.
+	 */
+	@Param({ "false", "true" })
+	private boolean directReferenceBinding;
+
+	private SoftwareCitationMetadataReader reader;
+	private byte[] document;
+
+	/**
+	 * Creates the reader and generates the document.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		reader = new SoftwareCitationMetadataPojoReader(false, directReferenceBinding);
+		document = Documents.generate(3, referenceCount, 3);
+	}
+
+	/**
+	 * @return The metadata read from an in-memory stream
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readFromStream() throws Exception {
+		return reader.readFromStream(new ByteArrayInputStream(document));
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.SoftwareCitationMetadataSnapshot;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataReader;
+
+/**
+ * Benchmarks for encoding and decoding snapshots via
+ * {@link SoftwareCitationMetadataSnapshot}, compared to reading
+ * the YAML document.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+	@Param({ "SMALL", "TYPICAL", "HUGE" })
+	private Documents.Size size;
+
+	private SoftwareCitationMetadataReader reader;
+	private byte[] document;
+	private SoftwareCitationMetadata metadata;
+	private byte[] snapshot;
+
+	/**
+	 * Reads the document, and encodes the snapshot.
+	 * 
+	 * @throws Exception
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		reader = new SoftwareCitationMetadataPojoReader();
+		document = size.bytes();
+		metadata = reader.readFromStream(new ByteArrayInputStream(document));
+		snapshot = SoftwareCitationMetadataSnapshot.encode(metadata);
+	}
+
+	/**
+	 * @return The metadata read from the YAML document, as a baseline
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata readYaml() throws Exception {
+		return reader.readFromStream(new ByteArrayInputStream(document));
+	}
+
+	/**
+	 * @return The snapshot of the metadata
+	 */
+	@Benchmark
+	public byte[] encode() {
+		return SoftwareCitationMetadataSnapshot.encode(metadata);
+	}
+
+	/**
+	 * @return The metadata decoded from a trusted snapshot
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata decodeTrusted() throws Exception {
+		return SoftwareCitationMetadataSnapshot.decode(snapshot, true);
+	}
+
+	/**
+	 * @return The metadata decoded and checked from an untrusted snapshot
+	 * @throws Exception
+	 */
+	@Benchmark
+	public SoftwareCitationMetadata decodeUntrusted() throws Exception {
+		return SoftwareCitationMetadataSnapshot.decode(snapshot, false);
+	}
+
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+
+/**
+ * Benchmarks for the validation of single values, and for the
+ * construction of the model objects which validate their values.
+ * 
+ * Lives in the package of {@link DefinedValues}, as that class is
+ * package-private. The other validators benchmarked here, e.g.,
+ * {@link LanguageCodes} and {@link OrcidValidator}, are public.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+	private static final Set<ReferenceType> SOFTWARE_TYPES = EnumSet.of(ReferenceType.SOFTWARE,
+			ReferenceType.SOFTWARE_CODE, ReferenceType.SOFTWARE_CONTAINER, ReferenceType.SOFTWARE_EXECUTABLE,
+			ReferenceType.SOFTWARE_VIRTUAL_MACHINE);
+
+	private String validLanguage = "deu";
+	private String invalidLanguage = "qqq";
+	private String country = "GB";
+	private String orcid = "https://orcid.org/0000-0001-2345-6789";
+	private String referenceType = "software-virtual-machine";
+	private String referenceStatus = "preprint";
+	private ReferenceType typeValue = ReferenceType.SOFTWARE_VIRTUAL_MACHINE;
+	private String date = "2017-10-31";
+	private String invalidDate = "2017-10-32";
+	private String url = "https://github.com/citation-file-format/cff-reader-java";
+	private List<String> languages = new ArrayList<>(Arrays.asList("en", "deu", "zu"));
+
+	/**
+	 * @return Whether the language is valid
+	 */
+	@Benchmark
+	public boolean isLanguageValid() {
+		return DefinedValues.isLanguageValid(validLanguage);
+	}
+
+	/**
+	 * @return Whether the language is valid
+	 */
+	@Benchmark
+	public boolean isLanguageValidForInvalidLanguage() {
+		return DefinedValues.isLanguageValid(invalidLanguage);
+	}
+
+	/**
+	 * @return Whether the country is valid
+	 */
+	@Benchmark
+	public boolean isCountryValid() {
+		return CountryCodes.isValid(country);
+	}
+
+	/**
+	 * @return The compact code of the country
+	 */
+	@Benchmark
+	public short toCountryCode() {
+		return CountryCodes.toCode(country);
+	}
+
+	/**
+	 * @return The parsed date
+	 */
+	@Benchmark
+	public LocalDate parseDate() {
+		return IsoDates.parse(date);
+	}
+
+	/**
+	 * Baseline for {@link #parseDate()}.
+	 * 
+	 * @return The parsed date
+	 */
+	@Benchmark
+	public LocalDate parseDateWithFormatter() {
+		return LocalDate.parse(date);
+	}
+
+	/**
+	 * @return Whether the invalid date is valid
+	 */
+	@Benchmark
+	public boolean isDateValidForInvalidDate() {
+		return IsoDates.isValid(invalidDate);
+	}
+
+	/**
+	 * @return Whether the ORCID is valid
+	 */
+	@Benchmark
+	public boolean isOrcidValid() {
+		return OrcidValidator.isWellFormedUrl(orcid);
+	}
+
+	/**
+	 * @return Whether the ORCID is valid, including its check digit
+	 */
+	@Benchmark
+	public boolean isOrcidValidWithCheckDigit() {
+		return OrcidValidator.isValid(orcid);
+	}
+
+	/**
+	 * Baseline for {@link #isOrcidValid()}, compiling and matching the pattern on every call.
+	 * 
+	 * @return Whether the ORCID is valid
+	 */
+	@Benchmark
+	public boolean isOrcidValidWithRegex() {
+		return orcid.matches(DefinedValues.ORCID_URL_PATTERN);
+	}
+
+	/**
+	 * @return Whether the reference type is valid
+	 */
+	@Benchmark
+	public boolean isReferenceTypeValid() {
+		return Reference.isValidType(referenceType);
+	}
+
+	/**
+	 * @return Whether the reference status is valid
+	 */
+	@Benchmark
+	public boolean isReferenceStatusValid() {
+		return Reference.isValidStatus(referenceStatus);
+	}
+
+	/**
+	 * @return Whether the reference is software, selected by its enum type
+	 */
+	@Benchmark
+	public boolean isSoftwareReference() {
+		return SOFTWARE_TYPES.contains(typeValue);
+	}
+
+	/**
+	 * Baseline for {@link #isSoftwareReference()}, comparing type strings.
+	 * 
+	 * @return Whether the reference is software, selected by its type string
+	 */
+	@Benchmark
+	public boolean isSoftwareReferenceWithStrings() {
+		return referenceType.equals("software") || referenceType.equals("software-code")
+				|| referenceType.equals("software-container") || referenceType.equals("software-executable")
+				|| referenceType.equals("software-virtual-machine");
+	}
+
+	/**
+	 * @return A person with all validated fields set
+	 * @throws InvalidDataException
+	 */
+	@Benchmark
+	public Person newPerson() throws InvalidDataException {
+		return new Person("Family", "Given", null, null, "Affiliation", null, "City", null, null, country, orcid,
+				null, null, null, url);
+	}
+
+	/**
+	 * @return An entity with all validated fields set
+	 * @throws InvalidDataException
+	 */
+	@Benchmark
+	public Entity newEntity() throws InvalidDataException {
+		return new Entity("Entity", date, date, null, null, null, null, null, country, orcid, null, null, null, url);
+	}
+
+	/**
+	 * @return A reference with all validated fields set
+	 * @throws InvalidDataException
+	 */
+	@Benchmark
+	public Reference newReference() throws InvalidDataException {
+		List<Subject> authors = new ArrayList<>();
+		authors.add(newPerson());
+		return new Reference(referenceType, "Title", authors, null, null, null, null, null, null, null, null, null,
+				null, date, date, date, date, null, null, null, null, null, null, null, null, null, null, null, null,
+				null, null, languages, null, url, null, null, null, null, null, null, null, null, null, null, null, url,
+				url, url, null, null, referenceStatus, null, null, url, null, null, null, null, null, null, null, null,
+				null, null, null, null, null, null, null);
+	}
+
+}
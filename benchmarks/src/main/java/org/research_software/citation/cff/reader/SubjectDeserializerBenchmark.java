@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.research_software.citation.cff.model.objects.Subject;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Benchmarks for {@link SubjectDeserializer}, deserializing lists of
+ * persons and entities as found in the `authors` of a document.
+ * 
+ * Lives in the package of the deserializer, as the deserializer
+ * is package-private.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubjectDeserializerBenchmark {
+
+	@Param({ "1", "100", "3000" })
+	private int subjectCount;
+
+	private ObjectReader reader;
+	private byte[] subjects;
+
+	/**
+	 * Creates the reader and generates the list of subjects.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+		SimpleModule module = new SimpleModule();
+		module.addDeserializer(Subject.class, new SubjectDeserializer());
+		mapper.registerModule(module);
+		reader = mapper.readerFor(new TypeReference<List<Subject>>() {
+			// Type token
+		});
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < subjectCount; i++) {
+			if (i % 10 == 9) {
+				builder.append("- name: Entity ").append(i).append('\n');
+				builder.append("  country: GB\n");
+				builder.append("  date-start: 2017-01-01\n");
+				builder.append("  date-end: 2017-01-31\n");
+			}
+			else {
+				builder.append("- family-names: Family").append(i).append('\n');
+				builder.append("  given-names: Given Names\n");
+				builder.append("  affiliation: Excellent University\n");
+				builder.append("  country: DE\n");
+				builder.append("  orcid: https://orcid.org/0000-0001-2345-6789\n");
+			}
+		}
+		subjects = builder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The deserialized subjects
+	 * @throws IOException
+	 */
+	@Benchmark
+	public List<Subject> deserialize() throws IOException {
+		return reader.readValue(subjects);
+	}
+
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Flow.Processor} that reads software citation metadata from
+ * the paths or byte buffers published upstream, and publishes a
+ * {@link ReadResult} for each of them downstream.
+ *
+ * Failed reads are published as failed results, so that invalid files
+ * do not terminate the stream. Only a failure of the upstream publisher
+ * is signalled via `onError`, after all inputs received before it have
+ * been read.
+ *
+ * Inputs are read one at a time, in the order in which they are
+ * received, on a client-supplied {@link Executor}, and only when the
+ * downstream subscriber has requested results. At most as many inputs
+ * as the buffer size are requested from upstream in advance.
+ *
+ * The processor supports a single subscriber. The executor is not
+ * shut down by the processor.
+ *
+ * {@link Flow} exists as of Java 9 only, so unlike the rest of the reader,
+ * this class is built for Java 9, in a separate artifact.
+ *
+ * @param <T> The type of the inputs
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public abstract class SoftwareCitationMetadataProcessor<T> implements Flow.Processor<T, ReadResult> {
+
+	/**
+	 * Replaces the upstream subscription once it has been cancelled.
+	 */
+	private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+
+		@Override
+		public void request(long n) {
+			// Cancelled
+		}
+
+		@Override
+		public void cancel() {
+			// Cancelled
+		}
+	};
+
+	private final ExtendedSoftwareCitationMetadataReader reader;
+	private final Executor executor;
+	private final int bufferSize;
+	private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+	private final AtomicReference<Flow.Subscriber<? super ReadResult>> downstream = new AtomicReference<>();
+	private final AtomicLong demand = new AtomicLong();
+	private final AtomicInteger wip = new AtomicInteger();
+	private volatile boolean upstreamDone = false;
+	private volatile Throwable upstreamError = null;
+	private volatile boolean cancelled = false;
+	private volatile Throwable failure = null;
+	private volatile boolean terminated = false;
+	private final Runnable drain = new Runnable() {
+
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+
+	SoftwareCitationMetadataProcessor(ExtendedSoftwareCitationMetadataReader reader, Executor executor, int bufferSize) {
+		if (reader == null || executor == null) {
+			throw new NullPointerException("Reader and executor must not be null!");
+		}
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("The buffer size must be positive (is " + bufferSize + ")!");
+		}
+		this.reader = reader;
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Creates a processor that reads the `CITATION.cff` files at the
+	 * paths published upstream.
+	 *
+	 * @param reader The reader to read files with
+	 * @param executor The executor to read on
+	 * @param bufferSize The maximum number of paths to request from upstream in advance
+	 * @return The new processor
+	 */
+	public static SoftwareCitationMetadataProcessor<Path> forPaths(ExtendedSoftwareCitationMetadataReader reader,
+			Executor executor, int bufferSize) {
+		return new SoftwareCitationMetadataProcessor<Path>(reader, executor, bufferSize) {
+
+			@Override
+			ReadResult read(ExtendedSoftwareCitationMetadataReader reader, Path cffFile) {
+				try {
+					return ReadResult.success(cffFile.toString(), reader.readFromPath(cffFile));
+				}
+				catch (Exception e) {
+					return ReadResult.failure(cffFile.toString(), e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Creates a processor that reads the contents of `CITATION.cff` files
+	 * from the byte buffers published upstream.
+	 *
+	 * The remaining bytes of each buffer are read. As buffers have no
+	 * source, the results report the buffers' positions in the stream,
+	 * starting with `0`, as their sources.
+	 *
+	 * @param reader The reader to read contents with
+	 * @param executor The executor to read on
+	 * @param bufferSize The maximum number of byte buffers to request from upstream in advance
+	 * @return The new processor
+	 */
+	public static SoftwareCitationMetadataProcessor<ByteBuffer> forBuffers(ExtendedSoftwareCitationMetadataReader reader,
+			Executor executor, int bufferSize) {
+		return new SoftwareCitationMetadataProcessor<ByteBuffer>(reader, executor, bufferSize) {
+
+			private long index = 0;
+
+			@Override
+			ReadResult read(ExtendedSoftwareCitationMetadataReader reader, ByteBuffer contents) {
+				String source = String.valueOf(index++);
+				try {
+					return ReadResult.success(source, reader.readFromBuffer(contents));
+				}
+				catch (Exception e) {
+					return ReadResult.failure(source, e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Reads a single input. Called by one thread at a time.
+	 *
+	 * @param reader The reader to read with
+	 * @param input The input to read
+	 * @return The result of the read
+	 */
+	abstract ReadResult read(ExtendedSoftwareCitationMetadataReader reader, T input);
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+	 */
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		if (!upstream.compareAndSet(null, subscription)) {
+			// Already subscribed, or cancelled
+			subscription.cancel();
+			return;
+		}
+		subscription.request(bufferSize);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(T input) {
+		if (input == null) {
+			throw new NullPointerException("Inputs must not be null!");
+		}
+		if (!cancelled) {
+			pending.offer(input);
+			schedule();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Throwable throwable) {
+		upstreamError = throwable;
+		upstreamDone = true;
+		schedule();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete() {
+		upstreamDone = true;
+		schedule();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Publisher#subscribe(java.util.concurrent.Flow.Subscriber)
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super ReadResult> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber must not be null!");
+		}
+		if (!downstream.compareAndSet(null, subscriber)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+
+				@Override
+				public void request(long n) {
+					// Not subscribed
+				}
+
+				@Override
+				public void cancel() {
+					// Not subscribed
+				}
+			});
+			subscriber.onError(new IllegalStateException("The processor supports a single subscriber only."));
+			return;
+		}
+		subscriber.onSubscribe(new Flow.Subscription() {
+
+			@Override
+			public void request(long n) {
+				if (n <= 0) {
+					failure = new IllegalArgumentException(
+							"The number of requested results must be positive (is " + n + ")!");
+					cancelUpstream();
+				}
+				else {
+					addDemand(n);
+				}
+				schedule();
+			}
+
+			@Override
+			public void cancel() {
+				cancelled = true;
+				cancelUpstream();
+			}
+		});
+		schedule();
+	}
+
+	private void cancelUpstream() {
+		Flow.Subscription subscription = upstream.getAndSet(CANCELLED);
+		if (subscription != null && subscription != CANCELLED) {
+			subscription.cancel();
+		}
+		pending.clear();
+	}
+
+	private void addDemand(long n) {
+		for (;;) {
+			long current = demand.get();
+			long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+			if (demand.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Schedules a drain on the executor, unless one is already running,
+	 * in which case that drain loops once more.
+	 */
+	private void schedule() {
+		if (wip.getAndIncrement() == 0) {
+			try {
+				executor.execute(drain);
+			}
+			catch (RejectedExecutionException e) {
+				// No drain can run, so signal the failure from here
+				cancelUpstream();
+				Flow.Subscriber<? super ReadResult> subscriber = downstream.get();
+				if (subscriber != null && !terminated) {
+					terminated = true;
+					subscriber.onError(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Publishes results while there is demand and there are pending
+	 * inputs, and terminates the downstream subscriber once all inputs
+	 * have been read. Runs on one thread at a time.
+	 */
+	private void drain() {
+		int missed = 1;
+		for (;;) {
+			Flow.Subscriber<? super ReadResult> subscriber = downstream.get();
+			if (subscriber != null && !terminated && !cancelled && failure != null) {
+				terminated = true;
+				subscriber.onError(failure);
+			}
+			if (subscriber != null && !terminated) {
+				while (!cancelled && demand.get() > 0) {
+					T input = pending.poll();
+					if (input == null) {
+						break;
+					}
+					ReadResult result = read(reader, input);
+					if (demand.get() != Long.MAX_VALUE) {
+						demand.decrementAndGet();
+					}
+					subscriber.onNext(result);
+					Flow.Subscription subscription = upstream.get();
+					if (subscription != null && subscription != CANCELLED) {
+						subscription.request(1);
+					}
+				}
+				if (!cancelled && upstreamDone && pending.isEmpty()) {
+					terminated = true;
+					if (upstreamError != null) {
+						subscriber.onError(upstreamError);
+					}
+					else {
+						subscriber.onComplete();
+					}
+				}
+			}
+			missed = wip.addAndGet(-missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+}
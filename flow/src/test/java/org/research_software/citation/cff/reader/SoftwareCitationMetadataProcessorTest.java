@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+
+/**
+ * Unit tests for {@link SoftwareCitationMetadataProcessor}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataProcessorTest {
+
+	/**
+	 * Temporary directory for copied files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final ExtendedSoftwareCitationMetadataReader reader = new SoftwareCitationMetadataPojoReader();
+
+	/**
+	 * Shuts down the executor.
+	 */
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests that paths are read in order, and that failed reads are
+	 * published as results rather than terminating the stream.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPaths() throws Exception {
+		List<Path> paths = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			paths.add(copy(i % 3 == 2 ? "/bugs/1/CITATION.cff" : "/CITATION.cff", "file" + i));
+		}
+		IterablePublisher<Path> upstream = new IterablePublisher<>(paths);
+		SoftwareCitationMetadataProcessor<Path> processor = SoftwareCitationMetadataProcessor.forPaths(reader,
+				executor, 2);
+		upstream.subscribe(processor);
+		CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+		processor.subscribe(subscriber);
+		assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+		assertThat(subscriber.error, is(nullValue()));
+		assertThat(subscriber.results, hasSize(6));
+		for (int i = 0; i < 6; i++) {
+			ReadResult result = subscriber.results.get(i);
+			assertThat(result.getSource(), is(paths.get(i).toString()));
+			assertThat(result.isSuccess(), is(i % 3 != 2));
+			if (!result.isSuccess()) {
+				assertThat(result.getException(), instanceOf(InvalidDataException.class));
+			}
+		}
+	}
+
+	/**
+	 * Tests that no more inputs are requested from upstream than
+	 * downstream demand and the buffer allow.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testBackpressure() throws Exception {
+		List<ByteBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			buffers.add(ByteBuffer.wrap(bytes("/CITATION.cff")));
+		}
+		IterablePublisher<ByteBuffer> upstream = new IterablePublisher<>(buffers);
+		SoftwareCitationMetadataProcessor<ByteBuffer> processor = SoftwareCitationMetadataProcessor
+				.forBuffers(reader, executor, 4);
+		upstream.subscribe(processor);
+		CollectingSubscriber subscriber = new CollectingSubscriber(3);
+		processor.subscribe(subscriber);
+		assertThat(subscriber.firstBatch.await(10, TimeUnit.SECONDS), is(true));
+		// Allow the drain to finish requesting replacements
+		Thread.sleep(100);
+		assertThat(subscriber.results, hasSize(3));
+		assertThat(subscriber.results.get(2).getSource(), is("2"));
+		assertThat(subscriber.results.get(2).getMetadata().getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(upstream.requested.get(), is(4L + 3L));
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+		assertThat(subscriber.results, hasSize(100));
+	}
+
+	/**
+	 * Tests that an upstream failure is signalled after all received
+	 * inputs have been read.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testUpstreamError() throws Exception {
+		final SoftwareCitationMetadataProcessor<ByteBuffer> processor = SoftwareCitationMetadataProcessor
+				.forBuffers(reader, executor, 4);
+		processor.onSubscribe(new Flow.Subscription() {
+
+			@Override
+			public void request(long n) {
+				// Inputs are pushed below
+			}
+
+			@Override
+			public void cancel() {
+				// Nothing to cancel
+			}
+		});
+		processor.onNext(ByteBuffer.wrap(bytes("/bugs/1/CITATION.cff")));
+		processor.onError(new IOException("Upstream failure"));
+		CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+		processor.subscribe(subscriber);
+		assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+		assertThat(subscriber.results, hasSize(1));
+		assertThat(subscriber.results.get(0).isSuccess(), is(false));
+		assertThat(subscriber.error, instanceOf(IOException.class));
+	}
+
+	private Path copy(String resource, String directory) throws IOException {
+		Path file = folder.newFolder(directory).toPath().resolve("CITATION.cff");
+		Files.copy(getClass().getResourceAsStream(resource), file, StandardCopyOption.REPLACE_EXISTING);
+		return file;
+	}
+
+	private byte[] bytes(String resource) throws IOException {
+		Path file = folder.getRoot().toPath().resolve("bytes");
+		try (InputStream stream = getClass().getResourceAsStream(resource)) {
+			Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return Files.readAllBytes(file);
+	}
+
+	/**
+	 * Publishes the elements of an iterable on request, on the requesting thread.
+	 */
+	private static final class IterablePublisher<T> implements Flow.Publisher<T> {
+
+		private final List<T> elements;
+		private final AtomicLong requested = new AtomicLong();
+		private int next = 0;
+
+		private IterablePublisher(List<T> elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+
+				@Override
+				public synchronized void request(long n) {
+					requested.addAndGet(n);
+					for (long i = 0; i < n && next < elements.size(); i++) {
+						subscriber.onNext(elements.get(next++));
+					}
+					if (next == elements.size()) {
+						next++;
+						subscriber.onComplete();
+					}
+				}
+
+				@Override
+				public void cancel() {
+					// Not needed
+				}
+			});
+		}
+	}
+
+	/**
+	 * Collects results, and requests an initial number of them.
+	 */
+	private static final class CollectingSubscriber implements Flow.Subscriber<ReadResult> {
+
+		private final long initialRequest;
+		private final List<ReadResult> results = Collections.synchronizedList(new ArrayList<ReadResult>());
+		private final CountDownLatch firstBatch = new CountDownLatch(1);
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile Flow.Subscription subscription;
+		private volatile Throwable error;
+
+		private CollectingSubscriber(long initialRequest) {
+			this.initialRequest = initialRequest;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(initialRequest);
+		}
+
+		@Override
+		public void onNext(ReadResult item) {
+			results.add(item);
+			if (results.size() == initialRequest) {
+				firstBatch.countDown();
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			done.countDown();
+		}
+	}
+
+}
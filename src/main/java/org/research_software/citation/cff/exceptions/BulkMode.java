@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.exceptions;
+
+/**
+ * Tracks whether the current thread is reading in bulk mode, and creates
+ * {@link InvalidDataException}s accordingly.
+ * 
+ * Readers in bulk mode enable bulk mode for the thread that performs a read,
+ * for the duration of the read. In bulk mode, invalid data is expected to be
+ * frequent, and the model classes throw {@link StacklessInvalidDataException}s,
+ * whose stack traces would only show the internals of the data binding.
+ * Otherwise, e.g., when model objects are constructed by clients, they throw
+ * {@link InvalidDataException}s with stack traces.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public final class BulkMode {
+
+	private static final ThreadLocal<Boolean> ENABLED = new ThreadLocal<Boolean>() {
+
+		@Override
+		protected Boolean initialValue() {
+			return Boolean.FALSE;
+		}
+
+	};
+
+	private BulkMode() {
+		// Static methods only
+	}
+
+	/**
+	 * @return Whether bulk mode is enabled for the current thread
+	 */
+	public static boolean isEnabled() {
+		return ENABLED.get().booleanValue();
+	}
+
+	/**
+	 * Enables or disables bulk mode for the current thread.
+	 * 
+	 * Callers should restore the previous state when they are done, e.g.,
+	 * in a `finally` block.
+	 * 
+	 * @param enabled Whether to enable bulk mode
+	 * @return Whether bulk mode has been enabled before
+	 */
+	public static boolean setEnabled(boolean enabled) {
+		boolean previous = isEnabled();
+		if (previous != enabled) {
+			ENABLED.set(Boolean.valueOf(enabled));
+		}
+		return previous;
+	}
+
+	/**
+	 * Creates an exception for invalid data, without a stack trace in bulk mode.
+	 * 
+	 * @param message The message accompanying a throw of the exception
+	 * @return The exception to throw
+	 */
+	public static InvalidDataException invalidData(String message) {
+		return isEnabled() ? new StacklessInvalidDataException(message) : new InvalidDataException(message);
+	}
+
+	/**
+	 * Creates an exception for invalid data, without a stack trace in bulk mode.
+	 * 
+	 * @param message The message accompanying a throw of the exception
+	 * @param cause The cause of the exception
+	 * @return The exception to throw
+	 */
+	public static InvalidDataException invalidData(String message, Throwable cause) {
+		return isEnabled() ? new StacklessInvalidDataException(message, cause) : new InvalidDataException(message, cause);
+	}
+
+}
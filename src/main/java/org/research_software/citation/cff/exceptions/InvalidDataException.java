@@ -45,6 +45,18 @@ public class InvalidDataException extends Exception {
 		super(message, cause);
 	}
 
+	/**
+	 * Constructor for subclasses that can omit the stack trace.
+	 * 
+	 * @param message The message accompanying a throw of the exception
+	 * @param cause The cause of the exception
+	 * @param writableStackTrace Whether the stack trace should be filled in
+	 * @see StacklessInvalidDataException
+	 */
+	protected InvalidDataException(String message, Throwable cause, boolean writableStackTrace) {
+		super(message, cause, false, writableStackTrace);
+	}
+
 	/**
 	 * The default serial version UID.
 	 */
@@ -42,4 +42,16 @@ public class ReadException extends Exception {
 		super(message, cause);
 	}
 
+	/**
+	 * Constructor for subclasses that can omit the stack trace.
+	 * 
+	 * @param message The message accompanying a throw of the exception
+	 * @param cause The cause of the exception
+	 * @param writableStackTrace Whether the stack trace should be filled in
+	 * @see StacklessReadException
+	 */
+	protected ReadException(String message, Throwable cause, boolean writableStackTrace) {
+		super(message, cause, false, writableStackTrace);
+	}
+
 }
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.exceptions;
+
+
+/**
+ * Unchecked exception wrapping an {@link InvalidDataException} or a
+ * {@link ReadException}.
+ *
+ * Thrown where checked exceptions cannot be declared, e.g., from
+ * {@link java.util.Iterator}s over lazily read data.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class UncheckedReadException extends RuntimeException {
+
+	/**
+	 * The default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor accepting the wrapped exception.
+	 *
+	 * @param cause The wrapped exception
+	 */
+	public UncheckedReadException(InvalidDataException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * Constructor accepting the wrapped exception.
+	 *
+	 * @param cause The wrapped exception
+	 */
+	public UncheckedReadException(ReadException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * @return The wrapped exception, i.e., an {@link InvalidDataException} or a {@link ReadException}
+	 */
+	@Override
+	public synchronized Exception getCause() {
+		return (Exception) super.getCause();
+	}
+
+}
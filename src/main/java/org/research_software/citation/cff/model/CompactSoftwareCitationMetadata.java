@@ -0,0 +1,406 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model;
+
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.research_software.citation.cff.model.objects.CitationUrl;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.Subject;
+import org.research_software.citation.cff.model.objects.ValuePool;
+
+/**
+ * A compact, read-only implementation of {@link SoftwareCitationMetadata},
+ * for holding many documents in memory, e.g., in an index.
+ *
+ * Values that commonly repeat across documents, as well as identical
+ * authors, contacts and references, are shared across all documents that
+ * have been compacted with the same {@link ValuePool}. All lists are
+ * immutable and sized to their contents, and empty lists are shared.
+ *
+ * The `convertAndSet...` methods throw an {@link UnsupportedOperationException}.
+ *
+ * The {@link Subject} and {@link Reference} instances returned by the
+ * getters are shared with other documents, and must not be modified by
+ * clients: a modification would show in every document that shares the
+ * instance, and would corrupt the {@link ValuePool}. As long as they are
+ * not modified, instances are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class CompactSoftwareCitationMetadata implements SoftwareCitationMetadataUrlValues {
+
+	private final String cffVersion;
+	private final String message;
+	private final String abstractString;
+	private final List<Subject> authors;
+	private final String commit;
+	private final List<Subject> contact;
+	private final LocalDate dateReleased;
+	private final String doi;
+	private final List<String> keywords;
+	private final String license;
+	private final CitationUrl licenseUrl;
+	private final CitationUrl repository;
+	private final CitationUrl repositoryCode;
+	private final CitationUrl repositoryArtifact;
+	private final String title;
+	private final CitationUrl url;
+	private final String version;
+	private final List<Reference> references;
+
+	/**
+	 * Copies the values of the passed metadata, taking them from the pool
+	 * unless the pool is `null`, in which case they must have been pooled
+	 * already.
+	 */
+	private CompactSoftwareCitationMetadata(SoftwareCitationMetadata metadata, ValuePool pool) {
+		boolean pooled = pool == null;
+		this.cffVersion = pooled ? metadata.getCffVersion() : pool.intern(metadata.getCffVersion());
+		this.message = pooled ? metadata.getMessage() : pool.intern(metadata.getMessage());
+		this.abstractString = metadata.getAbstract();
+		this.authors = pooled ? metadata.getAuthors() : pool.internSubjects(metadata.getAuthors());
+		this.commit = metadata.getCommit();
+		this.contact = pooled ? metadata.getContacts() : pool.internSubjects(metadata.getContacts());
+		this.dateReleased = metadata.getDateReleased();
+		this.doi = metadata.getDoi();
+		this.keywords = pooled ? metadata.getKeywords() : pool.internStrings(metadata.getKeywords());
+		this.license = pooled ? metadata.getLicense() : pool.intern(metadata.getLicense());
+		if (metadata instanceof SoftwareCitationMetadataUrlValues) {
+			SoftwareCitationMetadataUrlValues urls = (SoftwareCitationMetadataUrlValues) metadata;
+			this.licenseUrl = urls.getLicenseUrlValue();
+			this.repository = urls.getRepositoryValue();
+			this.repositoryCode = urls.getRepositoryCodeValue();
+			this.repositoryArtifact = urls.getRepositoryArtifactValue();
+			this.url = urls.getUrlValue();
+		}
+		else {
+			this.licenseUrl = CitationUrl.of(metadata.getLicenseUrl());
+			this.repository = CitationUrl.of(metadata.getRepository());
+			this.repositoryCode = CitationUrl.of(metadata.getRepositoryCode());
+			this.repositoryArtifact = CitationUrl.of(metadata.getRepositoryArtifact());
+			this.url = CitationUrl.of(metadata.getUrl());
+		}
+		this.title = metadata.getTitle();
+		this.version = metadata.getVersion();
+		this.references = pooled ? metadata.getReferences() : pool.internReferences(metadata.getReferences());
+	}
+
+	/**
+	 * Creates a compact copy of software citation metadata.
+	 *
+	 * @param metadata The metadata to copy
+	 * @param pool The pool to share values with across documents
+	 * @return The compact copy of the metadata
+	 */
+	public static CompactSoftwareCitationMetadata of(SoftwareCitationMetadata metadata, ValuePool pool) {
+		if (pool == null) {
+			throw new NullPointerException("Pool must not be null!");
+		}
+		return new CompactSoftwareCitationMetadata(metadata, pool);
+	}
+
+	/**
+	 * Creates a compact copy of software citation metadata, whose values
+	 * have already been taken from a pool when it has been decoded.
+	 */
+	static CompactSoftwareCitationMetadata ofPooled(SoftwareCitationMetadata metadata) {
+		return new CompactSoftwareCitationMetadata(metadata, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getCffVersion()
+	 */
+	@Override
+	public String getCffVersion() {
+		return cffVersion;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getMessage()
+	 */
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getTitle()
+	 */
+	@Override
+	public String getTitle() {
+		return title;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getVersion()
+	 */
+	@Override
+	public String getVersion() {
+		return version;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getDoi()
+	 */
+	@Override
+	public String getDoi() {
+		return doi;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getDateReleased()
+	 */
+	@Override
+	public LocalDate getDateReleased() {
+		return dateReleased;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#convertAndSetDateReleased(java.lang.String)
+	 */
+	@Override
+	public void convertAndSetDateReleased(String dateReleasedString) {
+		throw immutable();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getAbstract()
+	 */
+	@Override
+	public String getAbstract() {
+		return abstractString;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getCommit()
+	 */
+	@Override
+	public String getCommit() {
+		return commit;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getKeywords()
+	 */
+	@Override
+	public List<String> getKeywords() {
+		return keywords;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getLicense()
+	 */
+	@Override
+	public String getLicense() {
+		return license;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getLicenseUrl()
+	 */
+	@Override
+	public URL getLicenseUrl() {
+		return CitationUrl.toURL(licenseUrl);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getLicenseUrlValue()
+	 */
+	@Override
+	public CitationUrl getLicenseUrlValue() {
+		return licenseUrl;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#convertAndSetLicenseUrl(java.lang.String)
+	 */
+	@Override
+	public void convertAndSetLicenseUrl(String licenseUrlString) {
+		throw immutable();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getRepository()
+	 */
+	@Override
+	public URL getRepository() {
+		return CitationUrl.toURL(repository);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryValue()
+	 */
+	@Override
+	public CitationUrl getRepositoryValue() {
+		return repository;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#convertAndSetRepository(java.lang.String)
+	 */
+	@Override
+	public void convertAndSetRepository(String repositoryString) {
+		throw immutable();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getRepositoryCode()
+	 */
+	@Override
+	public URL getRepositoryCode() {
+		return CitationUrl.toURL(repositoryCode);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryCodeValue()
+	 */
+	@Override
+	public CitationUrl getRepositoryCodeValue() {
+		return repositoryCode;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#convertAndSetRepositoryCode(java.lang.String)
+	 */
+	@Override
+	public void convertAndSetRepositoryCode(String repositoryCodeString) {
+		throw immutable();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getRepositoryArtifact()
+	 */
+	@Override
+	public URL getRepositoryArtifact() {
+		return CitationUrl.toURL(repositoryArtifact);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryArtifactValue()
+	 */
+	@Override
+	public CitationUrl getRepositoryArtifactValue() {
+		return repositoryArtifact;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#convertAndSetRepositoryArtifact(java.lang.String)
+	 */
+	@Override
+	public void convertAndSetRepositoryArtifact(String repositoryArtifactString) {
+		throw immutable();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getUrl()
+	 */
+	@Override
+	public URL getUrl() {
+		return CitationUrl.toURL(url);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getUrlValue()
+	 */
+	@Override
+	public CitationUrl getUrlValue() {
+		return url;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getAuthors()
+	 */
+	@Override
+	public List<Subject> getAuthors() {
+		return authors;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getPersonAuthors()
+	 */
+	@Override
+	public List<Person> getPersonAuthors() {
+		return filter(authors, Person.class);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getEntityAuthors()
+	 */
+	@Override
+	public List<Entity> getEntityAuthors() {
+		return filter(authors, Entity.class);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getContacts()
+	 */
+	@Override
+	public List<Subject> getContacts() {
+		return contact;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getPersonContacts()
+	 */
+	@Override
+	public List<Person> getPersonContacts() {
+		return filter(contact, Person.class);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getEntityContacts()
+	 */
+	@Override
+	public List<Entity> getEntityContacts() {
+		return filter(contact, Entity.class);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getReferences()
+	 */
+	@Override
+	public List<Reference> getReferences() {
+		return references;
+	}
+
+	/*
+	 * HELPER METHODS
+	 */
+
+	private static <T extends Subject> List<T> filter(List<Subject> subjects, Class<T> type) {
+		List<T> filtered = new ArrayList<>();
+		if (subjects != null) {
+			for (Subject subject : subjects) {
+				if (type.isInstance(subject)) {
+					filtered.add(type.cast(subject));
+				}
+			}
+		}
+		return filtered;
+	}
+
+	private static UnsupportedOperationException immutable() {
+		return new UnsupportedOperationException("Compact software citation metadata is immutable.");
+	}
+
+}
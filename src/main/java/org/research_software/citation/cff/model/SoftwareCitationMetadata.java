@@ -41,6 +41,12 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
  */
 @JsonDeserialize(as = SoftwareCitationMetadataPojo.class)
 public interface SoftwareCitationMetadata {
+
+	/**
+	 * The version of the Citation File Format that is supported, and
+	 * that must be the value of `cff-version`.
+	 */
+	public static final String CFF_VERSION = "1.0.3";
 	
 	/* ######################################
 	 * Simple keys
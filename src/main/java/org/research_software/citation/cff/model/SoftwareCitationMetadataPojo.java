@@ -18,16 +18,22 @@ package org.research_software.citation.cff.model;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
+import org.research_software.citation.cff.model.objects.CitationUrl;
 import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.IsoDates;
 import org.research_software.citation.cff.model.objects.Person;
 import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.SnapshotReader;
+import org.research_software.citation.cff.model.objects.SnapshotWriter;
 import org.research_software.citation.cff.model.objects.Subject;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -40,9 +46,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * 
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
+final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadataUrlValues {
 
-	private static final Object CFF_VERSION = "1.0.3";
 	private String cffVersion;
 	private String message;
 	private String abstractString; // "abstract" is a reserved term
@@ -53,12 +58,12 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	private String doi;
 	private List<String> keywords = new ArrayList<String>();
 	private String license;
-	private URL licenseUrl;
-	private URL repository;
-	private URL repositoryCode;
-	private URL repositoryArtifact;
+	private CitationUrl licenseUrl;
+	private CitationUrl repository;
+	private CitationUrl repositoryCode;
+	private CitationUrl repositoryArtifact;
 	private String title;
-	private URL url;
+	private CitationUrl url;
 	private String version;
 	private List<Reference> references = new ArrayList<Reference>();
 
@@ -105,21 +110,12 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 			@JsonProperty("references") List<Reference> references)
 			throws InvalidDataException {
 		super();
-		if (cffVersion == null) {
-			throw new NullPointerException("'cff-version' is a required key and must be present and not null!");
-		}
-		else if (!cffVersion.equals(CFF_VERSION)) {
-			throw new InvalidDataException("'cff-version' must be " + CFF_VERSION + "!");
-		}
+		checkCffVersion(cffVersion);
 		this.cffVersion = cffVersion;
-		if (message == null) {
-			throw new InvalidDataException("'message' is a required key and must be present and not null!");
-		}
+		requireKey(message, "message");
 		this.message = message;
 		this.abstractString = abstractString;
-		if (authors == null) {
-			throw new InvalidDataException("'authors' is a required key and must be present and not null!");
-		}
+		requireKey(authors, "authors");
 		this.authors = authors;
 		this.commit = commit;
 		this.contact = contact;
@@ -131,18 +127,107 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 		convertAndSetRepository(repository);
 		convertAndSetRepositoryCode(repositoryCode);
 		convertAndSetRepositoryArtifact(repositoryArtifact);
-		if (title == null) {
-			throw new InvalidDataException("'title' is a required key and must be present and not null!");
-		}
+		requireKey(title, "title");
 		this.title = title;
 		convertAndSetUrl(url);
-		if (version == null) {
-			throw new InvalidDataException("'version' is a required key and must be present and not null!");
-		}
+		requireKey(version, "version");
 		this.version = version;
 		this.references = references;
 	}
 
+	/**
+	 * Constructor for reading snapshots.
+	 * 
+	 * @param in The reader to read the snapshot from
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 * @see SoftwareCitationMetadataSnapshot
+	 */
+	SoftwareCitationMetadataPojo(SnapshotReader in) throws InvalidDataException, ReadException {
+		this.cffVersion = in.readPooledString();
+		this.message = in.readPooledString();
+		this.abstractString = in.readString();
+		this.authors = in.readSubjects();
+		this.commit = in.readString();
+		this.contact = in.readSubjects();
+		this.dateReleased = in.readDate();
+		this.doi = in.readString();
+		this.keywords = in.readStrings();
+		this.license = in.readPooledString();
+		this.licenseUrl = in.readUrl();
+		this.repository = in.readUrl();
+		this.repositoryCode = in.readUrl();
+		this.repositoryArtifact = in.readUrl();
+		this.title = in.readString();
+		this.url = in.readUrl();
+		this.version = in.readString();
+		this.references = in.readReferences();
+		if (!in.isTrusted()) {
+			checkCffVersion(cffVersion);
+			requireKey(message, "message");
+			requireKey(authors, "authors");
+			if (dateReleased == null) {
+				throw BulkMode.invalidData("'date-released' is a required value and must not be empty or null!");
+			}
+			requireKey(title, "title");
+			requireKey(version, "version");
+		}
+	}
+
+	/**
+	 * Writes software citation metadata to a snapshot, in the order
+	 * in which {@link #SoftwareCitationMetadataPojo(SnapshotReader)} reads it.
+	 * 
+	 * @param metadata The metadata to write
+	 * @param out The writer to write the snapshot to
+	 */
+	static void writeTo(SoftwareCitationMetadata metadata, SnapshotWriter out) {
+		out.writeString(metadata.getCffVersion());
+		out.writeString(metadata.getMessage());
+		out.writeString(metadata.getAbstract());
+		out.writeSubjects(metadata.getAuthors());
+		out.writeString(metadata.getCommit());
+		out.writeSubjects(metadata.getContacts());
+		out.writeDate(metadata.getDateReleased());
+		out.writeString(metadata.getDoi());
+		out.writeStrings(metadata.getKeywords());
+		out.writeString(metadata.getLicense());
+		if (metadata instanceof SoftwareCitationMetadataUrlValues) {
+			SoftwareCitationMetadataUrlValues urls = (SoftwareCitationMetadataUrlValues) metadata;
+			out.writeUrl(urls.getLicenseUrlValue());
+			out.writeUrl(urls.getRepositoryValue());
+			out.writeUrl(urls.getRepositoryCodeValue());
+			out.writeUrl(urls.getRepositoryArtifactValue());
+			out.writeString(metadata.getTitle());
+			out.writeUrl(urls.getUrlValue());
+		}
+		else {
+			out.writeUrl(CitationUrl.of(metadata.getLicenseUrl()));
+			out.writeUrl(CitationUrl.of(metadata.getRepository()));
+			out.writeUrl(CitationUrl.of(metadata.getRepositoryCode()));
+			out.writeUrl(CitationUrl.of(metadata.getRepositoryArtifact()));
+			out.writeString(metadata.getTitle());
+			out.writeUrl(CitationUrl.of(metadata.getUrl()));
+		}
+		out.writeString(metadata.getVersion());
+		out.writeReferences(metadata.getReferences());
+	}
+
+	private static void checkCffVersion(String cffVersion) throws InvalidDataException {
+		if (cffVersion == null) {
+			throw new NullPointerException("'cff-version' is a required key and must be present and not null!");
+		}
+		else if (!cffVersion.equals(CFF_VERSION)) {
+			throw BulkMode.invalidData("'cff-version' must be " + CFF_VERSION + "!");
+		}
+	}
+
+	private static void requireKey(Object value, String key) throws InvalidDataException {
+		if (value == null) {
+			throw BulkMode.invalidData("'" + key + "' is a required key and must be present and not null!");
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadata#getCffVersion()
 	 */
@@ -275,15 +360,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 
 	@JsonProperty("date-released")
 	public void convertAndSetDateReleased(String dateReleased) throws InvalidDataException {
-		try {
-			this.dateReleased = LocalDate.parse(dateReleased);
-		}
-		catch (DateTimeParseException e) {
-			throw new InvalidDataException("DateTimeParseException in field 'date-released'!", e);
+		if (dateReleased == null) {
+			throw BulkMode.invalidData("'date-released' is a required value and must not be empty or null!");
 		}
-		catch (NullPointerException e) {
-			throw new InvalidDataException("'date-released' is a required value and must not be empty or null!");
+		LocalDate parsed = IsoDates.parse(dateReleased);
+		if (parsed == null) {
+			throw IsoDates.invalidDate("DateTimeParseException in field 'date-released'!", dateReleased);
 		}
+		this.dateReleased = parsed;
 	}
 
 	/* (non-Javadoc)
@@ -330,6 +414,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	 */
 	@JsonProperty("license-url")
 	public URL getLicenseUrl() {
+		return CitationUrl.toURL(licenseUrl);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getLicenseUrlValue()
+	 */
+	@JsonIgnore
+	public CitationUrl getLicenseUrlValue() {
 		return licenseUrl;
 	}
 
@@ -340,10 +432,10 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	public void convertAndSetLicenseUrl(String licenseUrl) throws InvalidDataException {
 		if (licenseUrl != null) {
 			try {
-				this.licenseUrl = new URL(licenseUrl);
+				this.licenseUrl = CitationUrl.parse(licenseUrl);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The citation metadata for '" + getTitle()
+				throw BulkMode.invalidData("The citation metadata for '" + getTitle()
 						+ "' contains an invalid URL in field 'license-url'!", e);
 			}
 		}
@@ -354,6 +446,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	 */
 	@JsonProperty("repository")
 	public URL getRepository() {
+		return CitationUrl.toURL(repository);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryValue()
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryValue() {
 		return repository;
 	}
 
@@ -364,10 +464,10 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	public void convertAndSetRepository(String repository) throws InvalidDataException {
 		if (repository != null) {
 			try {
-				this.repository = new URL(repository);
+				this.repository = CitationUrl.parse(repository);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The citation metadata for '" + getTitle()
+				throw BulkMode.invalidData("The citation metadata for '" + getTitle()
 						+ "' contains an invalid URL in field 'repository'!", e);
 			}
 		}
@@ -378,6 +478,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	 */
 	@JsonProperty("repository-code")
 	public URL getRepositoryCode() {
+		return CitationUrl.toURL(repositoryCode);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryCodeValue()
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryCodeValue() {
 		return repositoryCode;
 	}
 
@@ -388,10 +496,10 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	public void convertAndSetRepositoryCode(String repositoryCode) throws InvalidDataException {
 		if (repositoryCode != null) {
 			try {
-				this.repositoryCode = new URL(repositoryCode);
+				this.repositoryCode = CitationUrl.parse(repositoryCode);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The citation metadata for '" + getTitle()
+				throw BulkMode.invalidData("The citation metadata for '" + getTitle()
 						+ "' contains an invalid URL in field 'repository-code'!", e);
 			}
 		}
@@ -402,6 +510,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	 */
 	@JsonProperty("repository-artifact")
 	public URL getRepositoryArtifact() {
+		return CitationUrl.toURL(repositoryArtifact);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getRepositoryArtifactValue()
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryArtifactValue() {
 		return repositoryArtifact;
 	}
 
@@ -412,10 +528,10 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	public void convertAndSetRepositoryArtifact(String repositoryArtifact) throws InvalidDataException {
 		if (repositoryArtifact != null) {
 			try {
-				this.repositoryArtifact = new URL(repositoryArtifact);
+				this.repositoryArtifact = CitationUrl.parse(repositoryArtifact);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The citation metadata for '" + getTitle()
+				throw BulkMode.invalidData("The citation metadata for '" + getTitle()
 						+ "' contains an invalid URL in field 'repository-artifact'!", e);
 
 			}
@@ -440,6 +556,14 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	 */
 	@JsonProperty("url")
 	public URL getUrl() {
+		return CitationUrl.toURL(url);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues#getUrlValue()
+	 */
+	@JsonIgnore
+	public CitationUrl getUrlValue() {
 		return url;
 	}
 
@@ -453,10 +577,10 @@ final class SoftwareCitationMetadataPojo implements SoftwareCitationMetadata {
 	public void convertAndSetUrl(String url) throws InvalidDataException {
 		if (url != null) {
 			try {
-				this.url = new URL(url);
+				this.url = CitationUrl.parse(url);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The citation metadata for '" + getTitle()
+				throw BulkMode.invalidData("The citation metadata for '" + getTitle()
 						+ "' contains an invalid URL in field 'url'!", e);
 			}
 		}
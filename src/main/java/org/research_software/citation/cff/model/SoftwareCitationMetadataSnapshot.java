@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.objects.SnapshotReader;
+import org.research_software.citation.cff.model.objects.SnapshotWriter;
+import org.research_software.citation.cff.model.objects.ValuePool;
+
+/**
+ * Encodes {@link SoftwareCitationMetadata} into, and decodes it from,
+ * compact binary snapshots, e.g., to persist metadata that has been read
+ * and reload it later without parsing YAML again.
+ *
+ * A snapshot starts with the magic bytes `CFFS` and the version of
+ * the snapshot format, followed by the metadata in the format written
+ * by {@link SnapshotWriter}. Snapshots of other format versions
+ * cannot be decoded.
+ *
+ * Snapshots that have been encoded by this class from metadata that has
+ * been read by a reader can be decoded as *trusted*, which skips the checks
+ * performed when metadata is read, and is much faster than reading the
+ * original file. Snapshots from other sources should be decoded as untrusted.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class SoftwareCitationMetadataSnapshot {
+
+	/**
+	 * The version of the snapshot format written by this class.
+	 */
+	public static final int FORMAT_VERSION = 1;
+	private static final byte[] MAGIC = { 'C', 'F', 'F', 'S' };
+
+	private SoftwareCitationMetadataSnapshot() {
+		// Static utility class
+	}
+
+	/**
+	 * Encodes software citation metadata into a snapshot.
+	 *
+	 * @param metadata The metadata to encode
+	 * @return The snapshot bytes
+	 */
+	public static byte[] encode(SoftwareCitationMetadata metadata) {
+		return write(metadata).toByteArray();
+	}
+
+	/**
+	 * Encodes software citation metadata into a snapshot, and writes it
+	 * to a stream.
+	 *
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client.
+	 *
+	 * @param metadata The metadata to encode
+	 * @param out The stream to write the snapshot to
+	 * @throws IOException if the stream cannot be written to
+	 */
+	public static void encode(SoftwareCitationMetadata metadata, OutputStream out) throws IOException {
+		write(metadata).writeTo(out);
+	}
+
+	/**
+	 * Decodes software citation metadata from a snapshot.
+	 *
+	 * @param snapshot The snapshot bytes
+	 * @param trusted Whether the snapshot is trusted, and the metadata should be created without checks
+	 * @return The decoded metadata
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated, corrupt, or of another format version
+	 */
+	public static SoftwareCitationMetadata decode(byte[] snapshot, boolean trusted)
+			throws InvalidDataException, ReadException {
+		return read(new SnapshotReader(snapshot, 0, snapshot.length, trusted), snapshot.length);
+	}
+
+	/**
+	 * Decodes software citation metadata from a snapshot into compact
+	 * metadata, sharing values with other documents via a pool.
+	 *
+	 * @param snapshot The snapshot bytes
+	 * @param trusted Whether the snapshot is trusted, and the metadata should be created without checks
+	 * @param pool The pool to share values with across documents
+	 * @return The decoded compact metadata
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated, corrupt, or of another format version
+	 * @see CompactSoftwareCitationMetadata
+	 */
+	public static CompactSoftwareCitationMetadata decode(byte[] snapshot, boolean trusted, ValuePool pool)
+			throws InvalidDataException, ReadException {
+		if (pool == null) {
+			throw new NullPointerException("Pool must not be null!");
+		}
+		return CompactSoftwareCitationMetadata.ofPooled(
+				read(new SnapshotReader(snapshot, 0, snapshot.length, trusted, pool), snapshot.length));
+	}
+
+	private static SoftwareCitationMetadata read(SnapshotReader in, int length)
+			throws InvalidDataException, ReadException {
+		if (length < MAGIC.length || !Arrays.equals(in.readBytes(MAGIC.length), MAGIC)) {
+			throw new ReadException("The data is not a software citation metadata snapshot.", null);
+		}
+		long version = in.readVarLong();
+		if (version != FORMAT_VERSION) {
+			throw new ReadException("The snapshot format version " + version + " is not supported (expected "
+					+ FORMAT_VERSION + ").", null);
+		}
+		SoftwareCitationMetadata metadata = new SoftwareCitationMetadataPojo(in);
+		if (!in.isAtEnd()) {
+			throw new ReadException("The snapshot is corrupt: it contains trailing data.", null);
+		}
+		return metadata;
+	}
+
+	/**
+	 * Reads a snapshot from a stream, and decodes the software citation
+	 * metadata from it.
+	 *
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client.
+	 *
+	 * @param in The stream to read the snapshot from
+	 * @param trusted Whether the snapshot is trusted, and the metadata should be created without checks
+	 * @return The decoded metadata
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the stream cannot be read, or the snapshot is truncated, corrupt, or of another
+	 *             format version
+	 */
+	public static SoftwareCitationMetadata decode(InputStream in, boolean trusted)
+			throws InvalidDataException, ReadException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		try {
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				bytes.write(buffer, 0, read);
+			}
+		}
+		catch (IOException e) {
+			throw new ReadException("The read process failed due to an exception.", e);
+		}
+		return decode(bytes.toByteArray(), trusted);
+	}
+
+	private static SnapshotWriter write(SoftwareCitationMetadata metadata) {
+		SnapshotWriter out = new SnapshotWriter();
+		out.writeBytes(MAGIC);
+		out.writeVarLong(FORMAT_VERSION);
+		SoftwareCitationMetadataPojo.writeTo(metadata, out);
+		return out;
+	}
+
+}
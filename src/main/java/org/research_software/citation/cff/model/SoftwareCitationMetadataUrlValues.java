@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model;
+
+import java.net.URL;
+
+import org.research_software.citation.cff.model.objects.CitationUrl;
+
+/**
+ * Software citation metadata that also provides its URLs as
+ * {@link CitationUrl}s, which are converted into {@link URL}s only on
+ * demand.
+ * 
+ * All metadata returned by the readers of this API implements this
+ * interface. It is kept separate from {@link SoftwareCitationMetadata},
+ * so that existing implementations of that interface do not need to
+ * implement these methods.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public interface SoftwareCitationMetadataUrlValues extends SoftwareCitationMetadata {
+
+	/**
+	 * @return The URL pointing to the license text as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	public CitationUrl getLicenseUrlValue();
+
+	/**
+	 * @return The URL of the repository for the software version as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	public CitationUrl getRepositoryValue();
+
+	/**
+	 * @return The URL of the source code repository for the software version as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	public CitationUrl getRepositoryCodeValue();
+
+	/**
+	 * @return The URL of the artifact repository for the software version as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	public CitationUrl getRepositoryArtifactValue();
+
+	/**
+	 * @return The URL of the software version landing page or website as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	public CitationUrl getUrlValue();
+
+}
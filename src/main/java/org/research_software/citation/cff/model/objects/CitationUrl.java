@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * A URL value in software citation metadata.
+ *
+ * The URL is validated when it is parsed, but is kept as a string. It
+ * is converted into a {@link URL} object only when that is first
+ * requested via {@link #toURL()}.
+ *
+ * Common `http` and `https` URLs with plain host names are validated
+ * by a cheap character check. All other strings are validated by
+ * constructing a {@link URL}, so that a `CitationUrl` can be parsed
+ * from exactly the same strings as a {@link URL}, and the same
+ * {@link MalformedURLException}s are thrown for invalid strings.
+ *
+ * Unlike {@link URL#equals(Object)} and {@link URL#hashCode()},
+ * {@link #equals(Object)} and {@link #hashCode()} compare the
+ * string values, and never resolve host names. `CitationUrl`s can
+ * therefore safely be used in hash-based collections.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class CitationUrl {
+
+	private static final String HTTP_PREFIX = "http://";
+	private static final String HTTPS_PREFIX = "https://";
+
+	private final String value;
+	private volatile URL url;
+
+	private CitationUrl(String value, URL url) {
+		this.value = value;
+		this.url = url;
+	}
+
+	/**
+	 * Parses the passed string into a `CitationUrl`.
+	 *
+	 * @param value The URL string to parse
+	 * @return The parsed URL
+	 * @throws MalformedURLException if a {@link URL} cannot be constructed from the string
+	 */
+	public static CitationUrl parse(String value) throws MalformedURLException {
+		if (value == null) {
+			throw new NullPointerException("The URL string must not be null!");
+		}
+		if (isPlainHttpUrl(value)) {
+			return new CitationUrl(value, null);
+		}
+		return new CitationUrl(value, new URL(value));
+	}
+
+	/**
+	 * Creates a `CitationUrl` from a {@link URL}, e.g., as returned by
+	 * implementations of the model that do not provide `CitationUrl`s.
+	 *
+	 * @param url The URL, may be `null`
+	 * @return The URL as a `CitationUrl`, or `null` if the URL is `null`
+	 */
+	public static CitationUrl of(URL url) {
+		return url == null ? null : new CitationUrl(url.toString(), url);
+	}
+
+	/**
+	 * Creates a `CitationUrl` from a string that has been validated
+	 * before, e.g., when read from a trusted snapshot.
+	 *
+	 * @param value The validated URL string
+	 * @return The URL
+	 */
+	static CitationUrl trusted(String value) {
+		return new CitationUrl(value, null);
+	}
+
+	/**
+	 * Checks whether a string is an `http` or `https` URL, whose
+	 * authority is a host name consisting only of ASCII letters,
+	 * digits, dots, hyphens and underscores, i.e., has no user info
+	 * and no port. {@link URL} accepts all such strings.
+	 */
+	private static boolean isPlainHttpUrl(String value) {
+		int authorityStart;
+		if (value.startsWith(HTTPS_PREFIX)) {
+			authorityStart = HTTPS_PREFIX.length();
+		}
+		else if (value.startsWith(HTTP_PREFIX)) {
+			authorityStart = HTTP_PREFIX.length();
+		}
+		else {
+			return false;
+		}
+		for (int i = authorityStart; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '/' || c == '?' || c == '#') {
+				return true;
+			}
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.'
+					|| c == '-' || c == '_')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the {@link URL} for this value, constructing it on first access.
+	 *
+	 * @return The URL
+	 */
+	public URL toURL() {
+		URL result = url;
+		if (result == null) {
+			try {
+				result = new URL(value);
+			}
+			catch (MalformedURLException e) {
+				// Cannot happen, as the value has been validated when parsed
+				throw new IllegalStateException("The validated URL '" + value + "' is malformed!", e);
+			}
+			url = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link URL} for the passed value, or `null`
+	 * if the value is `null`.
+	 *
+	 * @param value The value to convert, may be `null`
+	 * @return The URL, or `null`
+	 */
+	public static URL toURL(CitationUrl value) {
+		return value == null ? null : value.toURL();
+	}
+
+	/**
+	 * @return The URL string as it has been parsed
+	 */
+	@Override
+	public String toString() {
+		return value;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return value.hashCode();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CitationUrl)) {
+			return false;
+		}
+		return value.equals(((CitationUrl) obj).value);
+	}
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+/**
+ * Validates values for **`country`** according to the
+ * [format specifications](https://citation-file-format.github.io/),
+ * i.e., ISO 3166-1 alpha-2 codes, and converts them into compact
+ * codes.
+ * 
+ * Valid values consist of two uppercase ASCII letters. Every possible
+ * value is mapped to one bit in a bitmap of 26^2 bits, so that
+ * validation does not allocate and takes constant time. The index of
+ * the bit is used as the compact code of the country, which fits into
+ * a `short`, and is converted back into a shared string on demand.
+ * 
+ * Validation and conversion are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public final class CountryCodes {
+
+	/**
+	 * The compact code for the absence of a country.
+	 */
+	public static final short NONE = -1;
+
+	private static final int LETTERS = 26;
+	private static final long[] CODES = new long[(LETTERS * LETTERS + 63) / 64];
+	private static final String[] VALUES = new String[LETTERS * LETTERS];
+
+	/**
+	 * The valid codes, separated by spaces. Only used to populate the bitmap.
+	 */
+	private static final String DEFINED_CODES =
+			"AD AE AF AG AI AL AM AO AQ AR AS AT AU AW AX AZ BA BB BD BE BF BG BH BI BJ BL BM BN BO BQ BR BS " +
+			"BT BV BW BY BZ CA CC CD CF CG CH CI CK CL CM CN CO CR CU CV CW CX CY CZ DE DJ DK DM DO DZ EC EE " +
+			"EG EH ER ES ET FI FJ FK FM FO FR GA GB GD GE GF GG GH GI GL GM GN GP GQ GR GS GT GU GW GY HK HM " +
+			"HN HR HT HU ID IE IL IM IN IO IQ IR IS IT JE JM JO JP KE KG KH KI KM KN KP KR KW KY KZ LA LB LC " +
+			"LI LK LR LS LT LU LV LY MA MC MD ME MF MG MH MK ML MM MN MO MP MQ MR MS MT MU MV MW MX MY MZ NA " +
+			"NC NE NF NG NI NL NO NP NR NU NZ OM PA PE PF PG PH PK PL PM PN PR PS PT PW PY QA RE RO RS RU RW " +
+			"SA SB SC SD SE SG SH SI SJ SK SL SM SN SO SR SS ST SV SX SY SZ TC TD TF TG TH TJ TK TL TM TN TO " +
+			"TR TT TV TW TZ UA UG UM US UY UZ VA VC VE VG VI VN VU WF WS YE YT ZA ZM ZW";
+
+	static {
+		for (String value : DEFINED_CODES.split(" ")) {
+			int code = index(value);
+			CODES[code >>> 6] |= 1L << code;
+			VALUES[code] = value;
+		}
+	}
+
+	private CountryCodes() {
+		// Static utility class
+	}
+
+	/**
+	 * Validates whether a value for **`country`** is valid,
+	 * i.e., is an ISO 3166-1 alpha-2 code.
+	 * 
+	 * @param country The country code to check for validity, may be `null`
+	 * @return Whether the country code is valid
+	 */
+	public static boolean isValid(CharSequence country) {
+		return toCode(country) != NONE;
+	}
+
+	/**
+	 * Converts a value for **`country`** into its compact code.
+	 * 
+	 * @param country The ISO 3166-1 alpha-2 code to convert, may be `null`
+	 * @return The compact code, or {@link #NONE} if the value is `null` or not valid
+	 */
+	public static short toCode(CharSequence country) {
+		if (country == null || country.length() != 2) {
+			return NONE;
+		}
+		int code = index(country);
+		if (code < 0 || (CODES[code >>> 6] & (1L << code)) == 0) {
+			return NONE;
+		}
+		return (short) code;
+	}
+
+	/**
+	 * Converts a compact code back into the value for **`country`**.
+	 * 
+	 * @param code The compact code to convert
+	 * @return The ISO 3166-1 alpha-2 code, or `null` for {@link #NONE}
+	 * @throws IllegalArgumentException if the code is not the compact code of a valid value
+	 */
+	public static String toValue(short code) {
+		if (code == NONE) {
+			return null;
+		}
+		String value = code >= 0 && code < VALUES.length ? VALUES[code] : null;
+		if (value == null) {
+			throw new IllegalArgumentException("The code " + code + " is not a country code.");
+		}
+		return value;
+	}
+
+	/**
+	 * Computes the base-26 index of a code of uppercase ASCII letters.
+	 * 
+	 * @return The index, or `-1` if the code contains other characters
+	 */
+	private static int index(CharSequence code) {
+		int index = 0;
+		for (int i = 0; i < code.length(); i++) {
+			int letter = code.charAt(i) - 'A';
+			if (letter < 0 || letter >= LETTERS) {
+				return -1;
+			}
+			index = index * LETTERS + letter;
+		}
+		return index;
+	}
+
+}
@@ -17,10 +17,11 @@
  */
 package org.research_software.citation.cff.model.objects;
 
-import java.time.DateTimeException;
 import java.time.LocalDate;
 
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -72,15 +73,50 @@ public final class Entity extends Subject {
 			@JsonProperty("email") String email, @JsonProperty("tel") String tel, @JsonProperty("fax") String fax,
 			@JsonProperty("website") String website) throws InvalidDataException {
 		super(address, city, region, postCode, country, orcid, email, tel, fax, website);
-		if (name == null) {
-			throw new InvalidDataException("'name' is a required key in entities and must be present and not null!");
-		}
 		this.name = name;
+		checkRequiredKeys();
 		setDateStart(dateStart);
 		setDateEnd(dateEnd);
 		this.location = location;
 	}
 
+	/**
+	 * Constructor for reading snapshots.
+	 * 
+	 * @param in The reader to read the snapshot from
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 * @see SnapshotReader
+	 */
+	Entity(SnapshotReader in) throws InvalidDataException, ReadException {
+		super(in);
+		this.name = in.readPooledString();
+		this.dateStart = in.readDate();
+		this.dateEnd = in.readDate();
+		this.location = in.readPooledString();
+		if (!in.isTrusted()) {
+			checkRequiredKeys();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.objects.Subject#writeTo(org.research_software.citation.cff.model.objects.SnapshotWriter)
+	 */
+	@Override
+	void writeTo(SnapshotWriter out) {
+		super.writeTo(out);
+		out.writeString(name);
+		out.writeDate(dateStart);
+		out.writeDate(dateEnd);
+		out.writeString(location);
+	}
+
+	private void checkRequiredKeys() throws InvalidDataException {
+		if (name == null) {
+			throw BulkMode.invalidData("'name' is a required key in entities and must be present and not null!");
+		}
+	}
+
 	/**
 	 * @return The name of the entity
 	 */
@@ -105,12 +141,11 @@ public final class Entity extends Subject {
 	@JsonProperty("date-start")
 	private void setDateStart(String dateStart) throws InvalidDataException {
 		if (dateStart != null) {
-			try {
-				this.dateStart = LocalDate.parse(dateStart);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-start'!", e);
+			LocalDate parsed = IsoDates.parse(dateStart);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-start'!", dateStart);
 			}
+			this.dateStart = parsed;
 		}
 	}
 
@@ -125,12 +160,11 @@ public final class Entity extends Subject {
 	@JsonProperty("date-end")
 	private void setDateEnd(String dateEnd) throws InvalidDataException {
 		if (dateEnd != null) {
-			try {
-				this.dateEnd = LocalDate.parse(dateEnd);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-end'!", e);
+			LocalDate parsed = IsoDates.parse(dateEnd);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-end'!", dateEnd);
 			}
+			this.dateEnd = parsed;
 		}
 	}
 
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Year;
+
+import org.research_software.citation.cff.exceptions.BulkMode;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.StacklessInvalidDataException;
+
+/**
+ * Parses date values of the form `YYYY-MM-DD`, i.e., ISO 8601 dates as
+ * accepted by {@link LocalDate#parse(CharSequence)}.
+ * 
+ * Values of exactly that form are parsed directly from their characters,
+ * without building a parse context, and invalid values of that form,
+ * e.g., `2018-02-30`, are reported by returning `null` rather than by
+ * throwing an exception. Other values are only left to
+ * {@link LocalDate#parse(CharSequence)} if they start with a sign, as
+ * years with more than four digits, or negative years, must do. All
+ * others are rejected directly, so that exactly the same values are
+ * accepted, and values such as `December 2018` are rejected without
+ * throwing an exception.
+ * 
+ * Recently parsed dates are kept in a small cache, so that the many
+ * identical dates in a corpus share {@link LocalDate} instances.
+ * 
+ * Parsing is thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public final class IsoDates {
+
+	private static final int LENGTH = 10;
+	private static final int CACHE_SIZE = 1024;
+	private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+	/**
+	 * Direct-mapped cache of recently parsed dates. Races are benign, as
+	 * {@link LocalDate}s are immutable, and each hit is verified.
+	 */
+	private static final LocalDate[] CACHE = new LocalDate[CACHE_SIZE];
+
+	private IsoDates() {
+		// Static utility class
+	}
+
+	/**
+	 * Parses a date value.
+	 * 
+	 * @param text The value to parse, may be `null`
+	 * @return The date, or `null` if the value is `null` or not a valid date
+	 */
+	public static LocalDate parse(CharSequence text) {
+		if (text == null) {
+			return null;
+		}
+		if (!hasIsoForm(text)) {
+			if (text.length() == 0 || (text.charAt(0) != '+' && text.charAt(0) != '-')) {
+				return null;
+			}
+			try {
+				return LocalDate.parse(text);
+			}
+			catch (DateTimeException e) {
+				return null;
+			}
+		}
+		int year = digits(text, 0, 4);
+		int month = digits(text, 5, 7);
+		int day = digits(text, 8, 10);
+		if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+			return null;
+		}
+		int slot = ((year * 31 + month) * 37 + day) & (CACHE_SIZE - 1);
+		LocalDate date = CACHE[slot];
+		if (date == null || date.getDayOfMonth() != day || date.getMonthValue() != month || date.getYear() != year) {
+			date = LocalDate.of(year, month, day);
+			CACHE[slot] = date;
+		}
+		return date;
+	}
+
+	/**
+	 * Validates whether a value is a valid date.
+	 * 
+	 * @param text The value to check for validity, may be `null`
+	 * @return Whether the value is a valid date
+	 */
+	public static boolean isValid(CharSequence text) {
+		return parse(text) != null;
+	}
+
+	/**
+	 * Returns the exception that {@link LocalDate#parse(CharSequence)}
+	 * throws for a value, to report why {@link #parse(CharSequence)}
+	 * has rejected it.
+	 * 
+	 * @param text The rejected value, not `null`
+	 * @return The exception, or `null` if the value is a valid date
+	 */
+	public static DateTimeException explain(CharSequence text) {
+		try {
+			LocalDate.parse(text);
+			return null;
+		}
+		catch (DateTimeException e) {
+			return e;
+		}
+	}
+
+	/**
+	 * Returns why {@link #parse(CharSequence)} has rejected a value,
+	 * without parsing it again.
+	 * 
+	 * @param text The rejected value, not `null`
+	 * @return The reason, or `null` if the value is a valid date of the form `YYYY-MM-DD`
+	 */
+	public static String reason(CharSequence text) {
+		if (!hasIsoForm(text)) {
+			return "Text '" + text + "' is not a date of the form YYYY-MM-DD";
+		}
+		int year = digits(text, 0, 4);
+		int month = digits(text, 5, 7);
+		int day = digits(text, 8, 10);
+		if (month < 1 || month > 12) {
+			return "Text '" + text + "' has an invalid month " + month;
+		}
+		if (day < 1 || day > daysInMonth(year, month)) {
+			return "Text '" + text + "' has an invalid day " + day + " for month " + month + " of year " + year;
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the exception to throw for a value that {@link #parse(CharSequence)}
+	 * has rejected.
+	 * 
+	 * Outside of bulk mode, its cause is the exception that
+	 * {@link LocalDate#parse(CharSequence)} throws for the value. In bulk
+	 * mode (see {@link BulkMode}), the value is not parsed again, and the
+	 * cause is a {@link StacklessInvalidDataException} giving the
+	 * {@link #reason(CharSequence)}.
+	 * 
+	 * @param message The message accompanying a throw of the exception
+	 * @param text The rejected value, not `null`
+	 * @return The exception to throw
+	 */
+	public static InvalidDataException invalidDate(String message, CharSequence text) {
+		if (BulkMode.isEnabled()) {
+			return BulkMode.invalidData(message, new StacklessInvalidDataException(reason(text)));
+		}
+		return new InvalidDataException(message, explain(text));
+	}
+
+	private static boolean hasIsoForm(CharSequence text) {
+		if (text.length() != LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-') {
+			return false;
+		}
+		for (int i = 0; i < LENGTH; i++) {
+			if (i != 4 && i != 7 && !isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int digits(CharSequence text, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			value = value * 10 + (text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	private static int daysInMonth(int year, int month) {
+		return month == 2 && Year.isLeap(year) ? 29 : DAYS_IN_MONTH[month - 1];
+	}
+
+}
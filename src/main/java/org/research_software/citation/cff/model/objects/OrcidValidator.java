@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+/**
+ * Validates ORCID iDs.
+ *
+ * An ORCID iD is expressed as a URL of the form
+ * `https://orcid.org/0000-0002-1825-0097`, where the last
+ * character is a check digit, which may also be `X`.
+ * Cf. <https://support.orcid.org/hc/en-us/articles/360006897674-Structure-of-the-ORCID-Identifier>.
+ *
+ * The validator scans the characters directly, i.e., it neither
+ * compiles nor matches regular expressions, and does not allocate.
+ * Validation is thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class OrcidValidator {
+
+	/**
+	 * The prefix of all ORCID iD URLs.
+	 */
+	public static final String URL_PREFIX = "https://orcid.org/";
+
+	/**
+	 * The length of the identifier part of an ORCID iD, i.e., four
+	 * groups of four characters separated by hyphens.
+	 */
+	private static final int ID_LENGTH = 19;
+
+	private OrcidValidator() {
+		// Static utility class
+	}
+
+	/**
+	 * Validates whether a string is an ORCID iD URL, i.e., whether it
+	 * has the form `https://orcid.org/dddd-dddd-dddd-dddC`, where
+	 * `d` is a digit, and `C` is a digit or `X`.
+	 *
+	 * The check digit is not verified. Use {@link #isValid(CharSequence)}
+	 * to also verify the check digit.
+	 *
+	 * @param orcid The string to check, may be `null`
+	 * @return Whether the string is a well-formed ORCID iD URL
+	 */
+	public static boolean isWellFormedUrl(CharSequence orcid) {
+		if (orcid == null || orcid.length() != URL_PREFIX.length() + ID_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < URL_PREFIX.length(); i++) {
+			if (orcid.charAt(i) != URL_PREFIX.charAt(i)) {
+				return false;
+			}
+		}
+		return isWellFormedId(orcid, URL_PREFIX.length());
+	}
+
+	/**
+	 * Validates whether a string is an ORCID iD URL with a correct
+	 * check digit.
+	 *
+	 * The check digit is computed according to ISO/IEC 7064:2003, MOD 11-2.
+	 *
+	 * @param orcid The string to check, may be `null`
+	 * @return Whether the string is a well-formed ORCID iD URL with a correct check digit
+	 */
+	public static boolean isValid(CharSequence orcid) {
+		return isWellFormedUrl(orcid) && hasValidCheckDigit(orcid, URL_PREFIX.length());
+	}
+
+	/**
+	 * Validates whether the identifier part of an ORCID iD, without the URL prefix,
+	 * e.g., `0000-0002-1825-0097`, is well-formed and has a correct check digit.
+	 *
+	 * @param id The identifier to check, may be `null`
+	 * @return Whether the identifier is well-formed and has a correct check digit
+	 */
+	public static boolean isValidId(CharSequence id) {
+		return id != null && id.length() == ID_LENGTH && isWellFormedId(id, 0) && hasValidCheckDigit(id, 0);
+	}
+
+	/**
+	 * Checks the 19 characters starting at `offset` for the pattern
+	 * `dddd-dddd-dddd-dddC`.
+	 */
+	private static boolean isWellFormedId(CharSequence chars, int offset) {
+		for (int i = 0; i < ID_LENGTH; i++) {
+			char c = chars.charAt(offset + i);
+			if (i % 5 == 4) {
+				if (c != '-') {
+					return false;
+				}
+			}
+			else if (c < '0' || c > '9') {
+				if (i != ID_LENGTH - 1 || c != 'X') {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the ISO/IEC 7064:2003, MOD 11-2 check digit over the 15 base
+	 * digits of a well-formed identifier starting at `offset`, and compares it
+	 * to its last character.
+	 */
+	private static boolean hasValidCheckDigit(CharSequence chars, int offset) {
+		int total = 0;
+		for (int i = 0; i < ID_LENGTH - 1; i++) {
+			char c = chars.charAt(offset + i);
+			if (c != '-') {
+				total = (total + (c - '0')) * 2;
+			}
+		}
+		int result = (12 - total % 11) % 11;
+		char checkDigit = result == 10 ? 'X' : (char) ('0' + result);
+		return chars.charAt(offset + ID_LENGTH - 1) == checkDigit;
+	}
+
+}
@@ -18,6 +18,8 @@
 package org.research_software.citation.cff.model.objects;
 
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -79,19 +81,56 @@ public final class Person extends Subject {
 			@JsonProperty("fax") String fax,
 			@JsonProperty("website") String website) throws InvalidDataException {
 		super(address, city, region, postCode, country, orcid, email, tel, fax, website);
-		if (familyNames == null) {
-			throw new InvalidDataException("'family-names' is a required key in persons and must be present and not null!");
-		}
 		this.familyNames = familyNames;
-		if (givenNames == null) {
-			throw new InvalidDataException("'given-names' is a required key in persons and must be present and not null!");
-		}
 		this.givenNames = givenNames;
+		checkRequiredKeys();
 		this.nameParticle = nameParticle;
 		this.nameSuffix = nameSuffix;
 		this.affiliation = affiliation;
 	}
 
+	/**
+	 * Constructor for reading snapshots.
+	 * 
+	 * @param in The reader to read the snapshot from
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 * @see SnapshotReader
+	 */
+	Person(SnapshotReader in) throws InvalidDataException, ReadException {
+		super(in);
+		this.familyNames = in.readPooledString();
+		this.givenNames = in.readPooledString();
+		this.nameParticle = in.readPooledString();
+		this.nameSuffix = in.readPooledString();
+		this.affiliation = in.readPooledString();
+		if (!in.isTrusted()) {
+			checkRequiredKeys();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.model.objects.Subject#writeTo(org.research_software.citation.cff.model.objects.SnapshotWriter)
+	 */
+	@Override
+	void writeTo(SnapshotWriter out) {
+		super.writeTo(out);
+		out.writeString(familyNames);
+		out.writeString(givenNames);
+		out.writeString(nameParticle);
+		out.writeString(nameSuffix);
+		out.writeString(affiliation);
+	}
+
+	private void checkRequiredKeys() throws InvalidDataException {
+		if (familyNames == null) {
+			throw BulkMode.invalidData("'family-names' is a required key in persons and must be present and not null!");
+		}
+		if (givenNames == null) {
+			throw BulkMode.invalidData("'given-names' is a required key in persons and must be present and not null!");
+		}
+	}
+
 	/**
 	 * @return The person's family names
 	 */
@@ -17,13 +17,15 @@ package org.research_software.citation.cff.model.objects;
 
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -41,7 +43,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public final class Reference {
 
-	private String type;
+	private ReferenceType type;
 	private String title;
 	private String abbreviation;
 	private String abstractString; // "abstract" is a reserved term
@@ -72,7 +74,7 @@ public final class Reference {
 	private List<String> keywords = new ArrayList<String>();
 	private List<String> languages = new ArrayList<String>();
 	private String license;
-	private URL licenseUrl;
+	private CitationUrl licenseUrl;
 	private Integer locStart;
 	private Integer locEnd;
 	private String medium;
@@ -84,15 +86,15 @@ public final class Reference {
 	private Integer pages;
 	private List<String> patentStates = new ArrayList<String>();
 	private String pmcid;
-	private URL repository;
-	private URL repositoryCode;
-	private URL repositoryArtifact;
+	private CitationUrl repository;
+	private CitationUrl repositoryCode;
+	private CitationUrl repositoryArtifact;
 	private String scope;
 	private String section;
-	private String status;
+	private ReferenceStatus status;
 	private Integer start;
 	private String thesisType;
-	private URL url;
+	private CitationUrl url;
 	private String version;
 	private Integer volume;
 	private String volumeTitle;
@@ -257,21 +259,10 @@ public final class Reference {
 			@JsonProperty("translators") List<Subject> translators)
 			throws InvalidDataException {
 		super();
-		if (type == null) {
-			throw new InvalidDataException("'type' is a required key in references and must be present and not null!");
-		}
-		else if (!DefinedValues.REFERENCE_TYPES.contains(type)) {
-			throw new InvalidDataException("The reference type '" + type + "' is not defined in the CFF format specifications.");
-		}
-		this.type = type;
-		if (title == null) {
-			throw new InvalidDataException("'title' is a required key in references and must be present and not null!");
-		}
+		setType(type);
 		this.title = title;
-		if (authors == null || authors.isEmpty()) {
-			throw new InvalidDataException(
-					"'authors' is a required key in references and must be present and not null!");
-		}
+		this.authors = authors;
+		checkRequiredKeys();
 		this.abbreviation = abbreviation;
 		this.abstractString = abstractString;
 		this.collectionDoi = collectionDoi;
@@ -328,7 +319,6 @@ public final class Reference {
 		this.year = year;
 		this.yearOriginal = yearOriginal;
 		this.conference = conference;
-		this.authors = authors;
 		this.contact = contact;
 		this.databaseProvider = databaseProvider;
 		this.editors = editors;
@@ -341,6 +331,212 @@ public final class Reference {
 		this.translators = translators;
 	}
 
+	/**
+	 * Constructor for reading snapshots.
+	 * 
+	 * @param in The reader to read the snapshot from
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 * @see SnapshotReader
+	 */
+	Reference(SnapshotReader in) throws InvalidDataException, ReadException {
+		setType(in.readString());
+		this.title = in.readString();
+		this.abbreviation = in.readString();
+		this.abstractString = in.readString();
+		this.collectionDoi = in.readString();
+		this.collectionTitle = in.readPooledString();
+		this.collectionType = in.readPooledString();
+		this.commit = in.readString();
+		this.copyright = in.readString();
+		this.dataType = in.readPooledString();
+		this.database = in.readPooledString();
+		this.dateAccessed = in.readDate();
+		this.dateDownloaded = in.readDate();
+		this.dateReleased = in.readDate();
+		this.datePublished = in.readDate();
+		this.department = in.readPooledString();
+		this.doi = in.readString();
+		this.edition = in.readString();
+		this.end = in.readInteger();
+		this.entry = in.readString();
+		this.filename = in.readString();
+		this.format = in.readPooledString();
+		this.isbn = in.readString();
+		this.issn = in.readString();
+		this.issue = in.readString();
+		this.issueDate = in.readString();
+		this.issueTitle = in.readString();
+		this.journal = in.readPooledString();
+		this.keywords = in.readStrings();
+		this.languages = in.readStrings();
+		this.license = in.readPooledString();
+		this.licenseUrl = in.readUrl();
+		this.locStart = in.readInteger();
+		this.locEnd = in.readInteger();
+		this.medium = in.readPooledString();
+		this.month = in.readInteger();
+		this.nihmsid = in.readString();
+		this.notes = in.readString();
+		this.number = in.readString();
+		this.numberVolumes = in.readInteger();
+		this.pages = in.readInteger();
+		this.patentStates = in.readStrings();
+		this.pmcid = in.readString();
+		this.repository = in.readUrl();
+		this.repositoryCode = in.readUrl();
+		this.repositoryArtifact = in.readUrl();
+		this.scope = in.readPooledString();
+		this.section = in.readPooledString();
+		setStatus(in.readString());
+		this.start = in.readInteger();
+		this.thesisType = in.readPooledString();
+		this.url = in.readUrl();
+		this.version = in.readString();
+		this.volume = in.readInteger();
+		this.volumeTitle = in.readString();
+		this.year = in.readInteger();
+		this.yearOriginal = in.readInteger();
+		this.conference = in.readEntity();
+		this.authors = in.readSubjects();
+		this.contact = in.readSubjects();
+		this.databaseProvider = in.readEntity();
+		this.editors = in.readSubjects();
+		this.editorsSeries = in.readSubjects();
+		this.institution = in.readEntity();
+		this.location = in.readEntity();
+		this.publisher = in.readEntity();
+		this.recipients = in.readSubjects();
+		this.senders = in.readSubjects();
+		this.translators = in.readSubjects();
+		if (!in.isTrusted()) {
+			checkRequiredKeys();
+			setLanguages(languages);
+		}
+	}
+
+	/**
+	 * Writes the values of this reference to a snapshot, in the order
+	 * in which {@link #Reference(SnapshotReader)} reads them.
+	 */
+	void writeTo(SnapshotWriter out) {
+		out.writeString(getType());
+		out.writeString(title);
+		out.writeString(abbreviation);
+		out.writeString(abstractString);
+		out.writeString(collectionDoi);
+		out.writeString(collectionTitle);
+		out.writeString(collectionType);
+		out.writeString(commit);
+		out.writeString(copyright);
+		out.writeString(dataType);
+		out.writeString(database);
+		out.writeDate(dateAccessed);
+		out.writeDate(dateDownloaded);
+		out.writeDate(dateReleased);
+		out.writeDate(datePublished);
+		out.writeString(department);
+		out.writeString(doi);
+		out.writeString(edition);
+		out.writeInteger(end);
+		out.writeString(entry);
+		out.writeString(filename);
+		out.writeString(format);
+		out.writeString(isbn);
+		out.writeString(issn);
+		out.writeString(issue);
+		out.writeString(issueDate);
+		out.writeString(issueTitle);
+		out.writeString(journal);
+		out.writeStrings(keywords);
+		out.writeStrings(languages);
+		out.writeString(license);
+		out.writeUrl(licenseUrl);
+		out.writeInteger(locStart);
+		out.writeInteger(locEnd);
+		out.writeString(medium);
+		out.writeInteger(month);
+		out.writeString(nihmsid);
+		out.writeString(notes);
+		out.writeString(number);
+		out.writeInteger(numberVolumes);
+		out.writeInteger(pages);
+		out.writeStrings(patentStates);
+		out.writeString(pmcid);
+		out.writeUrl(repository);
+		out.writeUrl(repositoryCode);
+		out.writeUrl(repositoryArtifact);
+		out.writeString(scope);
+		out.writeString(section);
+		out.writeString(getStatus());
+		out.writeInteger(start);
+		out.writeString(thesisType);
+		out.writeUrl(url);
+		out.writeString(version);
+		out.writeInteger(volume);
+		out.writeString(volumeTitle);
+		out.writeInteger(year);
+		out.writeInteger(yearOriginal);
+		out.writeEntity(conference);
+		out.writeSubjects(authors);
+		out.writeSubjects(contact);
+		out.writeEntity(databaseProvider);
+		out.writeSubjects(editors);
+		out.writeSubjects(editorsSeries);
+		out.writeEntity(institution);
+		out.writeEntity(location);
+		out.writeEntity(publisher);
+		out.writeSubjects(recipients);
+		out.writeSubjects(senders);
+		out.writeSubjects(translators);
+	}
+
+	private void checkRequiredKeys() throws InvalidDataException {
+		if (type == null) {
+			throw BulkMode.invalidData("'type' is a required key in references and must be present and not null!");
+		}
+		if (title == null) {
+			throw BulkMode.invalidData("'title' is a required key in references and must be present and not null!");
+		}
+		if (authors == null || authors.isEmpty()) {
+			throw BulkMode.invalidData("'authors' is a required key in references and must be present and not null!");
+		}
+	}
+
+	/**
+	 * Validates whether a value for **`type`** is defined in the
+	 * [format specifications](https://citation-file-format.github.io/).
+	 * 
+	 * @param type The reference type to check for validity
+	 * @return Whether the reference type is valid
+	 */
+	public static boolean isValidType(String type) {
+		return ReferenceType.fromValue(type) != null;
+	}
+
+	/**
+	 * Validates whether a value for **`status`** is defined in the
+	 * [format specifications](https://citation-file-format.github.io/).
+	 * 
+	 * @param status The reference status to check for validity
+	 * @return Whether the reference status is valid
+	 */
+	public static boolean isValidStatus(String status) {
+		return ReferenceStatus.fromValue(status) != null;
+	}
+
+	/**
+	 * Validates whether a value in **`languages`** is a
+	 * 2-char ISO 639-1 or 3-char ISO 639-3 code.
+	 * 
+	 * @param language The language code to check for validity
+	 * @return Whether the language code is valid
+	 * @see LanguageCodes#isValid(CharSequence)
+	 */
+	public static boolean isValidLanguage(String language) {
+		return LanguageCodes.isValid(language);
+	}
+
 	/**
 	 * Getter for the field value.
 	 * 
@@ -348,12 +544,27 @@ public final class Reference {
 	 */
 	@JsonProperty("type")
 	public String getType() {
+		return type == null ? null : type.getValue();
+	}
+
+	/**
+	 * Getter for the field value, for selecting references by type
+	 * without comparing strings.
+	 * 
+	 * @return The reference type
+	 * @see ReferenceType
+	 */
+	@JsonIgnore
+	public ReferenceType getTypeValue() {
 		return type;
 	}
 
 	@JsonProperty("type")
-	private void setType(String type) {
-		this.type = type;
+	private void setType(String type) throws InvalidDataException {
+		this.type = ReferenceType.fromValue(type);
+		if (type != null && this.type == null) {
+			throw BulkMode.invalidData("The reference type '" + type + "' is not defined in the CFF format specifications.");
+		}
 	}
 
 	/**
@@ -519,12 +730,11 @@ public final class Reference {
 	@JsonProperty("date-accessed")
 	private void setDateAccessed(String dateAccessed) throws InvalidDataException {
 		if (dateAccessed != null) {
-			try {
-				this.dateAccessed = LocalDate.parse(dateAccessed);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-accessed'!", e);
+			LocalDate parsed = IsoDates.parse(dateAccessed);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-accessed'!", dateAccessed);
 			}
+			this.dateAccessed = parsed;
 		}
 	}
 
@@ -541,12 +751,11 @@ public final class Reference {
 	@JsonProperty("date-downloaded")
 	private void setDateDownloaded(String dateDownloaded) throws InvalidDataException {
 		if (dateDownloaded != null) {
-			try {
-				this.dateDownloaded = LocalDate.parse(dateDownloaded);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-downloaded'!", e);
+			LocalDate parsed = IsoDates.parse(dateDownloaded);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-downloaded'!", dateDownloaded);
 			}
+			this.dateDownloaded = parsed;
 		}
 	}
 
@@ -563,12 +772,11 @@ public final class Reference {
 	@JsonProperty("date-released")
 	private void setDateReleased(String dateReleased) throws InvalidDataException {
 		if (dateReleased != null) {
-			try {
-				this.dateReleased = LocalDate.parse(dateReleased);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-released'!", e);
+			LocalDate parsed = IsoDates.parse(dateReleased);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-released'!", dateReleased);
 			}
+			this.dateReleased = parsed;
 		}
 	}
 
@@ -585,12 +793,11 @@ public final class Reference {
 	@JsonProperty("date-published")
 	private void setDatePublished(String datePublished) throws InvalidDataException {
 		if (datePublished != null) {
-			try {
-				this.datePublished = LocalDate.parse(datePublished);
-			}
-			catch (DateTimeException e) {
-				throw new InvalidDataException("DateTimeException in field 'date-published'!", e);
+			LocalDate parsed = IsoDates.parse(datePublished);
+			if (parsed == null) {
+				throw IsoDates.invalidDate("DateTimeException in field 'date-published'!", datePublished);
 			}
+			this.datePublished = parsed;
 		}
 	}
 
@@ -818,12 +1025,8 @@ public final class Reference {
 	private void setLanguages(List<String> languages) throws InvalidDataException {
 		if (languages != null) {
 			for (String language : languages) {
-				if (language.length() > 3 || language.length() <= 1) {
-					throw new InvalidDataException("The language '" + language + "' is not a valid ISO 639-1 or 639-3 code.");
-				}
-				if (!DefinedValues.isLanguageValid(language)) {
-					throw new InvalidDataException(
-							"The language '" + language + "' is not a valid ISO 639-1 or 639-3 code.");
+				if (!isValidLanguage(language)) {
+					throw BulkMode.invalidData("The language '" + language + "' is not a valid ISO 639-1 or 639-3 code.");
 				}
 			}
 		}
@@ -852,6 +1055,14 @@ public final class Reference {
 	 */
 	@JsonProperty("license-url")
 	public URL getLicenseUrl() {
+		return CitationUrl.toURL(licenseUrl);
+	}
+
+	/**
+	 * @return The value of the field `license-url` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getLicenseUrlValue() {
 		return licenseUrl;
 	}
 
@@ -859,10 +1070,10 @@ public final class Reference {
 	private void setLicenseUrl(String licenseUrl) throws InvalidDataException {
 		if (licenseUrl != null) {
 			try {
-				this.licenseUrl = new URL(licenseUrl);
+				this.licenseUrl = CitationUrl.parse(licenseUrl);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The reference '" + getTitle() + "' of type '" + getType()
+				throw BulkMode.invalidData("The reference '" + getTitle() + "' of type '" + getType()
 						+ "' contains an invalid URL in field 'license-url': " + e.getMessage(), e);
 			}
 		}
@@ -1040,6 +1251,14 @@ public final class Reference {
 	 */
 	@JsonProperty("repository")
 	public URL getRepository() {
+		return CitationUrl.toURL(repository);
+	}
+
+	/**
+	 * @return The value of the field `repository` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryValue() {
 		return repository;
 	}
 
@@ -1047,10 +1266,10 @@ public final class Reference {
 	private void setRepository(String repository) throws InvalidDataException {
 		if (repository != null) {
 			try {
-				this.repository = new URL(repository);
+				this.repository = CitationUrl.parse(repository);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The reference '" + getTitle() + "' of type '" + getType()
+				throw BulkMode.invalidData("The reference '" + getTitle() + "' of type '" + getType()
 						+ "' contains an invalid URL in field 'repository': " + e.getMessage(), e);
 			}
 		}
@@ -1063,6 +1282,14 @@ public final class Reference {
 	 */
 	@JsonProperty("repository-code")
 	public URL getRepositoryCode() {
+		return CitationUrl.toURL(repositoryCode);
+	}
+
+	/**
+	 * @return The value of the field `repository-code` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryCodeValue() {
 		return repositoryCode;
 	}
 
@@ -1070,10 +1297,10 @@ public final class Reference {
 	private void setRepositoryCode(String repositoryCode) throws InvalidDataException {
 		if (repositoryCode != null) {
 			try {
-				this.repositoryCode = new URL(repositoryCode);
+				this.repositoryCode = CitationUrl.parse(repositoryCode);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The reference '" + getTitle() + "' of type '" + getType()
+				throw BulkMode.invalidData("The reference '" + getTitle() + "' of type '" + getType()
 						+ "' contains an invalid URL in field 'repository-code': " + e.getMessage(), e);
 			}
 		}
@@ -1086,6 +1313,14 @@ public final class Reference {
 	 */
 	@JsonProperty("repository-artifact")
 	public URL getRepositoryArtifact() {
+		return CitationUrl.toURL(repositoryArtifact);
+	}
+
+	/**
+	 * @return The value of the field `repository-artifact` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getRepositoryArtifactValue() {
 		return repositoryArtifact;
 	}
 
@@ -1093,10 +1328,10 @@ public final class Reference {
 	private void setRepositoryArtifact(String repositoryArtifact) throws InvalidDataException {
 		if (repositoryArtifact != null) {
 			try {
-				this.repositoryArtifact = new URL(repositoryArtifact);
+				this.repositoryArtifact = CitationUrl.parse(repositoryArtifact);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The reference '" + getTitle() + "' of type '" + getType()
+				throw BulkMode.invalidData("The reference '" + getTitle() + "' of type '" + getType()
 						+ "' contains an invalid URL in field 'repository-artifact': " + e.getMessage(), e);
 			}
 		}
@@ -1139,17 +1374,27 @@ public final class Reference {
 	 */
 	@JsonProperty("status")
 	public String getStatus() {
+		return status == null ? null : status.getValue();
+	}
+
+	/**
+	 * Getter for the field value, for selecting references by status
+	 * without comparing strings.
+	 * 
+	 * @return The publication status of the reference
+	 * @see ReferenceStatus
+	 */
+	@JsonIgnore
+	public ReferenceStatus getStatusValue() {
 		return status;
 	}
 
 	@JsonProperty("status")
 	private void setStatus(String status) throws InvalidDataException {
-		if (status != null) {
-			if (!DefinedValues.REFERENCE_STATUS.contains(status)) {
-				throw new InvalidDataException("The status '" + status + "' is not defined in the CFF format specifications.");
-			}
+		this.status = ReferenceStatus.fromValue(status);
+		if (status != null && this.status == null) {
+			throw BulkMode.invalidData("The status '" + status + "' is not defined in the CFF format specifications.");
 		}
-		this.status = status;
 	}
 
 	/**
@@ -1189,6 +1434,14 @@ public final class Reference {
 	 */
 	@JsonProperty("url")
 	public URL getUrl() {
+		return CitationUrl.toURL(url);
+	}
+
+	/**
+	 * @return The value of the field `url` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getUrlValue() {
 		return url;
 	}
 
@@ -1196,10 +1449,10 @@ public final class Reference {
 	private void setUrl(String url) throws InvalidDataException {
 		if (url != null) {
 			try {
-				this.url = new URL(url);
+				this.url = CitationUrl.parse(url);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The reference '" + getTitle() + "' of type '" + getType()
+				throw BulkMode.invalidData("The reference '" + getTitle() + "' of type '" + getType()
 						+ "' contains an invalid URL in field 'url': " + e.getMessage(), e);
 			}
 		}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The reference statuses defined in the
+ * [format specifications](https://citation-file-format.github.io/),
+ * for values of the **`status`** key of references.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public enum ReferenceStatus {
+
+	/** `in-preparation` */
+	IN_PREPARATION("in-preparation"),
+	/** `abstract` */
+	ABSTRACT("abstract"),
+	/** `submitted` */
+	SUBMITTED("submitted"),
+	/** `in-press` */
+	IN_PRESS("in-press"),
+	/** `advance-online` */
+	ADVANCE_ONLINE("advance-online"),
+	/** `preprint` */
+	PREPRINT("preprint");
+
+	private static final Map<String, ReferenceStatus> VALUES = new HashMap<>();
+
+	static {
+		for (ReferenceStatus value : values()) {
+			VALUES.put(value.value, value);
+		}
+	}
+
+	private final String value;
+
+	private ReferenceStatus(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * @return The value of the reference status as it is written in `CITATION.cff` files
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the reference status for a value as it is written in `CITATION.cff` files.
+	 *
+	 * @param value The value to look up
+	 * @return The reference status, or `null` if the value is `null` or is not defined
+	 */
+	public static ReferenceStatus fromValue(String value) {
+		return value == null ? null : VALUES.get(value);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return value;
+	}
+
+}
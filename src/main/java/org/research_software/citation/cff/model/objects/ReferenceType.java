@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The reference types defined in the
+ * [format specifications](https://citation-file-format.github.io/),
+ * for values of the **`type`** key of references.
+ *
+ * Use {@link java.util.EnumSet}s or `switch` statements on
+ * {@link Reference#getTypeValue()} to select references by type, e.g.:
+ *
+ * ```java
+ * Set<ReferenceType> software = EnumSet.of(ReferenceType.SOFTWARE, ReferenceType.SOFTWARE_CODE);
+ * if (software.contains(reference.getTypeValue())) {
+ * 	...
+ * }
+ * ```
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public enum ReferenceType {
+
+	/** `art` */
+	ART("art"),
+	/** `article` */
+	ARTICLE("article"),
+	/** `audiovisual` */
+	AUDIOVISUAL("audiovisual"),
+	/** `bill` */
+	BILL("bill"),
+	/** `blog` */
+	BLOG("blog"),
+	/** `book` */
+	BOOK("book"),
+	/** `catalogue` */
+	CATALOGUE("catalogue"),
+	/** `conference` */
+	CONFERENCE("conference"),
+	/** `conference-paper` */
+	CONFERENCE_PAPER("conference-paper"),
+	/** `data` */
+	DATA("data"),
+	/** `database` */
+	DATABASE("database"),
+	/** `dictionary` */
+	DICTIONARY("dictionary"),
+	/** `edited-work` */
+	EDITED_WORK("edited-work"),
+	/** `encyclopedia` */
+	ENCYCLOPEDIA("encyclopedia"),
+	/** `film-broadcast` */
+	FILM_BROADCAST("film-broadcast"),
+	/** `generic` */
+	GENERIC("generic"),
+	/** `government-document` */
+	GOVERNMENT_DOCUMENT("government-document"),
+	/** `grant` */
+	GRANT("grant"),
+	/** `hearing` */
+	HEARING("hearing"),
+	/** `historical-work` */
+	HISTORICAL_WORK("historical-work"),
+	/** `legal-case` */
+	LEGAL_CASE("legal-case"),
+	/** `legal-rule` */
+	LEGAL_RULE("legal-rule"),
+	/** `magazine-article` */
+	MAGAZINE_ARTICLE("magazine-article"),
+	/** `manual` */
+	MANUAL("manual"),
+	/** `map` */
+	MAP("map"),
+	/** `multimedia` */
+	MULTIMEDIA("multimedia"),
+	/** `music` */
+	MUSIC("music"),
+	/** `newspaper-article` */
+	NEWSPAPER_ARTICLE("newspaper-article"),
+	/** `pamphlet` */
+	PAMPHLET("pamphlet"),
+	/** `patent` */
+	PATENT("patent"),
+	/** `personal-communication` */
+	PERSONAL_COMMUNICATION("personal-communication"),
+	/** `proceedings` */
+	PROCEEDINGS("proceedings"),
+	/** `report` */
+	REPORT("report"),
+	/** `serial` */
+	SERIAL("serial"),
+	/** `slides` */
+	SLIDES("slides"),
+	/** `software` */
+	SOFTWARE("software"),
+	/** `software-code` */
+	SOFTWARE_CODE("software-code"),
+	/** `software-container` */
+	SOFTWARE_CONTAINER("software-container"),
+	/** `software-executable` */
+	SOFTWARE_EXECUTABLE("software-executable"),
+	/** `software-virtual-machine` */
+	SOFTWARE_VIRTUAL_MACHINE("software-virtual-machine"),
+	/** `sound-recording` */
+	SOUND_RECORDING("sound-recording"),
+	/** `standard` */
+	STANDARD("standard"),
+	/** `statute` */
+	STATUTE("statute"),
+	/** `thesis` */
+	THESIS("thesis"),
+	/** `unpublished` */
+	UNPUBLISHED("unpublished"),
+	/** `video` */
+	VIDEO("video"),
+	/** `website` */
+	WEBSITE("website");
+
+	private static final Map<String, ReferenceType> VALUES = new HashMap<>();
+
+	static {
+		for (ReferenceType value : values()) {
+			VALUES.put(value.value, value);
+		}
+	}
+
+	private final String value;
+
+	private ReferenceType(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * @return The value of the reference type as it is written in `CITATION.cff` files
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the reference type for a value as it is written in `CITATION.cff` files.
+	 *
+	 * @param value The value to look up
+	 * @return The reference type, or `null` if the value is `null` or is not defined
+	 */
+	public static ReferenceType fromValue(String value) {
+		return value == null ? null : VALUES.get(value);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return value;
+	}
+
+}
@@ -0,0 +1,385 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
+
+/**
+ * Reads software citation metadata model objects from the compact
+ * binary snapshot format written by {@link SnapshotWriter}.
+ *
+ * Snapshots can be read as *trusted*, e.g., when they have been
+ * written by this library from metadata that has been validated before.
+ * Model objects are then created without the checks their databinding
+ * constructors perform, e.g., that required keys are present, that
+ * values are defined in the specifications, or that URLs are well-formed.
+ * Untrusted snapshots are checked like files that are read.
+ *
+ * When a {@link ValuePool} is passed, values that commonly repeat across
+ * documents, as well as identical subjects and references, are taken from
+ * the pool, and all lists are immutable.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class SnapshotReader {
+
+	private final byte[] bytes;
+	private final int limit;
+	private final boolean trusted;
+	private final ValuePool pool;
+	private int position;
+
+	/**
+	 * Constructor accepting the snapshot bytes to read.
+	 *
+	 * @param bytes The array containing the snapshot
+	 * @param offset The offset of the snapshot in the array
+	 * @param length The length of the snapshot
+	 * @param trusted Whether the snapshot is trusted, and model objects should be created without checks
+	 */
+	public SnapshotReader(byte[] bytes, int offset, int length, boolean trusted) {
+		this(bytes, offset, length, trusted, null);
+	}
+
+	/**
+	 * Constructor accepting the snapshot bytes to read, and a pool to
+	 * share values with.
+	 *
+	 * @param bytes The array containing the snapshot
+	 * @param offset The offset of the snapshot in the array
+	 * @param length The length of the snapshot
+	 * @param trusted Whether the snapshot is trusted, and model objects should be created without checks
+	 * @param pool The pool to share values with, or `null`
+	 */
+	public SnapshotReader(byte[] bytes, int offset, int length, boolean trusted, ValuePool pool) {
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IndexOutOfBoundsException("The snapshot is not within the array bounds!");
+		}
+		this.bytes = bytes;
+		this.position = offset;
+		this.limit = offset + length;
+		this.trusted = trusted;
+		this.pool = pool;
+	}
+
+	/**
+	 * @return Whether the snapshot is trusted
+	 */
+	public boolean isTrusted() {
+		return trusted;
+	}
+
+	/**
+	 * @return Whether all bytes of the snapshot have been read
+	 */
+	public boolean isAtEnd() {
+		return position == limit;
+	}
+
+	/**
+	 * Reads a single byte.
+	 *
+	 * @return The unsigned byte value
+	 * @throws ReadException if the snapshot ends
+	 */
+	public int readByte() throws ReadException {
+		if (position >= limit) {
+			throw truncated();
+		}
+		return bytes[position++] & 0xFF;
+	}
+
+	/**
+	 * Reads raw bytes.
+	 *
+	 * @param length The number of bytes to read
+	 * @return The bytes
+	 * @throws ReadException if the snapshot ends
+	 */
+	public byte[] readBytes(int length) throws ReadException {
+		if (length > limit - position) {
+			throw truncated();
+		}
+		byte[] result = new byte[length];
+		System.arraycopy(bytes, position, result, 0, length);
+		position += length;
+		return result;
+	}
+
+	/**
+	 * Reads an unsigned LEB128 variable-length integer.
+	 *
+	 * @return The value
+	 * @throws ReadException if the snapshot ends or the value is too long
+	 */
+	public long readVarLong() throws ReadException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw corrupt("variable-length integer is too long");
+	}
+
+	/**
+	 * Reads a nullable string.
+	 *
+	 * @return The string, or `null`
+	 * @throws ReadException if the snapshot ends
+	 */
+	public String readString() throws ReadException {
+		int length = readLength();
+		if (length < 0) {
+			return null;
+		}
+		if (length > limit - position) {
+			throw truncated();
+		}
+		String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	/**
+	 * Reads a nullable string whose value commonly repeats across
+	 * documents, e.g., a license or an affiliation, and takes
+	 * it from the pool, if any.
+	 *
+	 * @return The string, or `null`
+	 * @throws ReadException if the snapshot ends
+	 */
+	public String readPooledString() throws ReadException {
+		String value = readString();
+		return pool == null ? value : pool.intern(value);
+	}
+
+	/**
+	 * Reads a nullable integer.
+	 *
+	 * @return The integer, or `null`
+	 * @throws ReadException if the snapshot ends or the value is out of range
+	 */
+	public Integer readInteger() throws ReadException {
+		long value = readVarLong();
+		if (value == 0) {
+			return null;
+		}
+		long decoded = unzigzag(value - 1);
+		if (decoded < Integer.MIN_VALUE || decoded > Integer.MAX_VALUE) {
+			throw corrupt("integer is out of range");
+		}
+		return Integer.valueOf((int) decoded);
+	}
+
+	/**
+	 * Reads a nullable date.
+	 *
+	 * @return The date, or `null`
+	 * @throws ReadException if the snapshot ends or the date is out of range
+	 */
+	public LocalDate readDate() throws ReadException {
+		long value = readVarLong();
+		if (value == 0) {
+			return null;
+		}
+		try {
+			return LocalDate.ofEpochDay(unzigzag(value - 1));
+		}
+		catch (DateTimeException e) {
+			throw corrupt("date is out of range");
+		}
+	}
+
+	/**
+	 * Reads a nullable list of strings.
+	 *
+	 * @return The strings, or `null`
+	 * @throws ReadException if the snapshot ends
+	 */
+	public List<String> readStrings() throws ReadException {
+		int size = readLength();
+		if (size < 0) {
+			return null;
+		}
+		List<String> values = new ArrayList<>(Math.min(size, limit - position));
+		for (int i = 0; i < size; i++) {
+			values.add(readPooledString());
+		}
+		return pool == null ? values : ValuePool.immutableList(values);
+	}
+
+	/**
+	 * Reads a nullable {@link Person} or {@link Entity}.
+	 *
+	 * @return The subject, or `null`
+	 * @throws InvalidDataException on invalid data in an untrusted snapshot
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 */
+	public Subject readSubject() throws InvalidDataException, ReadException {
+		int start = position;
+		int type = readByte();
+		Subject subject;
+		switch (type) {
+		case SnapshotWriter.NULL:
+			return null;
+		case SnapshotWriter.PERSON:
+			subject = new Person(this);
+			break;
+		case SnapshotWriter.ENTITY:
+			subject = new Entity(this);
+			break;
+		default:
+			throw corrupt("unknown subject type " + type);
+		}
+		return pool == null ? subject : pool.intern(bytes, start, position, subject);
+	}
+
+	/**
+	 * Reads a nullable list of subjects.
+	 *
+	 * @return The subjects, or `null`
+	 * @throws InvalidDataException on invalid data in an untrusted snapshot
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 */
+	public List<Subject> readSubjects() throws InvalidDataException, ReadException {
+		int size = readLength();
+		if (size < 0) {
+			return null;
+		}
+		List<Subject> subjects = new ArrayList<>(Math.min(size, limit - position));
+		for (int i = 0; i < size; i++) {
+			subjects.add(readSubject());
+		}
+		return pool == null ? subjects : ValuePool.immutableList(subjects);
+	}
+
+	/**
+	 * Reads a nullable {@link Entity}.
+	 *
+	 * @return The entity, or `null`
+	 * @throws InvalidDataException on invalid data in an untrusted snapshot
+	 * @throws ReadException if the snapshot is truncated or corrupt, or contains a person
+	 */
+	public Entity readEntity() throws InvalidDataException, ReadException {
+		Subject subject = readSubject();
+		if (subject != null && !(subject instanceof Entity)) {
+			throw corrupt("a person is not an entity");
+		}
+		return (Entity) subject;
+	}
+
+	/**
+	 * Reads a nullable {@link Reference}.
+	 *
+	 * @return The reference, or `null`
+	 * @throws InvalidDataException on invalid data in an untrusted snapshot
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 */
+	public Reference readReference() throws InvalidDataException, ReadException {
+		int start = position;
+		int tag = readByte();
+		switch (tag) {
+		case SnapshotWriter.NULL:
+			return null;
+		case SnapshotWriter.PRESENT:
+			Reference reference = new Reference(this);
+			return pool == null ? reference : pool.intern(bytes, start, position, reference);
+		default:
+			throw corrupt("unknown reference tag " + tag);
+		}
+	}
+
+	/**
+	 * Reads a nullable list of references.
+	 *
+	 * @return The references, or `null`
+	 * @throws InvalidDataException on invalid data in an untrusted snapshot
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 */
+	public List<Reference> readReferences() throws InvalidDataException, ReadException {
+		int size = readLength();
+		if (size < 0) {
+			return null;
+		}
+		List<Reference> references = new ArrayList<>(Math.min(size, limit - position));
+		for (int i = 0; i < size; i++) {
+			references.add(readReference());
+		}
+		return pool == null ? references : ValuePool.immutableList(references);
+	}
+
+	/**
+	 * Reads a nullable URL. URLs in untrusted snapshots are validated.
+	 *
+	 * @return The URL, or `null`
+	 * @throws InvalidDataException if the URL in an untrusted snapshot is invalid
+	 * @throws ReadException if the snapshot ends
+	 */
+	public CitationUrl readUrl() throws InvalidDataException, ReadException {
+		String value = readString();
+		if (value == null) {
+			return null;
+		}
+		if (trusted) {
+			return CitationUrl.trusted(value);
+		}
+		try {
+			return CitationUrl.parse(value);
+		}
+		catch (MalformedURLException e) {
+			throw BulkMode.invalidData("The snapshot contains the invalid URL '" + value + "'!", e);
+		}
+	}
+
+	/**
+	 * Reads a length shifted by one, and returns `-1` for `null`.
+	 */
+	private int readLength() throws ReadException {
+		long value = readVarLong();
+		if (value > Integer.MAX_VALUE) {
+			throw corrupt("length is out of range");
+		}
+		return (int) value - 1;
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private ReadException truncated() {
+		return new ReadException("The snapshot is truncated.", null);
+	}
+
+	private ReadException corrupt(String detail) {
+		return new ReadException("The snapshot is corrupt: " + detail + ".", null);
+	}
+
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes software citation metadata model objects in the compact
+ * binary snapshot format read by {@link SnapshotReader}.
+ *
+ * Values are written in a fixed order without keys. Strings are
+ * written as their UTF-8 length followed by their bytes, integers and
+ * dates (as epoch days) as variable-length integers, and URLs as
+ * strings. Lengths and values are shifted by one, so that `0`
+ * encodes `null`.
+ *
+ * The bytes are collected in memory, and can be retrieved via
+ * {@link #toByteArray()} or {@link #writeTo(OutputStream)}.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class SnapshotWriter {
+
+	static final int NULL = 0;
+	static final int PRESENT = 1;
+	static final int PERSON = 1;
+	static final int ENTITY = 2;
+
+	private byte[] buffer;
+	private int size = 0;
+
+	/**
+	 * Constructs a new writer.
+	 */
+	public SnapshotWriter() {
+		this(4096);
+	}
+
+	/**
+	 * Constructs a new writer with a given initial capacity.
+	 *
+	 * @param initialCapacity The number of bytes to reserve initially
+	 */
+	public SnapshotWriter(int initialCapacity) {
+		this.buffer = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b The byte to write
+	 */
+	public void writeByte(int b) {
+		ensureCapacity(1);
+		buffer[size++] = (byte) b;
+	}
+
+	/**
+	 * Writes raw bytes.
+	 *
+	 * @param bytes The bytes to write
+	 */
+	public void writeBytes(byte[] bytes) {
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, size, bytes.length);
+		size += bytes.length;
+	}
+
+	/**
+	 * Writes a non-negative `long` as an unsigned LEB128 variable-length integer.
+	 *
+	 * @param value The value to write
+	 */
+	public void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[size++] = (byte) value;
+	}
+
+	/**
+	 * Writes a nullable string.
+	 *
+	 * @param value The string to write, may be `null`
+	 */
+	public void writeString(String value) {
+		if (value == null) {
+			writeByte(NULL);
+			return;
+		}
+		int length = value.length();
+		// Fast path for ASCII strings, which are written without an intermediate array
+		ensureCapacity(length + 5);
+		int start = size;
+		writeVarLong(length + 1L);
+		int offset = size;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				size = start;
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarLong(bytes.length + 1L);
+				writeBytes(bytes);
+				return;
+			}
+			buffer[offset + i] = (byte) c;
+		}
+		size = offset + length;
+	}
+
+	/**
+	 * Writes a nullable integer, zigzag-encoded so that small negative
+	 * values remain short.
+	 *
+	 * @param value The integer to write, may be `null`
+	 */
+	public void writeInteger(Integer value) {
+		if (value == null) {
+			writeByte(NULL);
+		}
+		else {
+			writeVarLong(zigzag(value) + 1);
+		}
+	}
+
+	/**
+	 * Writes a nullable date as its epoch day.
+	 *
+	 * @param value The date to write, may be `null`
+	 */
+	public void writeDate(LocalDate value) {
+		if (value == null) {
+			writeByte(NULL);
+		}
+		else {
+			writeVarLong(zigzag(value.toEpochDay()) + 1);
+		}
+	}
+
+	/**
+	 * Writes a nullable URL as its string value.
+	 *
+	 * @param value The URL to write, may be `null`
+	 */
+	public void writeUrl(CitationUrl value) {
+		writeString(value == null ? null : value.toString());
+	}
+
+	/**
+	 * Writes a nullable list of strings.
+	 *
+	 * @param values The strings to write, may be `null`
+	 */
+	public void writeStrings(List<String> values) {
+		if (values == null) {
+			writeByte(NULL);
+			return;
+		}
+		writeVarLong(values.size() + 1L);
+		for (String value : values) {
+			writeString(value);
+		}
+	}
+
+	/**
+	 * Writes a nullable {@link Person} or {@link Entity}.
+	 *
+	 * @param subject The subject to write, may be `null`
+	 */
+	public void writeSubject(Subject subject) {
+		if (subject == null) {
+			writeByte(NULL);
+		}
+		else if (subject instanceof Person) {
+			writeByte(PERSON);
+			((Person) subject).writeTo(this);
+		}
+		else if (subject instanceof Entity) {
+			writeByte(ENTITY);
+			((Entity) subject).writeTo(this);
+		}
+		else {
+			throw new IllegalArgumentException("Unknown subject type " + subject.getClass().getName() + "!");
+		}
+	}
+
+	/**
+	 * Writes a nullable list of subjects.
+	 *
+	 * @param subjects The subjects to write, may be `null`
+	 */
+	public void writeSubjects(List<Subject> subjects) {
+		if (subjects == null) {
+			writeByte(NULL);
+			return;
+		}
+		writeVarLong(subjects.size() + 1L);
+		for (Subject subject : subjects) {
+			writeSubject(subject);
+		}
+	}
+
+	/**
+	 * Writes a nullable {@link Entity}.
+	 *
+	 * @param entity The entity to write, may be `null`
+	 */
+	public void writeEntity(Entity entity) {
+		writeSubject(entity);
+	}
+
+	/**
+	 * Writes a nullable {@link Reference}.
+	 *
+	 * @param reference The reference to write, may be `null`
+	 */
+	public void writeReference(Reference reference) {
+		if (reference == null) {
+			writeByte(NULL);
+		}
+		else {
+			writeByte(PRESENT);
+			reference.writeTo(this);
+		}
+	}
+
+	/**
+	 * Writes a nullable list of references.
+	 *
+	 * @param references The references to write, may be `null`
+	 */
+	public void writeReferences(List<Reference> references) {
+		if (references == null) {
+			writeByte(NULL);
+			return;
+		}
+		writeVarLong(references.size() + 1L);
+		for (Reference reference : references) {
+			writeReference(reference);
+		}
+	}
+
+	/**
+	 * @return The number of bytes written so far
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return A copy of the bytes written so far
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, size);
+	}
+
+	/**
+	 * Writes the bytes written so far to a stream.
+	 *
+	 * @param out The stream to write to
+	 * @throws IOException if the stream cannot be written to
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buffer, 0, size);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private void ensureCapacity(int n) {
+		if (size + n > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + n));
+		}
+	}
+
+}
@@ -19,7 +19,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.BulkMode;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
@@ -42,12 +45,12 @@ public abstract class Subject {
 	private String city;
 	private String region;
 	private String postCode;
-	private String country;
-	private URL orcid;
+	private short country;
+	private CitationUrl orcid;
 	private String email;
 	private String tel;
 	private String fax;
-	private URL website;
+	private CitationUrl website;
 
 	/**
 	 * Constructor for databinding
@@ -82,6 +85,63 @@ public abstract class Subject {
 		setWebsite(website);
 	}
 
+	/**
+	 * Constructor for reading snapshots.
+	 *
+	 * @param in The reader to read the snapshot from
+	 * @throws InvalidDataException on invalid data in untrusted snapshots
+	 * @throws ReadException if the snapshot is truncated or corrupt
+	 * @see SnapshotReader
+	 */
+	Subject(SnapshotReader in) throws InvalidDataException, ReadException {
+		this.address = in.readString();
+		this.city = in.readPooledString();
+		this.region = in.readPooledString();
+		this.postCode = in.readPooledString();
+		String country = in.readString();
+		String orcid = in.readString();
+		this.email = in.readString();
+		this.tel = in.readString();
+		this.fax = in.readString();
+		this.website = in.readUrl();
+		if (in.isTrusted()) {
+			this.country = CountryCodes.toCode(country);
+			this.orcid = orcid == null ? null : CitationUrl.trusted(orcid);
+		}
+		else {
+			setCountry(country);
+			setOrcid(orcid);
+		}
+	}
+
+	/**
+	 * Writes the values of this subject to a snapshot, in the order
+	 * in which {@link #Subject(SnapshotReader)} reads them.
+	 */
+	void writeTo(SnapshotWriter out) {
+		out.writeString(address);
+		out.writeString(city);
+		out.writeString(region);
+		out.writeString(postCode);
+		out.writeString(getCountry());
+		out.writeUrl(orcid);
+		out.writeString(email);
+		out.writeString(tel);
+		out.writeString(fax);
+		out.writeUrl(website);
+	}
+
+	/**
+	 * Validates whether a value for **`country`** is an
+	 * ISO 3166-1 alpha-2 code.
+	 * 
+	 * @param country The country code to check for validity
+	 * @return Whether the country code is valid
+	 */
+	public static boolean isValidCountry(String country) {
+		return CountryCodes.isValid(country);
+	}
+
 	/**
 	 * @return the address
 	 */
@@ -139,17 +199,24 @@ public abstract class Subject {
 	 */
 	@JsonProperty("country")
 	public String getCountry() {
+		return CountryCodes.toValue(country);
+	}
+
+	/**
+	 * @return the compact code of the country, or {@link CountryCodes#NONE}
+	 * @see CountryCodes
+	 */
+	@JsonIgnore
+	public short getCountryCode() {
 		return country;
 	}
 
 	@JsonProperty("country")
 	private void setCountry(String country) throws InvalidDataException {
-		if (country != null) {
-			if (!DefinedValues.COUNTRY.contains(country)) {
-				throw new InvalidDataException("'country' value '" + country + "' is not a valid ISO 3166-1 alpha-2 code.");
-			}
+		this.country = CountryCodes.toCode(country);
+		if (country != null && this.country == CountryCodes.NONE) {
+			throw BulkMode.invalidData("'country' value '" + country + "' is not a valid ISO 3166-1 alpha-2 code.");
 		}
-		this.country = country;
 	}
 
 	/**
@@ -157,21 +224,32 @@ public abstract class Subject {
 	 */
 	@JsonProperty("orcid")
 	public URL getOrcid() {
+		return CitationUrl.toURL(orcid);
+	}
+
+	/**
+	 * @return The value of the field `orcid` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getOrcidValue() {
 		return orcid;
 	}
 
 	@JsonProperty("orcid")
 	private void setOrcid(String orcid) throws InvalidDataException {
 		if (orcid != null) {
-			if (!orcid.matches(DefinedValues.ORCID_URL_PATTERN)) {
-				throw new InvalidDataException("ORCID id " + orcid
-						+ " is not a valid ORCID URL with pattern 'https://orcid.org/[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}'!");
+			if (!OrcidValidator.isWellFormedUrl(orcid)) {
+				throw BulkMode.invalidData("ORCID id " + orcid
+						+ " is not a valid ORCID URL with pattern 'https://orcid.org/[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{3}[0-9X]'!");
+			}
+			if (!OrcidValidator.isValid(orcid)) {
+				throw BulkMode.invalidData("ORCID id " + orcid + " has an invalid check digit (ISO/IEC 7064:2003, MOD 11-2)!");
 			}
 			try {
-				this.orcid = new URL(orcid);
+				this.orcid = CitationUrl.parse(orcid);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The ORCID URL '" + orcid + "' is not valid!", e);
+				throw BulkMode.invalidData("The ORCID URL '" + orcid + "' is not valid!", e);
 			}
 		}
 	}
@@ -220,6 +298,14 @@ public abstract class Subject {
 	 */
 	@JsonProperty("website")
 	public URL getWebsite() {
+		return CitationUrl.toURL(website);
+	}
+
+	/**
+	 * @return The value of the field `website` as a {@link CitationUrl}, which is converted into a {@link URL} only on demand
+	 */
+	@JsonIgnore
+	public CitationUrl getWebsiteValue() {
 		return website;
 	}
 
@@ -227,10 +313,10 @@ public abstract class Subject {
 	private void setWebsite(String website) throws InvalidDataException {
 		if (website != null) {
 			try {
-				this.website = new URL(website);
+				this.website = CitationUrl.parse(website);
 			}
 			catch (MalformedURLException e) {
-				throw new InvalidDataException("The 'website' URL '" + website + "' is not valid.", e);
+				throw BulkMode.invalidData("The 'website' URL '" + website + "' is not valid.", e);
 			}
 		}
 	}
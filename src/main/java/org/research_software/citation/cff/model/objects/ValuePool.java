@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * A pool of model values that are shared across documents, e.g.,
+ * across all documents in an in-memory index.
+ *
+ * The pool holds one instance of each distinct string value that commonly
+ * repeats across documents, e.g., affiliations, licenses, cities,
+ * collection types, or keywords. It also holds one instance of each
+ * distinct {@link Person}, {@link Entity} and {@link Reference}, so that
+ * an author or a cited work that occurs in many documents is held in
+ * memory only once. Model objects are identified by the bytes of their
+ * snapshots (see {@link SnapshotWriter}), i.e., by all of their values.
+ * The pool only keeps a hash of these bytes. When the hashes match, the
+ * snapshot of the pooled instance is written again and compared.
+ *
+ * Lists returned by the pool are immutable, and sized to their contents.
+ * Empty lists are shared.
+ *
+ * Pooled subjects and references are shared by all documents that use
+ * them, and must not be modified by clients: a modification would show in
+ * every document that shares the instance, and would no longer match the
+ * hash the pool has kept for it.
+ *
+ * The pool only grows, and should be discarded with the documents it has
+ * been used for. Instances are thread-safe, while pooled subjects and
+ * references are only safe to share as long as they are not modified.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class ValuePool {
+
+	private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SnapshotKey, Subject> subjects = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SnapshotKey, Reference> references = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the pooled instance of a string.
+	 *
+	 * @param value The string to intern, may be `null`
+	 * @return The pooled string equal to the passed one, or `null`
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String pooled = strings.putIfAbsent(value, value);
+		return pooled == null ? value : pooled;
+	}
+
+	/**
+	 * Returns the pooled instance of a subject, whose values are pooled as well.
+	 *
+	 * @param subject The subject to intern, may be `null`
+	 * @return The pooled subject with values equal to the passed one, or `null`.
+	 * Must not be modified.
+	 */
+	public Subject intern(Subject subject) {
+		if (subject == null) {
+			return null;
+		}
+		SnapshotWriter out = new SnapshotWriter(256);
+		out.writeSubject(subject);
+		byte[] bytes = out.toByteArray();
+		Subject pooled = subjects.get(new SnapshotKey(bytes, 0, bytes.length));
+		if (pooled != null) {
+			return pooled;
+		}
+		try {
+			return new SnapshotReader(bytes, 0, bytes.length, true, this).readSubject();
+		}
+		catch (InvalidDataException | ReadException e) {
+			throw new IllegalStateException("A trusted snapshot written in memory could not be read!", e);
+		}
+	}
+
+	/**
+	 * Returns the pooled instance of a reference, whose values are pooled as well.
+	 *
+	 * @param reference The reference to intern, may be `null`
+	 * @return The pooled reference with values equal to the passed one, or `null`.
+	 * Must not be modified.
+	 */
+	public Reference intern(Reference reference) {
+		if (reference == null) {
+			return null;
+		}
+		SnapshotWriter out = new SnapshotWriter(1024);
+		out.writeReference(reference);
+		byte[] bytes = out.toByteArray();
+		Reference pooled = references.get(new SnapshotKey(bytes, 0, bytes.length));
+		if (pooled != null) {
+			return pooled;
+		}
+		try {
+			return new SnapshotReader(bytes, 0, bytes.length, true, this).readReference();
+		}
+		catch (InvalidDataException | ReadException e) {
+			throw new IllegalStateException("A trusted snapshot written in memory could not be read!", e);
+		}
+	}
+
+	/**
+	 * @param values The strings to intern, may be `null`
+	 * @return An immutable list of the pooled strings, or `null`
+	 */
+	public List<String> internStrings(List<String> values) {
+		if (values == null) {
+			return null;
+		}
+		String[] pooled = new String[values.size()];
+		for (int i = 0; i < pooled.length; i++) {
+			pooled[i] = intern(values.get(i));
+		}
+		return immutableList(Arrays.asList(pooled));
+	}
+
+	/**
+	 * @param values The subjects to intern, may be `null`
+	 * @return An immutable list of the pooled subjects, or `null`
+	 */
+	public List<Subject> internSubjects(List<Subject> values) {
+		if (values == null) {
+			return null;
+		}
+		Subject[] pooled = new Subject[values.size()];
+		for (int i = 0; i < pooled.length; i++) {
+			pooled[i] = intern(values.get(i));
+		}
+		return immutableList(Arrays.asList(pooled));
+	}
+
+	/**
+	 * @param values The references to intern, may be `null`
+	 * @return An immutable list of the pooled references, or `null`
+	 */
+	public List<Reference> internReferences(List<Reference> values) {
+		if (values == null) {
+			return null;
+		}
+		Reference[] pooled = new Reference[values.size()];
+		for (int i = 0; i < pooled.length; i++) {
+			pooled[i] = intern(values.get(i));
+		}
+		return immutableList(Arrays.asList(pooled));
+	}
+
+	/**
+	 * @return The number of distinct strings, subjects and references in the pool
+	 */
+	public int size() {
+		return strings.size() + subjects.size() + references.size();
+	}
+
+	/**
+	 * Returns the pooled instance of a subject that has been read from
+	 * the passed range of a snapshot.
+	 */
+	Subject intern(byte[] bytes, int start, int end, Subject subject) {
+		SnapshotKey key = new SnapshotKey(bytes, start, end);
+		Subject pooled = subjects.get(key);
+		if (pooled == null) {
+			pooled = subjects.putIfAbsent(key.pooled(subject), subject);
+		}
+		return pooled == null ? subject : pooled;
+	}
+
+	/**
+	 * Returns the pooled instance of a reference that has been read from
+	 * the passed range of a snapshot.
+	 */
+	Reference intern(byte[] bytes, int start, int end, Reference reference) {
+		SnapshotKey key = new SnapshotKey(bytes, start, end);
+		Reference pooled = references.get(key);
+		if (pooled == null) {
+			pooled = references.putIfAbsent(key.pooled(reference), reference);
+		}
+		return pooled == null ? reference : pooled;
+	}
+
+	/**
+	 * Returns an immutable list sized to its contents.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> List<T> immutableList(List<T> values) {
+		switch (values.size()) {
+		case 0:
+			return Collections.emptyList();
+		case 1:
+			return Collections.singletonList(values.get(0));
+		default:
+			return Collections.unmodifiableList((List<T>) Arrays.asList(values.toArray()));
+		}
+	}
+
+	/**
+	 * Identifies a subject or reference by the bytes of its snapshot.
+	 *
+	 * Keys for lookups refer to a range of a snapshot that is being read.
+	 * Keys in the pool only hold the hash of the range and the pooled
+	 * instance, and write its snapshot again when compared, so that no
+	 * copies of snapshots are kept.
+	 */
+	private static final class SnapshotKey {
+
+		private final int hash;
+		private final byte[] bytes;
+		private final int start;
+		private final int end;
+		private final Object value;
+
+		SnapshotKey(byte[] bytes, int start, int end) {
+			int hash = 1;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + bytes[i];
+			}
+			this.hash = hash;
+			this.bytes = bytes;
+			this.start = start;
+			this.end = end;
+			this.value = null;
+		}
+
+		private SnapshotKey(int hash, Object value) {
+			this.hash = hash;
+			this.bytes = null;
+			this.start = 0;
+			this.end = 0;
+			this.value = value;
+		}
+
+		/**
+		 * @return A key with the same hash, to store with the pooled instance
+		 */
+		SnapshotKey pooled(Object value) {
+			return new SnapshotKey(hash, value);
+		}
+
+		private byte[] snapshot() {
+			if (bytes != null) {
+				return bytes;
+			}
+			SnapshotWriter out = new SnapshotWriter(value instanceof Reference ? 1024 : 256);
+			if (value instanceof Reference) {
+				out.writeReference((Reference) value);
+			}
+			else {
+				out.writeSubject((Subject) value);
+			}
+			return out.toByteArray();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SnapshotKey)) {
+				return false;
+			}
+			SnapshotKey other = (SnapshotKey) obj;
+			if (hash != other.hash) {
+				return false;
+			}
+			byte[] these = snapshot();
+			byte[] those = other.snapshot();
+			int length = bytes != null ? end - start : these.length;
+			int otherStart = other.bytes != null ? other.start : 0;
+			int otherLength = other.bytes != null ? other.end - other.start : those.length;
+			if (length != otherLength) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (these[start + i] != those[otherStart + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Reads all `CITATION.cff` files contained in a zip or tar archive,
+ * without extracting the archive.
+ *
+ * Archives are read as streams, in a single pass. Each `CITATION.cff`
+ * entry is parsed in place by a delegate {@link SoftwareCitationMetadataReader},
+ * and all other entries are skipped. The outcome of each parse is reported
+ * as a {@link ReadResult}, whose source is the path of the entry in the
+ * archive. A failing parse does not stop the read of the archive.
+ *
+ * Tar archives may be gzip-compressed. Both ustar and GNU long names, and
+ * pax extended header paths are supported.
+ *
+ * Instances are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ArchiveSoftwareCitationMetadataReader {
+
+	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private static final int BLOCK_SIZE = 512;
+	private final SoftwareCitationMetadataReader reader;
+
+	/**
+	 * Constructor accepting the reader to parse entries with.
+	 *
+	 * @param reader The reader to parse `CITATION.cff` entries with
+	 */
+	public ArchiveSoftwareCitationMetadataReader(SoftwareCitationMetadataReader reader) {
+		if (reader == null) {
+			throw new NullPointerException("Reader must not be null!");
+		}
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads all `CITATION.cff` entries in a zip archive.
+	 *
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client.
+	 *
+	 * @param zipInputStream The stream of the zip archive
+	 * @return The results for all `CITATION.cff` entries, in archive order
+	 * @throws ReadException if the archive cannot be read
+	 */
+	public List<ReadResult> readZip(InputStream zipInputStream) throws ReadException {
+		List<ReadResult> results = new ArrayList<>();
+		ZipInputStream zip = new ZipInputStream(new UnclosableInputStream(zipInputStream), StandardCharsets.UTF_8);
+		try {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				String name = normalize(entry.getName());
+				if (!entry.isDirectory() && isCffEntry(name)) {
+					results.add(read(name, new UnclosableInputStream(zip)));
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new ReadException("The zip archive could not be read.", e);
+		}
+		return results;
+	}
+
+	/**
+	 * Reads all `CITATION.cff` entries in a tar archive, which may be
+	 * gzip-compressed.
+	 *
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client.
+	 *
+	 * @param tarInputStream The stream of the tar or tar.gz archive
+	 * @return The results for all `CITATION.cff` entries, in archive order
+	 * @throws ReadException if the archive cannot be read
+	 */
+	public List<ReadResult> readTar(InputStream tarInputStream) throws ReadException {
+		List<ReadResult> results = new ArrayList<>();
+		try {
+			InputStream tar = new BufferedInputStream(new UnclosableInputStream(tarInputStream), 2 * BLOCK_SIZE);
+			tar.mark(2);
+			boolean gzip = tar.read() == 0x1f && tar.read() == 0x8b;
+			tar.reset();
+			if (gzip) {
+				tar = new BufferedInputStream(new GZIPInputStream(tar), 16 * BLOCK_SIZE);
+			}
+			byte[] header = new byte[BLOCK_SIZE];
+			String longName = null;
+			while (readBlock(tar, header)) {
+				if (isZeroBlock(header)) {
+					// End of archive
+					break;
+				}
+				if (!hasValidChecksum(header)) {
+					throw new IOException("The archive is not a tar archive, or is corrupt.");
+				}
+				long size = parseSize(header);
+				byte type = header[156];
+				String name = normalize(longName != null ? longName : parseName(header));
+				longName = null;
+				if (type == 'L') {
+					// GNU long name of the next entry
+					longName = trimNul(new String(readFully(tar, size), StandardCharsets.UTF_8));
+				}
+				else if (type == 'x') {
+					// pax extended header of the next entry
+					longName = parsePaxPath(readFully(tar, size));
+				}
+				else if ((type == '0' || type == 0) && isCffEntry(name)) {
+					BoundedInputStream entry = new BoundedInputStream(tar, size);
+					results.add(read(name, entry));
+					entry.skipRemaining();
+				}
+				else {
+					skipFully(tar, size);
+				}
+				skipFully(tar, padding(size));
+			}
+		}
+		catch (IOException e) {
+			throw new ReadException("The tar archive could not be read.", e);
+		}
+		return results;
+	}
+
+	private ReadResult read(String path, InputStream entry) {
+		try {
+			return ReadResult.success(path, reader.readFromStream(entry));
+		}
+		catch (Exception e) {
+			return ReadResult.failure(path, e);
+		}
+	}
+
+	private static boolean isCffEntry(String path) {
+		return path.equals(CFF_FILE_NAME) || path.endsWith("/" + CFF_FILE_NAME);
+	}
+
+	private static String normalize(String path) {
+		return path.startsWith("./") ? path.substring(2) : path;
+	}
+
+	private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+		int offset = 0;
+		while (offset < block.length) {
+			int read = in.read(block, offset, block.length - offset);
+			if (read == -1) {
+				if (offset == 0) {
+					// Archives without end-of-archive blocks are accepted
+					return false;
+				}
+				throw new EOFException("The tar archive ends within a header block.");
+			}
+			offset += read;
+		}
+		return true;
+	}
+
+	private static boolean isZeroBlock(byte[] block) {
+		for (byte b : block) {
+			if (b != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Verifies the checksum of a header, i.e., the unsigned sum of its bytes,
+	 * with the checksum field itself counted as spaces.
+	 */
+	private static boolean hasValidChecksum(byte[] header) {
+		long sum = 0;
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			sum += i >= 148 && i < 156 ? ' ' : header[i] & 0xff;
+		}
+		return sum == parseOctal(header, 148, 8);
+	}
+
+	private static String parseName(byte[] header) {
+		String name = parseString(header, 0, 100);
+		// ustar archives may split long names into a prefix and a name
+		if (header[257] == 'u' && header[258] == 's' && header[259] == 't' && header[260] == 'a'
+				&& header[261] == 'r') {
+			String prefix = parseString(header, 345, 155);
+			if (!prefix.isEmpty()) {
+				name = prefix + "/" + name;
+			}
+		}
+		return name;
+	}
+
+	/**
+	 * Parses the size field, which is either octal, or, for large entries,
+	 * base-256 as flagged by the highest bit of its first byte.
+	 */
+	private static long parseSize(byte[] header) throws IOException {
+		long size;
+		if ((header[124] & 0x80) != 0) {
+			size = 0;
+			for (int i = 125; i < 136; i++) {
+				size = (size << 8) | (header[i] & 0xff);
+			}
+		}
+		else {
+			size = parseOctal(header, 124, 12);
+		}
+		if (size < 0) {
+			throw new IOException("The tar archive contains an entry with an invalid size.");
+		}
+		return size;
+	}
+
+	private static long parseOctal(byte[] header, int offset, int length) {
+		long value = 0;
+		int end = offset + length;
+		int i = offset;
+		while (i < end && (header[i] == ' ' || header[i] == 0)) {
+			i++;
+		}
+		for (; i < end && header[i] >= '0' && header[i] <= '7'; i++) {
+			value = (value << 3) + (header[i] - '0');
+		}
+		return value;
+	}
+
+	private static String parseString(byte[] header, int offset, int length) {
+		int end = offset;
+		while (end < offset + length && header[end] != 0) {
+			end++;
+		}
+		return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	private static String trimNul(String name) {
+		int nul = name.indexOf(0);
+		return nul == -1 ? name : name.substring(0, nul);
+	}
+
+	/**
+	 * Parses the `path` record from pax extended header records of
+	 * the form `<length> <key>=<value>\n`.
+	 */
+	private static String parsePaxPath(byte[] records) {
+		String path = null;
+		int offset = 0;
+		while (offset < records.length) {
+			int space = offset;
+			while (space < records.length && records[space] != ' ') {
+				space++;
+			}
+			int length;
+			try {
+				length = Integer.parseInt(new String(records, offset, space - offset, StandardCharsets.US_ASCII));
+			}
+			catch (NumberFormatException e) {
+				break;
+			}
+			if (length <= 0 || offset + length > records.length) {
+				break;
+			}
+			String record = new String(records, space + 1, offset + length - space - 2, StandardCharsets.UTF_8);
+			if (record.startsWith("path=")) {
+				path = record.substring(5);
+			}
+			offset += length;
+		}
+		return path;
+	}
+
+	private static long padding(long size) {
+		long remainder = size % BLOCK_SIZE;
+		return remainder == 0 ? 0 : BLOCK_SIZE - remainder;
+	}
+
+	private static byte[] readFully(InputStream in, long size) throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The tar archive contains an extended header that is too large.");
+		}
+		byte[] bytes = new byte[(int) size];
+		int offset = 0;
+		while (offset < bytes.length) {
+			int read = in.read(bytes, offset, bytes.length - offset);
+			if (read == -1) {
+				throw new EOFException("The tar archive ends within an entry.");
+			}
+			offset += read;
+		}
+		return bytes;
+	}
+
+	private static void skipFully(InputStream in, long n) throws IOException {
+		while (n > 0) {
+			long skipped = in.skip(n);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					throw new EOFException("The tar archive ends within an entry.");
+				}
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+
+	/**
+	 * Shields the archive stream from being closed by the parser of an entry.
+	 */
+	private static final class UnclosableInputStream extends FilterInputStream {
+
+		private UnclosableInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() {
+			// The archive stream is closed by the client
+		}
+
+	}
+
+	/**
+	 * Limits reads to the data of a single tar entry.
+	 */
+	private static final class BoundedInputStream extends InputStream {
+
+		private final InputStream in;
+		private long remaining;
+
+		private BoundedInputStream(InputStream in, long size) {
+			this.in = in;
+			this.remaining = size;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int b = in.read();
+			if (b != -1) {
+				remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+
+		@Override
+		public void close() {
+			// The archive stream is closed by the client
+		}
+
+		private void skipRemaining() throws IOException {
+			skipFully(in, remaining);
+			remaining = 0;
+		}
+
+	}
+
+}
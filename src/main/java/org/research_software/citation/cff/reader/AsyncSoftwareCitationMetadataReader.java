@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * Reads software citation metadata asynchronously.
+ *
+ * Files are opened on a client-supplied {@link Executor}, and read with an
+ * {@link AsynchronousFileChannel}, so that the calling thread never blocks
+ * on file I/O. Once all bytes of a file are in memory, they are parsed by a
+ * delegate {@link SoftwareCitationMetadataReader} on the executor. Delegates
+ * that implement {@link ExtendedSoftwareCitationMetadataReader} parse the
+ * bytes in place.
+ *
+ * The returned futures complete exceptionally with the exceptions that the
+ * synchronous reader would throw, i.e., an {@link InvalidCFFFileNameException},
+ * an {@link InvalidDataException}, or a {@link ReadException}.
+ *
+ * The executor is not shut down by the reader. Instances are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class AsyncSoftwareCitationMetadataReader {
+
+	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private final SoftwareCitationMetadataReader delegate;
+	private final Executor executor;
+
+	/**
+	 * Constructor accepting the reader to parse contents with, and the
+	 * executor to parse them on.
+	 *
+	 * @param delegate The reader to parse the contents of files and streams with
+	 * @param executor The executor to parse on
+	 */
+	public AsyncSoftwareCitationMetadataReader(SoftwareCitationMetadataReader delegate, Executor executor) {
+		if (delegate == null || executor == null) {
+			throw new NullPointerException("Reader and executor must not be null!");
+		}
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	/**
+	 * Reads the software citation metadata from a {@link File} object,
+	 * which represents a valid `CITATION.cff` file.
+	 *
+	 * The file is opened and parsed on the executor, and is read without
+	 * blocking the calling thread.
+	 *
+	 * @param cffFile The object representing the valid `CITATION.cff` file
+	 * @return A future of the software citation metadata
+	 */
+	public CompletableFuture<SoftwareCitationMetadata> readFromFile(final File cffFile) {
+		final CompletableFuture<SoftwareCitationMetadata> future = new CompletableFuture<>();
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			future.completeExceptionally(new InvalidCFFFileNameException(
+					"File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!"));
+			return future;
+		}
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				read(cffFile, future);
+			}
+		}, future);
+		return future;
+	}
+
+	/**
+	 * Opens the file and starts reading it, and completes the future
+	 * exceptionally if the file cannot be opened or sized.
+	 */
+	private void read(File cffFile, final CompletableFuture<SoftwareCitationMetadata> future) {
+		final AsynchronousFileChannel channel;
+		final ByteBuffer buffer;
+		try {
+			channel = AsynchronousFileChannel.open(cffFile.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException | RuntimeException e) {
+			future.completeExceptionally(new ReadException("The read process failed due to an exception.", e));
+			return;
+		}
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("The file is too large to be read (" + size + " bytes).");
+			}
+			buffer = ByteBuffer.allocate((int) size);
+		}
+		catch (IOException | RuntimeException e) {
+			closeQuietly(channel);
+			future.completeExceptionally(new ReadException("The read process failed due to an exception.", e));
+			return;
+		}
+		channel.read(buffer, 0, null, new CompletionHandler<Integer, Void>() {
+
+			@Override
+			public void completed(Integer read, Void attachment) {
+				if (read >= 0 && buffer.hasRemaining()) {
+					// Continue until the buffer is full, or the file has been truncated
+					channel.read(buffer, buffer.position(), null, this);
+					return;
+				}
+				closeQuietly(channel);
+				buffer.flip();
+				parse(buffer, future);
+			}
+
+			@Override
+			public void failed(Throwable t, Void attachment) {
+				closeQuietly(channel);
+				future.completeExceptionally(new ReadException("The read process failed due to an exception.", t));
+			}
+		});
+	}
+
+	/**
+	 * Reads the software citation metadata from an {@link InputStream} object,
+	 * which streams a valid `CITATION.cff` file.
+	 *
+	 * As streams can only be read in a blocking way, the stream is both read
+	 * and parsed on the executor.
+	 *
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client once the returned future has completed.
+	 *
+	 * @param cffInputStream The {@link InputStream} providing the contents of a valid `CITATION.cff` file
+	 * @return A future of the software citation metadata
+	 */
+	public CompletableFuture<SoftwareCitationMetadata> readFromStream(InputStream cffInputStream) {
+		CompletableFuture<SoftwareCitationMetadata> future = new CompletableFuture<>();
+		parse(cffInputStream, future);
+		return future;
+	}
+
+	/**
+	 * Parses the stream with the delegate reader on the executor, and
+	 * completes the future with the outcome.
+	 */
+	private void parse(final InputStream stream, final CompletableFuture<SoftwareCitationMetadata> future) {
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					future.complete(delegate.readFromStream(stream));
+				}
+				catch (InvalidDataException | ReadException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+		}, future);
+	}
+
+	/**
+	 * Parses the contents of a file with the delegate reader on the executor,
+	 * and completes the future with the outcome. The contents are parsed in
+	 * place if the delegate can read from buffers.
+	 */
+	private void parse(final ByteBuffer contents, final CompletableFuture<SoftwareCitationMetadata> future) {
+		if (!(delegate instanceof ExtendedSoftwareCitationMetadataReader)) {
+			parse(new ByteArrayInputStream(contents.array(), 0, contents.limit()), future);
+			return;
+		}
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					future.complete(((ExtendedSoftwareCitationMetadataReader) delegate).readFromBuffer(contents));
+				}
+				catch (InvalidDataException | ReadException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+		}, future);
+	}
+
+	/**
+	 * Runs the task on the executor, and completes the future exceptionally
+	 * if the executor rejects it.
+	 */
+	private void execute(Runnable task, CompletableFuture<SoftwareCitationMetadata> future) {
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	private static void closeQuietly(AsynchronousFileChannel channel) {
+		try {
+			channel.close();
+		}
+		catch (IOException e) {
+			// The contents have been read, or the read is failing anyway
+		}
+	}
+
+}
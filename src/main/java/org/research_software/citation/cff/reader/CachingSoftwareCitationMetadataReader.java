@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * A {@link SoftwareCitationMetadataReader} that caches the software
+ * citation metadata read by another reader.
+ *
+ * Metadata is cached by the contents of the file or stream that it has
+ * been read from, so that identical contents, e.g., in forks, mirrors,
+ * or unchanged commits, are parsed only once. Contents are identified by
+ * their length and SHA-256 digest. The contents themselves are not kept,
+ * so a hit does not compare them, but digest collisions are not a
+ * practical concern.
+ *
+ * Optionally, files can additionally be identified by their path, last
+ * modification time and size, so that unchanged files need not even be
+ * read again.
+ *
+ * The cache is bounded by a maximum number of entries and by a maximum
+ * weight, i.e., the summed size in bytes of the contents that the cached
+ * metadata has been read from. When
+ * either bound is exceeded, the least recently used entries are evicted.
+ * Only successful reads are cached.
+ *
+ * **Note** that cached metadata objects are shared between all reads of
+ * the same contents, and must not be modified by clients.
+ *
+ * Streaming reads are delegated without caching.
+ *
+ * Instances are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class CachingSoftwareCitationMetadataReader implements ExtendedSoftwareCitationMetadataReader {
+
+	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private final ExtendedSoftwareCitationMetadataReader delegate;
+	private final int maxEntries;
+	private final long maxWeight;
+	private final boolean keyFilesByAttributes;
+	private final LinkedHashMap<ContentKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<FileKey, ContentKey> fileKeys = new LinkedHashMap<>(16, 0.75f, true);
+	private long weight = 0;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Constructor accepting the reader to delegate reads to, and the
+	 * maximum number of cached entries.
+	 *
+	 * @param delegate The reader to delegate reads to on cache misses
+	 * @param maxEntries The maximum number of cached entries
+	 */
+	public CachingSoftwareCitationMetadataReader(ExtendedSoftwareCitationMetadataReader delegate, int maxEntries) {
+		this(delegate, maxEntries, Long.MAX_VALUE, false);
+	}
+
+	/**
+	 * Constructor accepting the reader to delegate reads to, the maximum
+	 * number of cached entries, the maximum summed size in bytes of the
+	 * cached contents, and whether files should also be identified by
+	 * their path, last modification time and size.
+	 *
+	 * @param delegate The reader to delegate reads to on cache misses
+	 * @param maxEntries The maximum number of cached entries
+	 * @param maxWeight The maximum summed size in bytes of the contents of the cached entries
+	 * @param keyFilesByAttributes Whether files should also be identified by their path, last modification time and size
+	 */
+	public CachingSoftwareCitationMetadataReader(ExtendedSoftwareCitationMetadataReader delegate, int maxEntries,
+			long maxWeight, boolean keyFilesByAttributes) {
+		if (delegate == null) {
+			throw new NullPointerException("Delegate reader must not be null!");
+		}
+		if (maxEntries < 1 || maxWeight < 1) {
+			throw new IllegalArgumentException(
+					"The maximum number of entries and the maximum weight must be positive (are " + maxEntries + " and "
+							+ maxWeight + ")!");
+		}
+		this.delegate = delegate;
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		this.keyFilesByAttributes = keyFilesByAttributes;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.SoftwareCitationMetadataReader#readFromFile(java.io.File)
+	 */
+	@Override
+	public SoftwareCitationMetadata readFromFile(File cffFile)
+			throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
+		}
+		return read(cffFile.toPath());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readFromPath(java.nio.file.Path)
+	 */
+	@Override
+	public SoftwareCitationMetadata readFromPath(Path cffPath)
+			throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+		Path fileName = cffPath.getFileName();
+		if (fileName == null || !fileName.toString().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + fileName + "')!");
+		}
+		return read(cffPath);
+	}
+
+	private SoftwareCitationMetadata read(Path path) throws InvalidDataException, ReadException {
+		FileKey fileKey = null;
+		byte[] content;
+		try {
+			if (keyFilesByAttributes) {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				fileKey = new FileKey(path.toAbsolutePath().normalize().toString(),
+						attributes.lastModifiedTime().toMillis(), attributes.size());
+				SoftwareCitationMetadata cached = getByFileKey(fileKey);
+				if (cached != null) {
+					hits.incrementAndGet();
+					return cached;
+				}
+			}
+			content = Files.readAllBytes(path);
+		}
+		catch (IOException e) {
+			throw new ReadException("The read process failed due to an exception.", e);
+		}
+		return read(content, fileKey);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.SoftwareCitationMetadataReader#readFromStream(java.io.InputStream)
+	 */
+	@Override
+	public SoftwareCitationMetadata readFromStream(InputStream cffInputStream)
+			throws InvalidDataException, ReadException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		try {
+			for (int read = cffInputStream.read(buffer); read != -1; read = cffInputStream.read(buffer)) {
+				content.write(buffer, 0, read);
+			}
+		}
+		catch (IOException e) {
+			throw new ReadException("The read process failed due to an exception.", e);
+		}
+		return read(content.toByteArray(), null);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readFromBuffer(java.nio.ByteBuffer)
+	 */
+	@Override
+	public SoftwareCitationMetadata readFromBuffer(ByteBuffer cffContents) throws InvalidDataException, ReadException {
+		// The contents are both digested and, on a miss, parsed, so copy them once
+		byte[] content = new byte[cffContents.remaining()];
+		cffContents.duplicate().get(content);
+		return read(content, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readStreamingFromFile(java.io.File)
+	 */
+	@Override
+	public StreamingSoftwareCitationMetadata readStreamingFromFile(File cffFile)
+			throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+		return delegate.readStreamingFromFile(cffFile);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readStreamingFromStream(java.io.InputStream)
+	 */
+	@Override
+	public StreamingSoftwareCitationMetadata readStreamingFromStream(InputStream cffInputStream)
+			throws InvalidDataException, ReadException {
+		return delegate.readStreamingFromStream(cffInputStream);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#probeFromFile(java.io.File, int)
+	 */
+	@Override
+	public CitationHeader probeFromFile(File cffFile, int byteBudget) throws InvalidCFFFileNameException, ReadException {
+		return delegate.probeFromFile(cffFile, byteBudget);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#probeFromStream(java.io.InputStream, int)
+	 */
+	@Override
+	public CitationHeader probeFromStream(InputStream cffInputStream, int byteBudget) throws ReadException {
+		return delegate.probeFromStream(cffInputStream, byteBudget);
+	}
+
+	private SoftwareCitationMetadata read(byte[] content, FileKey fileKey) throws InvalidDataException, ReadException {
+		ContentKey contentKey = new ContentKey(content);
+		synchronized (this) {
+			Entry entry = entries.get(contentKey);
+			if (entry != null) {
+				if (fileKey != null) {
+					putFileKey(fileKey, contentKey);
+				}
+				hits.incrementAndGet();
+				return entry.metadata;
+			}
+		}
+		misses.incrementAndGet();
+		SoftwareCitationMetadata metadata = delegate.readFromBuffer(ByteBuffer.wrap(content));
+		if (metadata != null) {
+			synchronized (this) {
+				Entry previous = entries.put(contentKey, new Entry(metadata, content.length));
+				if (previous != null) {
+					weight -= previous.weight;
+				}
+				weight += content.length;
+				if (fileKey != null) {
+					putFileKey(fileKey, contentKey);
+				}
+				evict();
+			}
+		}
+		return metadata;
+	}
+
+	private synchronized SoftwareCitationMetadata getByFileKey(FileKey fileKey) {
+		ContentKey contentKey = fileKeys.get(fileKey);
+		if (contentKey == null) {
+			return null;
+		}
+		Entry entry = entries.get(contentKey);
+		if (entry == null) {
+			fileKeys.remove(fileKey);
+			return null;
+		}
+		return entry.metadata;
+	}
+
+	/**
+	 * Must be called while holding the lock on this object.
+	 */
+	private void putFileKey(FileKey fileKey, ContentKey contentKey) {
+		fileKeys.put(fileKey, contentKey);
+		if (fileKeys.size() > maxEntries) {
+			Iterator<FileKey> eldest = fileKeys.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entries until both bounds are met.
+	 * Must be called while holding the lock on this object.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<ContentKey, Entry>> iterator = entries.entrySet().iterator();
+		while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+			weight -= iterator.next().getValue().weight;
+			iterator.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Removes all entries from the cache. The counters are not reset.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		fileKeys.clear();
+		weight = 0;
+	}
+
+	/**
+	 * @return The number of cached entries
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return The summed size in bytes of the contents of the cached entries
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return The number of reads that have been served from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of reads that have been delegated
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return The number of entries that have been evicted from the cache
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CachingSoftwareCitationMetadataReader [size=" + size() + ", weight=" + getWeight() + ", hits="
+				+ getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+	/**
+	 * A cached metadata object and its weight.
+	 */
+	private static final class Entry {
+
+		private final SoftwareCitationMetadata metadata;
+		private final long weight;
+
+		private Entry(SoftwareCitationMetadata metadata, long weight) {
+			this.metadata = metadata;
+			this.weight = weight;
+		}
+
+	}
+
+	/**
+	 * Identifies contents by their length and SHA-256 digest.
+	 */
+	private static final class ContentKey {
+
+		private final int length;
+		private final byte[] digest;
+		private final int hashCode;
+
+		private ContentKey(byte[] content) {
+			try {
+				this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+			}
+			catch (NoSuchAlgorithmException e) {
+				// Cannot happen, as every Java platform supports SHA-256
+				throw new IllegalStateException("The digest algorithm " + DIGEST_ALGORITHM + " is not available!", e);
+			}
+			this.length = content.length;
+			this.hashCode = Arrays.hashCode(digest);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ContentKey)) {
+				return false;
+			}
+			ContentKey other = (ContentKey) obj;
+			return length == other.length && Arrays.equals(digest, other.digest);
+		}
+
+	}
+
+	/**
+	 * Identifies a file by its path, last modification time, and size.
+	 */
+	private static final class FileKey {
+
+		private final String path;
+		private final long lastModified;
+		private final long size;
+
+		private FileKey(String path, long lastModified, long size) {
+			this.path = path;
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * path.hashCode() + (int) (lastModified ^ (lastModified >>> 32)))
+					+ (int) (size ^ (size >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof FileKey)) {
+				return false;
+			}
+			FileKey other = (FileKey) obj;
+			return path.equals(other.path) && lastModified == other.lastModified && size == other.size;
+		}
+
+	}
+
+}
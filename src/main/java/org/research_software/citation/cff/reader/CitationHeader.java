@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+/**
+ * The top-level header keys of a software citation metadata file, as
+ * found by a probe with {@link ExtendedSoftwareCitationMetadataReader#probeFromStream(java.io.InputStream, int)}.
+ * 
+ * Values are returned as they have been read, without validation, and are
+ * `null` for keys that have not been found before the probe stopped.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class CitationHeader {
+
+	private final String cffVersion;
+	private final String title;
+	private final String version;
+	private final String doi;
+	private final String dateReleased;
+	private final boolean truncated;
+
+	CitationHeader(String cffVersion, String title, String version, String doi, String dateReleased,
+			boolean truncated) {
+		this.cffVersion = cffVersion;
+		this.title = title;
+		this.version = version;
+		this.doi = doi;
+		this.dateReleased = dateReleased;
+		this.truncated = truncated;
+	}
+
+	/**
+	 * @return the value of `cff-version`
+	 */
+	public String getCffVersion() {
+		return cffVersion;
+	}
+
+	/**
+	 * @return the value of `title`
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return the value of `version`
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the value of `doi`
+	 */
+	public String getDoi() {
+		return doi;
+	}
+
+	/**
+	 * @return the unparsed value of `date-released`
+	 */
+	public String getDateReleased() {
+		return dateReleased;
+	}
+
+	/**
+	 * Whether the probe has used up its byte budget before it could find all
+	 * header keys, or reach `references`. Keys that are `null` in a truncated
+	 * header may be present later in the file.
+	 * 
+	 * @return whether the probe has been stopped by its byte budget
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CitationHeader [cff-version=" + cffVersion + ", title=" + title + ", version=" + version + ", doi="
+				+ doi + ", date-released=" + dateReleased + (truncated ? ", truncated" : "") + "]";
+	}
+
+}
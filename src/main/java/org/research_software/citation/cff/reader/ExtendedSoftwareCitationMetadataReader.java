@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * A {@link SoftwareCitationMetadataReader} that also reads from
+ * {@link Path}s and {@link ByteBuffer}s, reads references lazily, and
+ * probes files and streams for their headers.
+ * 
+ * All readers of this API implement this interface. It is kept separate
+ * from {@link SoftwareCitationMetadataReader}, so that existing
+ * implementations of that interface do not need to implement these
+ * methods.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public interface ExtendedSoftwareCitationMetadataReader extends SoftwareCitationMetadataReader {
+
+	/**
+	 * Reads the software citation metadata from a {@link Path} object,
+	 * which locates a valid `CITATION.cff` file.
+	 * 
+	 * @param cffPath The path of the valid `CITATION.cff` file
+	 * @return The software citation metadata as a Java object of type {@link SoftwareCitationMetadata}
+	 * 
+	 * @throws InvalidDataException on invalid data, resulting parse errors (e.g., for date/time parses), or malformed URLs 
+	 * @throws InvalidCFFFileNameException If the client is trying to read a file with another name than `CITATION.cff`
+	 * @throws ReadException on failing read processes
+	 */
+	public SoftwareCitationMetadata readFromPath(Path cffPath) throws InvalidCFFFileNameException, InvalidDataException, ReadException;
+
+	/**
+	 * Reads the software citation metadata from the remaining bytes of a
+	 * {@link ByteBuffer}, which holds the UTF-8 encoded contents of a valid
+	 * `CITATION.cff` file.
+	 * 
+	 * Heap, direct and memory-mapped buffers are read in place, without
+	 * copying their contents. The position of the buffer is not changed.
+	 * 
+	 * @param cffContents The buffer holding the contents of a valid `CITATION.cff` file
+	 * @return The software citation metadata as a Java object of type {@link SoftwareCitationMetadata}
+	 * @throws InvalidDataException on invalid data, resulting parse errors (e.g., for date/time parses), or malformed URLs
+	 * @throws ReadException on failing read processes
+	 */
+	public SoftwareCitationMetadata readFromBuffer(ByteBuffer cffContents) throws InvalidDataException, ReadException;
+
+	/**
+	 * Reads the software citation metadata from a {@link File} object,
+	 * which represents a valid `CITATION.cff` file, and reads its
+	 * `references` lazily.
+	 * 
+	 * The top-level metadata is read immediately, and the references are
+	 * read one at a time as they are requested, so that the memory needed
+	 * does not grow with the number of references. Top-level keys can be
+	 * in any order.
+	 * 
+	 * The returned object must be closed by the client.
+	 * 
+	 * @param cffFile The object representing the valid `CITATION.cff` file
+	 * @return The software citation metadata with lazily read references
+	 * 
+	 * @throws InvalidDataException on invalid data in the top-level metadata
+	 * @throws InvalidCFFFileNameException If the client is trying to read a file with another name than `CITATION.cff`
+	 * @throws ReadException on failing read processes
+	 */
+	public StreamingSoftwareCitationMetadata readStreamingFromFile(File cffFile) throws InvalidCFFFileNameException, InvalidDataException, ReadException;
+
+	/**
+	 * Reads the software citation metadata from an {@link InputStream} object,
+	 * which streams a valid `CITATION.cff` file, and reads its `references`
+	 * lazily.
+	 * 
+	 * **Precondition:** `references` must be the last top-level key. The
+	 * stream is read in a single pass, and the top-level metadata is returned
+	 * when `references` is reached, so this cannot be checked up front. If
+	 * the precondition is violated, keys following `references` are silently
+	 * missing from the returned metadata, and reading the references only
+	 * fails with a {@link ReadException} after the last reference, once the
+	 * following key is reached. Use {@link #readStreamingFromFile(File)} for
+	 * files in which the order of keys is not known.
+	 * 
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client, after closing the returned object.
+	 * 
+	 * @param cffInputStream The {@link InputStream} providing the contents of a valid `CITATION.cff` file
+	 * @return The software citation metadata with lazily read references
+	 * @throws InvalidDataException on invalid data in the top-level metadata
+	 * @throws ReadException on failing read processes
+	 */
+	public StreamingSoftwareCitationMetadata readStreamingFromStream(InputStream cffInputStream) throws InvalidDataException, ReadException;
+
+	/**
+	 * Probes a {@link File} object, which represents a `CITATION.cff` file,
+	 * for its top-level header keys `cff-version`, `title`, `version`,
+	 * `doi` and `date-released`, e.g., for routing files without reading
+	 * them completely.
+	 * 
+	 * Parsing stops once all header keys have been found, or once `references`
+	 * is reached, and at most `byteBudget` bytes of the file are read, so that
+	 * probing a huge file costs about as much as probing a small one. Header
+	 * values are not validated.
+	 * 
+	 * @param cffFile The object representing the `CITATION.cff` file
+	 * @param byteBudget The maximum number of bytes to read from the file
+	 * @return The header values found, which may be truncated by the budget
+	 * 
+	 * @throws InvalidCFFFileNameException If the client is trying to read a file with another name than `CITATION.cff`
+	 * @throws ReadException on failing read processes, or if the file does not contain a mapping
+	 * @see CitationHeader#isTruncated()
+	 */
+	public CitationHeader probeFromFile(File cffFile, int byteBudget) throws InvalidCFFFileNameException, ReadException;
+
+	/**
+	 * Probes an {@link InputStream} object, which streams a `CITATION.cff`
+	 * file, for its top-level header keys.
+	 * 
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client. Bytes beyond the budget are not consumed from the stream,
+	 * but the stream is positioned after an unspecified number of bytes
+	 * within the budget.
+	 * 
+	 * @param cffInputStream The {@link InputStream} providing the contents of a `CITATION.cff` file
+	 * @param byteBudget The maximum number of bytes to read from the stream
+	 * @return The header values found, which may be truncated by the budget
+	 * @throws ReadException on failing read processes, or if the stream does not contain a mapping
+	 * @see #probeFromFile(File, int)
+	 */
+	public CitationHeader probeFromStream(InputStream cffInputStream, int byteBudget) throws ReadException;
+
+}
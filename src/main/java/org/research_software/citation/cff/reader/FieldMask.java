@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of key paths to read from software citation metadata in a
+ * projected read, e.g., `title` or `authors.family-names`.
+ *
+ * Keys in a path are separated by dots. Sequences are transparent, so
+ * that `authors.family-names` selects the family names of all authors,
+ * and `references.authors.family-names` those of all authors of all
+ * references. A path that ends at a mapping or sequence selects the
+ * whole subtree, e.g., `authors`.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ * @see SoftwareCitationMetadataPojoReader#readFromStream(java.io.InputStream, FieldMask)
+ */
+public final class FieldMask {
+
+	/**
+	 * The mask selecting a whole subtree.
+	 */
+	private static final FieldMask ALL = new FieldMask(null);
+
+	private final Map<String, FieldMask> children;
+
+	private FieldMask(Map<String, FieldMask> children) {
+		this.children = children;
+	}
+
+	/**
+	 * Creates a mask selecting the passed key paths.
+	 *
+	 * @param paths The dot-separated key paths to select
+	 * @return The mask
+	 * @throws IllegalArgumentException if a path is empty, or contains an empty key
+	 */
+	public static FieldMask of(String... paths) {
+		List<String[]> keys = new ArrayList<>();
+		for (String path : paths) {
+			if (path == null) {
+				throw new NullPointerException("Paths must not be null!");
+			}
+			String[] pathKeys = path.split("\\.", -1);
+			for (String key : pathKeys) {
+				if (key.isEmpty()) {
+					throw new IllegalArgumentException("The path '" + path + "' contains an empty key.");
+				}
+			}
+			keys.add(pathKeys);
+		}
+		return of(keys, 0);
+	}
+
+	private static FieldMask of(List<String[]> paths, int depth) {
+		Map<String, List<String[]>> rests = new LinkedHashMap<>();
+		for (String[] path : paths) {
+			List<String[]> rest = rests.get(path[depth]);
+			if (rest == null) {
+				rest = new ArrayList<>();
+				rests.put(path[depth], rest);
+			}
+			// A path ending here selects the whole subtree, regardless of longer paths
+			if (path.length == depth + 1) {
+				rest.clear();
+				rest.add(null);
+			}
+			else if (rest.isEmpty() || rest.get(0) != null) {
+				rest.add(path);
+			}
+		}
+		Map<String, FieldMask> children = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String[]>> entry : rests.entrySet()) {
+			List<String[]> rest = entry.getValue();
+			children.put(entry.getKey(), rest.get(0) == null ? ALL : of(rest, depth + 1));
+		}
+		return new FieldMask(Collections.unmodifiableMap(children));
+	}
+
+	/**
+	 * @param key The key to look up
+	 * @return The mask for the value of the key, or `null` if the key is not selected
+	 */
+	FieldMask get(String key) {
+		return children == null ? ALL : children.get(key);
+	}
+
+	/**
+	 * @return Whether this mask selects the whole subtree, including scalar values
+	 */
+	boolean selectsAll() {
+		return children == null;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		List<String> paths = new ArrayList<>();
+		collectPaths("", paths);
+		return "FieldMask " + paths;
+	}
+
+	private void collectPaths(String prefix, List<String> paths) {
+		for (Map.Entry<String, FieldMask> entry : children.entrySet()) {
+			if (entry.getValue() == ALL) {
+				paths.add(prefix + entry.getKey());
+			}
+			else {
+				entry.getValue().collectPaths(prefix + entry.getKey() + ".", paths);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.research_software.citation.cff.exceptions.ReadException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the top-level header keys of software citation metadata, and
+ * stops parsing as early as possible.
+ * 
+ * The probe stops once all header keys have been found, or once it
+ * reaches `references`, and never reads more than a budget of bytes from
+ * the stream. Other top-level values, e.g., `authors`, are skipped.
+ * 
+ * When the budget cuts off the stream, the parser may see a truncated
+ * scalar as a complete one. A header value read while the stream is cut
+ * off is therefore only kept once the parser has reached the next top-level
+ * key, and parse errors at the cut are not reported.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+final class HeaderProbe {
+
+	private static final String[] KEYS = { "cff-version", "title", "version", "doi", "date-released" };
+	private static final String REFERENCES = "references";
+
+	private HeaderProbe() {
+		// Static methods only
+	}
+
+	/**
+	 * Probes a stream for the header keys.
+	 * 
+	 * The stream is not closed.
+	 * 
+	 * @param factory The factory to create the parser with
+	 * @param cffInputStream The stream to probe
+	 * @param byteBudget The maximum number of bytes to read from the stream
+	 * @return The header values found
+	 * @throws ReadException if the stream does not contain a mapping
+	 * @throws IOException if the stream cannot be read or parsed within the budget
+	 */
+	static CitationHeader probe(JsonFactory factory, InputStream cffInputStream, int byteBudget)
+			throws ReadException, IOException {
+		if (byteBudget <= 0) {
+			throw new IllegalArgumentException("Byte budget must be positive (is " + byteBudget + ")!");
+		}
+		BudgetInputStream in = new BudgetInputStream(cffInputStream, byteBudget);
+		String[] values = new String[KEYS.length];
+		int found = 0;
+		int pending = -1;
+		String pendingValue = null;
+		boolean done = false;
+		try (JsonParser parser = factory.createParser(in)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				if (in.isCutOff()) {
+					// The budget ends within the first key
+					return new CitationHeader(null, null, null, null, null, true);
+				}
+				throw new ReadException("The data does not contain software citation metadata.", null);
+			}
+			JsonToken token;
+			while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+				if (pending != -1) {
+					// The pending value is complete, as another key follows it
+					found += keep(values, pending, pendingValue);
+					pending = -1;
+				}
+				String key = parser.getCurrentName();
+				if (found == KEYS.length || key.equals(REFERENCES)) {
+					done = true;
+					break;
+				}
+				int index = indexOf(key);
+				JsonToken value = parser.nextToken();
+				if (index != -1 && value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+					pending = index;
+					pendingValue = parser.getText();
+					if (!in.isCutOff()) {
+						found += keep(values, pending, pendingValue);
+						pending = -1;
+					}
+				}
+				else {
+					parser.skipChildren();
+				}
+			}
+			if (token == JsonToken.END_OBJECT && !in.isCutOff()) {
+				done = true;
+				if (pending != -1) {
+					keep(values, pending, pendingValue);
+				}
+			}
+		}
+		catch (IOException e) {
+			if (!in.isCutOff()) {
+				throw e;
+			}
+		}
+		return new CitationHeader(values[0], values[1], values[2], values[3], values[4],
+				!done && found < KEYS.length);
+	}
+
+	private static int keep(String[] values, int index, String value) {
+		if (values[index] != null) {
+			return 0;
+		}
+		values[index] = value;
+		return 1;
+	}
+
+	private static int indexOf(String key) {
+		for (int i = 0; i < KEYS.length; i++) {
+			if (KEYS[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Ends the stream after a budget of bytes, and records whether data has
+	 * been cut off. Does not close the underlying stream.
+	 */
+	private static final class BudgetInputStream extends InputStream {
+
+		private final InputStream in;
+		private int remaining;
+		private boolean cutOff = false;
+
+		private BudgetInputStream(InputStream in, int budget) {
+			this.in = in;
+			this.remaining = budget;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return endOfBudget();
+			}
+			int b = in.read();
+			if (b != -1) {
+				remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (remaining <= 0) {
+				return endOfBudget();
+			}
+			int read = in.read(bytes, offset, Math.min(length, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+
+		private int endOfBudget() throws IOException {
+			if (!cutOff) {
+				// Only data that exists can be cut off
+				cutOff = in.read() != -1;
+			}
+			return -1;
+		}
+
+		private boolean isCutOff() {
+			return cutOff;
+		}
+
+		@Override
+		public void close() {
+			// The underlying stream is closed by the client
+		}
+
+	}
+
+}
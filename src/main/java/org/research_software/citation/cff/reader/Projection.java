@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.net.MalformedURLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.model.objects.CitationUrl;
+import org.research_software.citation.cff.model.objects.IsoDates;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The values read from software citation metadata in a projected read,
+ * i.e., the values of the key paths selected by a {@link FieldMask}.
+ *
+ * Values are held as they have been read, as strings, and are neither
+ * bound to the model nor validated. Dates and URLs are validated when
+ * they are requested via {@link #getDate(String)} and {@link #getUrl(String)}.
+ *
+ * Values are looked up by the same dot-separated key paths as selected
+ * by a {@link FieldMask}, and sequences are transparent, so that
+ * `authors.family-names` returns the family names of all authors that
+ * have one, in document order.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class Projection {
+
+	private final JsonNode values;
+
+	Projection(JsonNode values) {
+		this.values = values;
+	}
+
+	/**
+	 * @param path The dot-separated key path to look up
+	 * @return Whether there is a non-`null` value at the path
+	 */
+	public boolean has(String path) {
+		return !find(path).isEmpty();
+	}
+
+	/**
+	 * @param path The dot-separated key path to look up
+	 * @return The first scalar value at the path, or `null` if there is none
+	 */
+	public String getString(String path) {
+		List<String> strings = getStrings(path);
+		return strings.isEmpty() ? null : strings.get(0);
+	}
+
+	/**
+	 * @param path The dot-separated key path to look up
+	 * @return All scalar values at the path, in document order
+	 */
+	public List<String> getStrings(String path) {
+		List<String> strings = new ArrayList<>();
+		for (JsonNode node : find(path)) {
+			if (node.isValueNode()) {
+				strings.add(node.asText());
+			}
+		}
+		return strings;
+	}
+
+	/**
+	 * @param path The dot-separated key path to look up
+	 * @return The first scalar value at the path as a date, or `null` if there is none
+	 * @throws InvalidDataException if the value is not a date of the form `YYYY-MM-DD`
+	 */
+	public LocalDate getDate(String path) throws InvalidDataException {
+		String value = getString(path);
+		if (value == null) {
+			return null;
+		}
+		LocalDate date = IsoDates.parse(value);
+		if (date == null) {
+			throw IsoDates.invalidDate("DateTimeException in field '" + path + "'!", value);
+		}
+		return date;
+	}
+
+	/**
+	 * @param path The dot-separated key path to look up
+	 * @return The first scalar value at the path as a URL, or `null` if there is none
+	 * @throws InvalidDataException if the value is not a URL
+	 */
+	public CitationUrl getUrl(String path) throws InvalidDataException {
+		String value = getString(path);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return CitationUrl.parse(value);
+		}
+		catch (MalformedURLException e) {
+			throw new InvalidDataException("The projection contains an invalid URL in field '" + path + "': "
+					+ e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return The projected values as a tree, whose scalars are all text
+	 */
+	public JsonNode getTree() {
+		return values.deepCopy();
+	}
+
+	private List<JsonNode> find(String path) {
+		List<JsonNode> nodes = new ArrayList<>();
+		find(values, path.split("\\."), 0, nodes);
+		return nodes;
+	}
+
+	private static void find(JsonNode node, String[] keys, int index, List<JsonNode> nodes) {
+		if (node == null || node.isNull()) {
+			return;
+		}
+		if (node.isArray()) {
+			for (JsonNode element : node) {
+				find(element, keys, index, nodes);
+			}
+		}
+		else if (index == keys.length) {
+			nodes.add(node);
+		}
+		else if (node.isObject()) {
+			find(node.get(keys[index]), keys, index + 1, nodes);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Projection " + values;
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * The outcome of reading a single `CITATION.cff` file as part of
+ * a batch read.
+ *
+ * A result either holds the software citation metadata that has been
+ * read, or the exception that has been thrown during the read, e.g.,
+ * an {@link InvalidDataException} or a {@link ReadException}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class ReadResult {
+
+	private final String source;
+	private final SoftwareCitationMetadata metadata;
+	private final Exception exception;
+
+	private ReadResult(String source, SoftwareCitationMetadata metadata, Exception exception) {
+		this.source = source;
+		this.metadata = metadata;
+		this.exception = exception;
+	}
+
+	/**
+	 * Creates a result for a successful read.
+	 *
+	 * @param source The source that has been read
+	 * @param metadata The software citation metadata that has been read
+	 * @return The result
+	 */
+	public static ReadResult success(String source, SoftwareCitationMetadata metadata) {
+		return new ReadResult(source, metadata, null);
+	}
+
+	/**
+	 * Creates a result for a failed read.
+	 *
+	 * @param source The source that has been read
+	 * @param exception The exception thrown during the read
+	 * @return The result
+	 */
+	public static ReadResult failure(String source, Exception exception) {
+		if (exception == null) {
+			throw new NullPointerException("The exception of a failed read must not be null!");
+		}
+		return new ReadResult(source, null, exception);
+	}
+
+	/**
+	 * @return The source that has been read, e.g., the path of a file
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return Whether the read has been successful
+	 */
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	/**
+	 * @return The software citation metadata that has been read, or `null` if the read has failed
+	 */
+	public SoftwareCitationMetadata getMetadata() {
+		return metadata;
+	}
+
+	/**
+	 * @return The exception thrown during the read, or `null` if the read has been successful
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ReadResult [source=" + source + ", " + (isSuccess() ? "success" : "failure=" + exception) + "]";
+	}
+
+}
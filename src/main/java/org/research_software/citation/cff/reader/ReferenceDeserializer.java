@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.Subject;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * A custom deserializer for {@link Reference} objects, which binds
+ * references without reflection.
+ * 
+ * The default bean deserializer collects the values of all creator
+ * properties of a reference in a property buffer, and then invokes the
+ * constructor reflectively. This deserializer instead looks up the index
+ * of each key in a single map, reads its value with the deserializer for
+ * the kind of the value, stores it in a plain array, and calls the
+ * constructor directly.
+ * 
+ * Unknown keys are handled as by the bean deserializer, and
+ * {@link InvalidDataException}s thrown by the constructor are wrapped
+ * in a {@link JsonMappingException}, as by the bean deserializer.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+class ReferenceDeserializer extends StdDeserializer<Reference> implements ResolvableDeserializer {
+
+	/**
+	 * The default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The kinds of values of reference keys.
+	 */
+	private enum Kind {
+		STRING, INTEGER, STRINGS, SUBJECTS, ENTITY
+	}
+
+	/**
+	 * The keys of a reference with the kinds of their values, in the
+	 * order of the parameters of the reference constructor.
+	 */
+	private static final Object[] KEYS = {
+			"type", Kind.STRING,
+			"title", Kind.STRING,
+			"authors", Kind.SUBJECTS,
+			"conference", Kind.ENTITY,
+			"abbreviation", Kind.STRING,
+			"abstract", Kind.STRING,
+			"collection-doi", Kind.STRING,
+			"collection-title", Kind.STRING,
+			"collection-type", Kind.STRING,
+			"commit", Kind.STRING,
+			"copyright", Kind.STRING,
+			"data-type", Kind.STRING,
+			"database", Kind.STRING,
+			"date-accessed", Kind.STRING,
+			"date-downloaded", Kind.STRING,
+			"date-released", Kind.STRING,
+			"date-published", Kind.STRING,
+			"department", Kind.STRING,
+			"doi", Kind.STRING,
+			"edition", Kind.STRING,
+			"end", Kind.INTEGER,
+			"entry", Kind.STRING,
+			"filename", Kind.STRING,
+			"format", Kind.STRING,
+			"isbn", Kind.STRING,
+			"issn", Kind.STRING,
+			"issue", Kind.STRING,
+			"issue-date", Kind.STRING,
+			"issue-title", Kind.STRING,
+			"journal", Kind.STRING,
+			"keywords", Kind.STRINGS,
+			"languages", Kind.STRINGS,
+			"license", Kind.STRING,
+			"license-url", Kind.STRING,
+			"loc-start", Kind.INTEGER,
+			"loc-end", Kind.INTEGER,
+			"medium", Kind.STRING,
+			"month", Kind.INTEGER,
+			"nihmsid", Kind.STRING,
+			"notes", Kind.STRING,
+			"number", Kind.STRING,
+			"number-volumes", Kind.INTEGER,
+			"pages", Kind.INTEGER,
+			"patent-states", Kind.STRINGS,
+			"pmcid", Kind.STRING,
+			"repository", Kind.STRING,
+			"repository-code", Kind.STRING,
+			"repository-artifact", Kind.STRING,
+			"scope", Kind.STRING,
+			"section", Kind.STRING,
+			"status", Kind.STRING,
+			"start", Kind.INTEGER,
+			"thesis-type", Kind.STRING,
+			"url", Kind.STRING,
+			"version", Kind.STRING,
+			"volume", Kind.INTEGER,
+			"volume-title", Kind.STRING,
+			"year", Kind.INTEGER,
+			"year-original", Kind.INTEGER,
+			"contact", Kind.SUBJECTS,
+			"database-provider", Kind.ENTITY,
+			"editors", Kind.SUBJECTS,
+			"editors-series", Kind.SUBJECTS,
+			"institution", Kind.ENTITY,
+			"location", Kind.ENTITY,
+			"publisher", Kind.ENTITY,
+			"recipients", Kind.SUBJECTS,
+			"senders", Kind.SUBJECTS,
+			"translators", Kind.SUBJECTS
+	};
+
+	private static final Map<String, Integer> INDICES = new HashMap<>();
+	private static final Kind[] KINDS = new Kind[KEYS.length / 2];
+
+	static {
+		for (int i = 0; i < KINDS.length; i++) {
+			INDICES.put((String) KEYS[2 * i], i);
+			KINDS[i] = (Kind) KEYS[2 * i + 1];
+		}
+	}
+
+	private final JsonDeserializer<?>[] deserializers = new JsonDeserializer<?>[Kind.values().length];
+
+	protected ReferenceDeserializer() {
+		super(Reference.class);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fasterxml.jackson.databind.deser.ResolvableDeserializer#resolve(com.fasterxml.jackson.databind.DeserializationContext)
+	 */
+	@Override
+	public void resolve(DeserializationContext context) throws JsonMappingException {
+		TypeFactory types = context.getTypeFactory();
+		resolve(context, Kind.STRING, types.constructType(String.class));
+		resolve(context, Kind.INTEGER, types.constructType(Integer.class));
+		resolve(context, Kind.STRINGS, types.constructCollectionType(List.class, String.class));
+		resolve(context, Kind.SUBJECTS, types.constructCollectionType(List.class, Subject.class));
+		resolve(context, Kind.ENTITY, types.constructType(Entity.class));
+	}
+
+	private void resolve(DeserializationContext context, Kind kind, JavaType type) throws JsonMappingException {
+		deserializers[kind.ordinal()] = context.findContextualValueDeserializer(type, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fasterxml.jackson.databind.JsonDeserializer#deserialize(com.fasterxml.jackson.core.JsonParser, com.fasterxml.jackson.databind.DeserializationContext)
+	 */
+	@Override
+	public Reference deserialize(JsonParser parser, DeserializationContext context)
+			throws IOException, JsonProcessingException {
+		JsonToken token = parser.getCurrentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = parser.nextToken();
+		}
+		if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+			return (Reference) context.handleUnexpectedToken(Reference.class, parser);
+		}
+		Object[] values = new Object[KINDS.length];
+		for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+			String key = parser.getCurrentName();
+			token = parser.nextToken();
+			Integer index = INDICES.get(key);
+			if (index == null) {
+				context.handleUnknownProperty(parser, this, Reference.class, key);
+				continue;
+			}
+			JsonDeserializer<?> deserializer = deserializers[KINDS[index].ordinal()];
+			values[index] = token == JsonToken.VALUE_NULL ? deserializer.getNullValue(context)
+					: deserializer.deserialize(parser, context);
+		}
+		try {
+			return create(values);
+		}
+		catch (InvalidDataException e) {
+			throw JsonMappingException.from(parser, e.getMessage(), e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fasterxml.jackson.databind.JsonDeserializer#getKnownPropertyNames()
+	 */
+	@Override
+	public Collection<Object> getKnownPropertyNames() {
+		return new ArrayList<Object>(INDICES.keySet());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Reference create(Object[] v) throws InvalidDataException {
+		return new Reference(
+					(String) v[0],
+					(String) v[1],
+					(List<Subject>) v[2],
+					(Entity) v[3],
+					(String) v[4],
+					(String) v[5],
+					(String) v[6],
+					(String) v[7],
+					(String) v[8],
+					(String) v[9],
+					(String) v[10],
+					(String) v[11],
+					(String) v[12],
+					(String) v[13],
+					(String) v[14],
+					(String) v[15],
+					(String) v[16],
+					(String) v[17],
+					(String) v[18],
+					(String) v[19],
+					(Integer) v[20],
+					(String) v[21],
+					(String) v[22],
+					(String) v[23],
+					(String) v[24],
+					(String) v[25],
+					(String) v[26],
+					(String) v[27],
+					(String) v[28],
+					(String) v[29],
+					(List<String>) v[30],
+					(List<String>) v[31],
+					(String) v[32],
+					(String) v[33],
+					(Integer) v[34],
+					(Integer) v[35],
+					(String) v[36],
+					(Integer) v[37],
+					(String) v[38],
+					(String) v[39],
+					(String) v[40],
+					(Integer) v[41],
+					(Integer) v[42],
+					(List<String>) v[43],
+					(String) v[44],
+					(String) v[45],
+					(String) v[46],
+					(String) v[47],
+					(String) v[48],
+					(String) v[49],
+					(String) v[50],
+					(Integer) v[51],
+					(String) v[52],
+					(String) v[53],
+					(String) v[54],
+					(Integer) v[55],
+					(String) v[56],
+					(Integer) v[57],
+					(Integer) v[58],
+					(List<Subject>) v[59],
+					(Entity) v[60],
+					(List<Subject>) v[61],
+					(List<Subject>) v[62],
+					(Entity) v[63],
+					(Entity) v[64],
+					(Entity) v[65],
+					(List<Subject>) v[66],
+					(List<Subject>) v[67],
+					(List<Subject>) v[68]);
+	}
+
+}
@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Reads many `CITATION.cff` files in parallel.
+ *
+ * The batch reader delegates the reads of single files to a
+ * {@link SoftwareCitationMetadataReader}, and runs them on a
+ * client-supplied {@link ExecutorService}, e.g., a {@link ForkJoinPool}.
+ * Results are returned as {@link ReadResult}s in the order in which the
+ * reads complete. A failing read does not stop the batch: its exception is
+ * reported in the respective result instead.
+ *
+ * The number of reads that are submitted to the executor at any one time
+ * is bounded, so that the results of a large batch are streamed back to
+ * the client rather than accumulated in memory.
+ *
+ * The executor is not shut down by the batch reader.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataBatchReader {
+
+	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private final SoftwareCitationMetadataReader reader;
+	private final ExecutorService executor;
+	private final int maxInFlight;
+
+	/**
+	 * Constructor accepting the reader for single files, and the
+	 * executor to run the reads on.
+	 *
+	 * At most four times as many reads as there are available processors
+	 * are submitted to the executor at any one time.
+	 *
+	 * @param reader The reader to delegate the reads of single files to
+	 * @param executor The executor to run the reads on
+	 */
+	public SoftwareCitationMetadataBatchReader(SoftwareCitationMetadataReader reader, ExecutorService executor) {
+		this(reader, executor, 4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor accepting the reader for single files, the
+	 * executor to run the reads on, and the maximum number of reads
+	 * that are submitted to the executor at any one time.
+	 *
+	 * @param reader The reader to delegate the reads of single files to
+	 * @param executor The executor to run the reads on
+	 * @param maxInFlight The maximum number of reads submitted to the executor at any one time
+	 */
+	public SoftwareCitationMetadataBatchReader(SoftwareCitationMetadataReader reader, ExecutorService executor,
+			int maxInFlight) {
+		if (reader == null || executor == null) {
+			throw new NullPointerException("Reader and executor must not be null!");
+		}
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("The maximum number of reads in flight must be positive (is " + maxInFlight + ")!");
+		}
+		this.reader = reader;
+		this.executor = executor;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Walks the directory tree under the passed root directory, and reads
+	 * every file named `CITATION.cff` in it.
+	 *
+	 * The tree is walked as results are requested, and each file is
+	 * submitted for reading as soon as it has been found, so that reads
+	 * overlap with the walk rather than wait for it to finish.
+	 *
+	 * Symbolic links are not followed. Files or directories that cannot be
+	 * visited during the walk are reported as failed results.
+	 *
+	 * @param root The root directory of the tree to read
+	 * @return An iterator over the results, in the order in which the reads complete
+	 * @throws ReadException if the root directory cannot be read
+	 */
+	public Iterator<ReadResult> readTree(Path root) throws ReadException {
+		Deque<ReadResult> ready = new ArrayDeque<>();
+		TreeWalker walker = new TreeWalker(ready);
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+			if (attributes.isDirectory()) {
+				walker.enter(root);
+			}
+			else if (isCffFile(root, attributes)) {
+				walker.next = root;
+			}
+		}
+		catch (IOException | DirectoryIteratorException e) {
+			throw new ReadException("The directory tree under '" + root + "' could not be walked.", e);
+		}
+		return new ResultIterator(walker, ready);
+	}
+
+	/**
+	 * Reads all of the passed `CITATION.cff` files.
+	 *
+	 * @param cffFiles The files to read
+	 * @return An iterator over the results, in the order in which the reads complete
+	 */
+	public Iterator<ReadResult> readAll(Iterable<Path> cffFiles) {
+		return new ResultIterator(cffFiles.iterator(), new ArrayDeque<ReadResult>());
+	}
+
+	private static boolean isCffFile(Path file, BasicFileAttributes attributes) {
+		return attributes.isRegularFile() && file.getFileName().toString().equals(CFF_FILE_NAME);
+	}
+
+	/**
+	 * Reads a single file, and wraps the outcome in a {@link ReadResult}.
+	 * Reads via {@link ExtendedSoftwareCitationMetadataReader#readFromPath(Path)}
+	 * where the reader provides it.
+	 */
+	private ReadResult read(Path cffFile) {
+		try {
+			if (reader instanceof ExtendedSoftwareCitationMetadataReader) {
+				return ReadResult.success(cffFile.toString(),
+						((ExtendedSoftwareCitationMetadataReader) reader).readFromPath(cffFile));
+			}
+			return ReadResult.success(cffFile.toString(), reader.readFromFile(cffFile.toFile()));
+		}
+		catch (Exception e) {
+			return ReadResult.failure(cffFile.toString(), e);
+		}
+	}
+
+	/**
+	 * Iterates over results as they complete, and keeps the executor supplied
+	 * with at most {@link SoftwareCitationMetadataBatchReader#maxInFlight} reads.
+	 */
+	private final class ResultIterator implements Iterator<ReadResult> {
+
+		private final Iterator<Path> pending;
+		private final Deque<ReadResult> ready;
+		private final CompletionService<ReadResult> completionService;
+		private int inFlight = 0;
+
+		private ResultIterator(Iterator<Path> pending, Deque<ReadResult> ready) {
+			this.pending = pending;
+			this.ready = ready;
+			this.completionService = new ExecutorCompletionService<>(executor);
+			while (inFlight < maxInFlight && submitNext()) {
+				// Fill the executor
+			}
+		}
+
+		private boolean submitNext() {
+			if (!pending.hasNext()) {
+				return false;
+			}
+			final Path cffFile = pending.next();
+			completionService.submit(new Callable<ReadResult>() {
+
+				@Override
+				public ReadResult call() {
+					return read(cffFile);
+				}
+			});
+			inFlight++;
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !ready.isEmpty() || inFlight > 0;
+		}
+
+		@Override
+		public ReadResult next() {
+			if (!ready.isEmpty()) {
+				return ready.poll();
+			}
+			if (inFlight == 0) {
+				throw new NoSuchElementException();
+			}
+			try {
+				ReadResult result = completionService.take().get();
+				inFlight--;
+				submitNext();
+				return result;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the next read to complete.", e);
+			}
+			catch (ExecutionException e) {
+				// Reads catch their own exceptions, so this is unexpected
+				throw new IllegalStateException("A read failed unexpectedly.", e.getCause());
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	/**
+	 * Walks a directory tree depth-first, one step per call of
+	 * {@link #hasNext()}, and iterates over the `CITATION.cff` files found.
+	 * Files and directories that cannot be visited are added as failed
+	 * results to the passed queue.
+	 */
+	private static final class TreeWalker implements Iterator<Path> {
+
+		private final Deque<Iterator<Path>> directories = new ArrayDeque<>();
+		private final Deque<ReadResult> failures;
+		private Path next = null;
+
+		private TreeWalker(Deque<ReadResult> failures) {
+			this.failures = failures;
+		}
+
+		/**
+		 * Lists the entries of a directory, which are visited before the
+		 * remaining entries of its parent.
+		 */
+		private void enter(Path directory) throws IOException {
+			List<Path> entries = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (Path entry : stream) {
+					entries.add(entry);
+				}
+			}
+			directories.push(entries.iterator());
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && !directories.isEmpty()) {
+				Iterator<Path> entries = directories.peek();
+				if (!entries.hasNext()) {
+					directories.pop();
+					continue;
+				}
+				Path entry = entries.next();
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+							LinkOption.NOFOLLOW_LINKS);
+					if (attributes.isDirectory()) {
+						enter(entry);
+					}
+					else if (isCffFile(entry, attributes)) {
+						next = entry;
+					}
+				}
+				catch (IOException | DirectoryIteratorException e) {
+					failures.add(ReadResult.failure(entry.toString(),
+							new ReadException("The file or directory could not be visited.", e)));
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public Path next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Path cffFile = next;
+			next = null;
+			return cffFile;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
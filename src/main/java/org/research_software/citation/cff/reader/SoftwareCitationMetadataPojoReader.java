@@ -16,27 +16,108 @@
 package org.research_software.citation.cff.reader;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.research_software.citation.cff.exceptions.BulkMode;
 import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
 import org.research_software.citation.cff.exceptions.InvalidDataException;
 import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.StacklessInvalidDataException;
+import org.research_software.citation.cff.exceptions.StacklessReadException;
 import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Reference;
 import org.research_software.citation.cff.model.objects.Subject;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 /**
  * An POJO-basd implementation of {@link SoftwareCitationMetadataReader}.
+ * 
+ * Each instance builds a single, immutable {@link ObjectReader} on construction,
+ * and re-uses it for all subsequent reads. Instances are thread-safe and
+ * should be shared rather than created per read.
+ * 
+ * In bulk mode, e.g., for linting many files of which a substantial share
+ * is invalid, exceptions are thrown without stack traces. Bulk mode is
+ * enabled for the reading thread via {@link BulkMode} for the duration of
+ * a read, so that the model classes throw {@link StacklessInvalidDataException}s,
+ * which are then passed on as they are, rather than re-created with the
+ * reader's stack trace. The {@link JsonMappingException} with which Jackson
+ * wraps them is still created with a stack trace.
  *
  * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
  * 
  */
-public class SoftwareCitationMetadataPojoReader implements SoftwareCitationMetadataReader {
+public class SoftwareCitationMetadataPojoReader implements ExtendedSoftwareCitationMetadataReader {
 
 	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private static final String READ_FAILED = "The read process failed due to an exception.";
+	/**
+	 * Files of at least this size in bytes are memory-mapped by
+	 * {@link #readFromPath(Path)}. Smaller files are cheaper to read
+	 * into a heap buffer than to map.
+	 */
+	private static final long MAP_THRESHOLD = 1 << 20;
+	private final ObjectReader reader;
+	private final ObjectReader referenceReader;
+	private final boolean bulkMode;
+
+	/**
+	 * Constructs a new reader, including its pre-warmed {@link ObjectReader}.
+	 */
+	public SoftwareCitationMetadataPojoReader() {
+		this(false);
+	}
+
+	/**
+	 * Constructs a new reader, including its pre-warmed {@link ObjectReader},
+	 * optionally in bulk mode.
+	 * 
+	 * @param bulkMode Whether to throw exceptions without stack traces
+	 * @see StacklessInvalidDataException
+	 * @see StacklessReadException
+	 */
+	public SoftwareCitationMetadataPojoReader(boolean bulkMode) {
+		this(bulkMode, false);
+	}
+
+	/**
+	 * Constructs a new reader, including its pre-warmed {@link ObjectReader},
+	 * optionally in bulk mode, and optionally binding references directly.
+	 * 
+	 * When binding references directly, references are bound by a
+	 * hand-written deserializer, which calls the reference constructor
+	 * without reflection. This speeds up reading files with many references.
+	 * 
+	 * @param bulkMode Whether to throw exceptions without stack traces
+	 * @param directReferenceBinding Whether to bind references without reflection
+	 * @see StacklessInvalidDataException
+	 * @see StacklessReadException
+	 */
+	public SoftwareCitationMetadataPojoReader(boolean bulkMode, boolean directReferenceBinding) {
+		this.reader = createReader(directReferenceBinding);
+		this.referenceReader = reader.forType(Reference.class);
+		this.bulkMode = bulkMode;
+	}
 
 	/* (non-Javadoc)
 	 * @see org.research_software.citation.cff.reader.SoftwareCitationMetadataReader#readFromFile(java.io.File)
@@ -46,16 +127,20 @@ public class SoftwareCitationMetadataPojoReader implements SoftwareCitationMetad
 			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
 		}
 		SoftwareCitationMetadata citation = null;
+		boolean previous = BulkMode.setEnabled(bulkMode);
 		try {
-			citation = getMapper().readValue(cffFile, SoftwareCitationMetadata.class);
+			citation = reader.readValue(cffFile);
 		}
 		catch (JsonMappingException e) {
 			if (e.getCause() instanceof InvalidDataException) {
-				throw new InvalidDataException(e.getCause().getMessage(), e.getCause().getCause());
+				throw invalidData((InvalidDataException) e.getCause());
 			}
 		}
 		catch (Exception e) {
-			throw new ReadException("The read process failed due to an exception.", e);
+			throw readFailed(e);
+		}
+		finally {
+			BulkMode.setEnabled(previous);
 		}
 		return citation;
 	}
@@ -65,36 +150,277 @@ public class SoftwareCitationMetadataPojoReader implements SoftwareCitationMetad
 	 */
 	public SoftwareCitationMetadata readFromStream(InputStream cffInputStream) throws ReadException, InvalidDataException {
 		SoftwareCitationMetadata citation = null;
+		boolean previous = BulkMode.setEnabled(bulkMode);
+		try {
+			citation = reader.readValue(cffInputStream);
+		}
+		catch (JsonMappingException e) {
+			if (e.getCause() instanceof InvalidDataException) {
+				throw invalidData((InvalidDataException) e.getCause());
+			}
+		}
+		catch (Exception e) {
+			throw readFailed(e);
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+		return citation;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readFromPath(java.nio.file.Path)
+	 */
+	public SoftwareCitationMetadata readFromPath(Path cffPath) throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+		Path fileName = cffPath.getFileName();
+		if (fileName == null || !fileName.toString().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + fileName + "')!");
+		}
+		ByteBuffer contents;
+		try (FileChannel channel = FileChannel.open(cffPath, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size >= MAP_THRESHOLD) {
+				// Mappings remain valid after the channel has been closed
+				contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			else {
+				contents = ByteBuffer.allocate((int) size);
+				while (contents.hasRemaining() && channel.read(contents) != -1) {
+					// Read until the buffer is full, or the file has been truncated
+				}
+				// Cast, as ByteBuffer overrides flip() covariantly as of Java 9
+				((Buffer) contents).flip();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			throw readFailed(e);
+		}
+		return readFromBuffer(contents);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readFromBuffer(java.nio.ByteBuffer)
+	 */
+	public SoftwareCitationMetadata readFromBuffer(ByteBuffer cffContents) throws InvalidDataException, ReadException {
+		SoftwareCitationMetadata citation = null;
+		boolean previous = BulkMode.setEnabled(bulkMode);
 		try {
-			citation = getMapper().readValue(cffInputStream, SoftwareCitationMetadata.class);
+			if (cffContents.hasArray()) {
+				citation = reader.readValue(cffContents.array(), cffContents.arrayOffset() + cffContents.position(),
+						cffContents.remaining());
+			}
+			else {
+				citation = reader.readValue(new ByteBufferInputStream(cffContents.duplicate()));
+			}
 		}
 		catch (JsonMappingException e) {
 			if (e.getCause() instanceof InvalidDataException) {
-				throw new InvalidDataException(e.getCause().getMessage(), e.getCause().getCause());
+				throw invalidData((InvalidDataException) e.getCause());
 			}
 		}
 		catch (Exception e) {
-			throw new ReadException("The read process failed due to an exception.", e);
+			throw readFailed(e);
+		}
+		finally {
+			BulkMode.setEnabled(previous);
 		}
 		return citation;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readStreamingFromFile(java.io.File)
+	 */
+	public StreamingSoftwareCitationMetadata readStreamingFromFile(File cffFile)
+			throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
+		}
+		boolean previous = BulkMode.setEnabled(bulkMode);
+		try {
+			return StreamingSoftwareCitationMetadataParser.read(reader, referenceReader, cffFile);
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#readStreamingFromStream(java.io.InputStream)
+	 */
+	public StreamingSoftwareCitationMetadata readStreamingFromStream(InputStream cffInputStream)
+			throws InvalidDataException, ReadException {
+		boolean previous = BulkMode.setEnabled(bulkMode);
+		try {
+			return StreamingSoftwareCitationMetadataParser.read(reader, referenceReader, cffInputStream);
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#probeFromFile(java.io.File, int)
+	 */
+	public CitationHeader probeFromFile(File cffFile, int byteBudget) throws InvalidCFFFileNameException, ReadException {
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
+		}
+		try (InputStream in = Files.newInputStream(cffFile.toPath())) {
+			return HeaderProbe.probe(reader.getFactory(), in, byteBudget);
+		}
+		catch (IOException e) {
+			throw readFailed(e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.ExtendedSoftwareCitationMetadataReader#probeFromStream(java.io.InputStream, int)
+	 */
+	public CitationHeader probeFromStream(InputStream cffInputStream, int byteBudget) throws ReadException {
+		try {
+			return HeaderProbe.probe(reader.getFactory(), cffInputStream, byteBudget);
+		}
+		catch (IOException e) {
+			throw readFailed(e);
+		}
+	}
+
+	/**
+	 * Reads only the values of selected key paths from a CFF file.
+	 * 
+	 * @param cffFile The CFF file to read from
+	 * @param mask The key paths to read
+	 * @return The values of the selected key paths
+	 * @throws InvalidCFFFileNameException if the file name is not `CITATION.cff`
+	 * @throws ReadException if the file cannot be read, or does not contain a mapping
+	 * @see #readFromStream(InputStream, FieldMask)
+	 */
+	public Projection readFromFile(File cffFile, FieldMask mask) throws InvalidCFFFileNameException, ReadException {
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
+		}
+		try (JsonParser parser = reader.getFactory().createParser(cffFile)) {
+			return project(parser, mask);
+		}
+		catch (IOException e) {
+			throw readFailed(e);
+		}
+	}
+
 	/**
-	 * Construct the mapper to use for reading the file or stream.
+	 * Reads only the values of selected key paths from a stream.
+	 * 
+	 * All other keys, including whole subtrees such as `references`, are
+	 * skipped by the parser, and are neither bound nor validated. Neither are
+	 * the selected values, which are returned as they have been read, so that
+	 * a projection can be read from files that lack required keys.
+	 * 
+	 * @param cffInputStream The stream to read from
+	 * @param mask The key paths to read
+	 * @return The values of the selected key paths
+	 * @throws ReadException if the stream cannot be read, or does not contain a mapping
+	 */
+	public Projection readFromStream(InputStream cffInputStream, FieldMask mask) throws ReadException {
+		try (JsonParser parser = reader.getFactory().createParser(cffInputStream)) {
+			return project(parser, mask);
+		}
+		catch (IOException e) {
+			throw readFailed(e);
+		}
+	}
+
+	private Projection project(JsonParser parser, FieldMask mask) throws IOException, ReadException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new ReadException("The data does not contain software citation metadata.", null);
+		}
+		return new Projection(project(parser, mask, JsonNodeFactory.instance));
+	}
+
+	/**
+	 * Copies the current value of the parser into a tree, keeping only the
+	 * keys selected by the mask, and skipping all others. Returns `null` for
+	 * scalar values in which the mask selects nested keys.
+	 */
+	private static JsonNode project(JsonParser parser, FieldMask mask, JsonNodeFactory nodes) throws IOException {
+		switch (parser.getCurrentToken()) {
+			case START_OBJECT:
+				ObjectNode object = nodes.objectNode();
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String key = parser.getCurrentName();
+					FieldMask child = mask.get(key);
+					parser.nextToken();
+					if (child == null) {
+						parser.skipChildren();
+					}
+					else {
+						JsonNode value = project(parser, child, nodes);
+						if (value != null) {
+							object.set(key, value);
+						}
+					}
+				}
+				return object;
+			case START_ARRAY:
+				ArrayNode array = nodes.arrayNode();
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					JsonNode element = project(parser, mask, nodes);
+					if (element != null) {
+						array.add(element);
+					}
+				}
+				return array;
+			case VALUE_NULL:
+				return mask.selectsAll() ? nodes.nullNode() : null;
+			default:
+				return mask.selectsAll() ? nodes.textNode(parser.getText()) : null;
+		}
+	}
+
+	/**
+	 * Returns the exception to throw for invalid data found by the model
+	 * classes: the original exception in bulk mode, or else a new one with
+	 * the reader's stack trace.
+	 */
+	private InvalidDataException invalidData(InvalidDataException cause) {
+		if (bulkMode) {
+			return cause;
+		}
+		return new InvalidDataException(cause.getMessage(), cause.getCause());
+	}
+
+	private ReadException readFailed(Exception cause) {
+		if (bulkMode) {
+			return new StacklessReadException(READ_FAILED, cause);
+		}
+		return new ReadException(READ_FAILED, cause);
+	}
+
+	/**
+	 * Construct the reader to use for reading files or streams.
 	 * 
 	 * Attaches a custom deserializer of type {@link SubjectDeserializer} to
-	 * the mapper.
+	 * the underlying mapper, and optionally one of type {@link ReferenceDeserializer},
+	 * and pre-warms the mapper's deserializer cache for the model types, so
+	 * that the first read does not pay for the introspection of the model
+	 * classes.
 	 * 
-	 * @return The constructed mapper
+	 * @param directReferenceBinding Whether to bind references with a {@link ReferenceDeserializer}
+	 * @return The constructed reader
 	 */
-	private ObjectMapper getMapper() {
+	private static ObjectReader createReader(boolean directReferenceBinding) {
 		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
 
 		final SimpleModule module = new SimpleModule();
 		// Add custom deserializer for Subject
 		module.addDeserializer(Subject.class, new SubjectDeserializer());
+		if (directReferenceBinding) {
+			module.addDeserializer(Reference.class, new ReferenceDeserializer());
+		}
 		mapper.registerModule(module);
-		return mapper;
+		// Subjects are bound via the mapper, so resolve their deserializers eagerly
+		mapper.readerFor(Person.class);
+		mapper.readerFor(Entity.class);
+		return mapper.readerFor(SoftwareCitationMetadata.class);
 	}
 
 }
@@ -26,6 +26,11 @@ import org.research_software.citation.cff.model.SoftwareCitationMetadata;
 /**
  * A reader for software citation metadata files in the
  * [Citation File Format](https://citation-file-format.github.io).
+ * 
+ * **Thread safety:** Implementations must be safe for concurrent use by
+ * multiple threads, i.e., a single reader instance can be shared and used
+ * to read any number of files or streams in parallel. Reader instances are
+ * potentially expensive to create, and should be re-used.
  *
  * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
  * 
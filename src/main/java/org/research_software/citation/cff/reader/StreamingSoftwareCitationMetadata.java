@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.UncheckedReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.objects.Reference;
+
+/**
+ * Software citation metadata whose `references` are read lazily,
+ * one at a time, from the underlying parser.
+ *
+ * The top-level metadata is available immediately. Its
+ * {@link SoftwareCitationMetadata#getReferences()} returns `null`.
+ * The references can be read once, in document order, via
+ * {@link #nextReference()}, {@link #referenceIterator()}, or
+ * {@link #references()}. Only the current reference is held in
+ * memory, so memory use does not depend on the number of
+ * references.
+ *
+ * Instances are not thread-safe, and must be closed after use.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public interface StreamingSoftwareCitationMetadata extends Closeable {
+
+	/**
+	 * @return The top-level software citation metadata, without references
+	 */
+	public SoftwareCitationMetadata getMetadata();
+
+	/**
+	 * Reads the next reference.
+	 *
+	 * After an {@link InvalidDataException}, the invalid reference has been
+	 * skipped, and the next call continues with the following reference.
+	 *
+	 * @return The next reference, or `null` if all references have been read
+	 * @throws InvalidDataException on invalid data in the reference
+	 * @throws ReadException on failing read processes
+	 */
+	public Reference nextReference() throws InvalidDataException, ReadException;
+
+	/**
+	 * Returns an iterator over the references that have not been read yet.
+	 *
+	 * Exceptions thrown by {@link #nextReference()} are wrapped
+	 * into an {@link UncheckedReadException}.
+	 *
+	 * @return An iterator over the remaining references
+	 */
+	public Iterator<Reference> referenceIterator();
+
+	/**
+	 * Returns a sequential stream of the references that have not been read yet.
+	 *
+	 * Exceptions thrown by {@link #nextReference()} are wrapped
+	 * into an {@link UncheckedReadException}. Closing the stream
+	 * closes this object.
+	 *
+	 * @return A stream of the remaining references
+	 */
+	public Stream<Reference> references();
+
+}
@@ -0,0 +1,406 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.research_software.citation.cff.exceptions.BulkMode;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.StacklessReadException;
+import org.research_software.citation.cff.exceptions.UncheckedReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.objects.Reference;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Parser-backed implementation of {@link StreamingSoftwareCitationMetadata}.
+ *
+ * When reading from a stream, the top-level keys preceding `references`
+ * are bound to the metadata, and the parser is left positioned at the
+ * start of the `references` sequence. `references` must therefore be the
+ * last key. When reading from a file, the file is parsed twice: once to
+ * bind all top-level keys but `references`, whose value is skipped, and
+ * once to read the references. Keys may be in any order in files.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+final class StreamingSoftwareCitationMetadataParser implements StreamingSoftwareCitationMetadata {
+
+	private static final String REFERENCES = "references";
+	private final JsonParser parser;
+	private final ObjectReader referenceReader;
+	private final SoftwareCitationMetadata metadata;
+	private final boolean referencesLast;
+	private final boolean bulkMode;
+	private boolean done;
+	private ReferenceIterator iterator = null;
+
+	private StreamingSoftwareCitationMetadataParser(JsonParser parser, ObjectReader referenceReader,
+			SoftwareCitationMetadata metadata, boolean referencesLast, boolean hasReferences) {
+		this.parser = parser;
+		this.referenceReader = referenceReader;
+		this.metadata = metadata;
+		this.referencesLast = referencesLast;
+		// Reads run in bulk mode if the metadata has been read in bulk mode
+		this.bulkMode = BulkMode.isEnabled();
+		this.done = !hasReferences;
+	}
+
+	/**
+	 * Reads the top-level metadata from a stream, and leaves the stream
+	 * positioned at the start of the references.
+	 *
+	 * The stream is not closed when the returned object is closed.
+	 *
+	 * @param metadataReader The reader to bind the top-level metadata with
+	 * @param referenceReader The reader to bind references with
+	 * @param cffInputStream The stream to read
+	 * @return The streaming metadata
+	 * @throws InvalidDataException on invalid data in the top-level metadata
+	 * @throws ReadException on failing read processes
+	 */
+	static StreamingSoftwareCitationMetadata read(ObjectReader metadataReader, ObjectReader referenceReader,
+			InputStream cffInputStream) throws InvalidDataException, ReadException {
+		JsonParser parser = null;
+		try {
+			parser = metadataReader.getFactory().createParser(cffInputStream);
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			TokenBuffer buffer = new TokenBuffer(parser);
+			boolean hasReferences = bufferMetadata(parser, buffer, true);
+			SoftwareCitationMetadata metadata = bind(metadataReader, buffer, parser);
+			return new StreamingSoftwareCitationMetadataParser(parser, referenceReader, metadata, true, hasReferences);
+		}
+		catch (IOException e) {
+			closeQuietly(parser);
+			throw readFailed("The read process failed due to an exception.", e);
+		}
+		catch (InvalidDataException | ReadException | RuntimeException e) {
+			closeQuietly(parser);
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the top-level metadata from a file, and opens the file
+	 * a second time to read the references.
+	 *
+	 * @param metadataReader The reader to bind the top-level metadata with
+	 * @param referenceReader The reader to bind references with
+	 * @param cffFile The file to read
+	 * @return The streaming metadata
+	 * @throws InvalidDataException on invalid data in the top-level metadata
+	 * @throws ReadException on failing read processes
+	 */
+	static StreamingSoftwareCitationMetadata read(ObjectReader metadataReader, ObjectReader referenceReader,
+			File cffFile) throws InvalidDataException, ReadException {
+		SoftwareCitationMetadata metadata;
+		try (JsonParser parser = metadataReader.getFactory().createParser(cffFile)) {
+			TokenBuffer buffer = new TokenBuffer(parser);
+			bufferMetadata(parser, buffer, false);
+			metadata = bind(metadataReader, buffer, parser);
+		}
+		catch (IOException e) {
+			throw readFailed("The read process failed due to an exception.", e);
+		}
+		JsonParser parser = null;
+		try {
+			parser = metadataReader.getFactory().createParser(cffFile);
+			boolean hasReferences = skipToReferences(parser);
+			return new StreamingSoftwareCitationMetadataParser(parser, referenceReader, metadata, false, hasReferences);
+		}
+		catch (IOException e) {
+			closeQuietly(parser);
+			throw readFailed("The read process failed due to an exception.", e);
+		}
+		catch (InvalidDataException | RuntimeException e) {
+			closeQuietly(parser);
+			throw e;
+		}
+	}
+
+	/**
+	 * Copies the top-level keys into the buffer. Either stops at the value of `references`,
+	 * or skips it.
+	 *
+	 * @return Whether the parser has been stopped at the start of a `references` sequence
+	 */
+	private static boolean bufferMetadata(JsonParser parser, TokenBuffer buffer, boolean stopAtReferences)
+			throws IOException, InvalidDataException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw BulkMode.invalidData("The citation metadata must be a mapping of keys to values!");
+		}
+		buffer.writeStartObject();
+		for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if (REFERENCES.equals(fieldName)) {
+				if (stopAtReferences) {
+					buffer.writeEndObject();
+					return checkReferences(parser);
+				}
+				parser.skipChildren();
+				continue;
+			}
+			buffer.writeFieldName(fieldName);
+			buffer.copyCurrentStructure(parser);
+		}
+		buffer.writeEndObject();
+		return false;
+	}
+
+	/**
+	 * Skips all top-level keys up to `references`.
+	 *
+	 * @return Whether the parser has been stopped at the start of a `references` sequence
+	 */
+	private static boolean skipToReferences(JsonParser parser) throws IOException, InvalidDataException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw BulkMode.invalidData("The citation metadata must be a mapping of keys to values!");
+		}
+		for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if (REFERENCES.equals(fieldName)) {
+				return checkReferences(parser);
+			}
+			parser.skipChildren();
+		}
+		return false;
+	}
+
+	private static boolean checkReferences(JsonParser parser) throws InvalidDataException {
+		JsonToken token = parser.getCurrentToken();
+		if (token == JsonToken.VALUE_NULL) {
+			return false;
+		}
+		if (token != JsonToken.START_ARRAY) {
+			throw BulkMode.invalidData("'references' must be a sequence of references!");
+		}
+		return true;
+	}
+
+	private static SoftwareCitationMetadata bind(ObjectReader metadataReader, TokenBuffer buffer, JsonParser parser)
+			throws IOException, InvalidDataException, ReadException {
+		try {
+			return metadataReader.readValue(buffer.asParser(parser));
+		}
+		catch (JsonMappingException e) {
+			throw unwrap(e, "The citation metadata could not be read.");
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.StreamingSoftwareCitationMetadata#getMetadata()
+	 */
+	@Override
+	public SoftwareCitationMetadata getMetadata() {
+		return metadata;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.StreamingSoftwareCitationMetadata#nextReference()
+	 */
+	@Override
+	public Reference nextReference() throws InvalidDataException, ReadException {
+		if (done) {
+			return null;
+		}
+		boolean previous = BulkMode.setEnabled(bulkMode);
+		try {
+			return readReference();
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+	}
+
+	private Reference readReference() throws InvalidDataException, ReadException {
+		try {
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.START_OBJECT) {
+				JsonStreamContext references = parser.getParsingContext().getParent();
+				try {
+					return referenceReader.readValue(parser);
+				}
+				catch (JsonMappingException e) {
+					skipTo(references);
+					throw unwrap(e, "The reference could not be read.");
+				}
+			}
+			done = true;
+			if (token != JsonToken.END_ARRAY) {
+				throw BulkMode.invalidData("'references' must be a sequence of references!");
+			}
+			if (referencesLast && parser.nextToken() == JsonToken.FIELD_NAME) {
+				throw readFailed("The key '" + parser.getCurrentName()
+						+ "' follows 'references', which must be the last key when streaming from a stream.", null);
+			}
+			return null;
+		}
+		catch (IOException e) {
+			done = true;
+			throw readFailed("The read process failed due to an exception.", e);
+		}
+	}
+
+	/**
+	 * Skips the rest of a reference that could not be bound, so that the
+	 * next call of {@link #nextReference()} continues with the following
+	 * reference.
+	 */
+	private void skipTo(JsonStreamContext references) throws IOException {
+		while (parser.getParsingContext() != references) {
+			if (parser.nextToken() == null) {
+				done = true;
+				return;
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.StreamingSoftwareCitationMetadata#referenceIterator()
+	 */
+	@Override
+	public Iterator<Reference> referenceIterator() {
+		if (iterator == null) {
+			iterator = new ReferenceIterator();
+		}
+		return iterator;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.reader.StreamingSoftwareCitationMetadata#references()
+	 */
+	@Override
+	public Stream<Reference> references() {
+		Spliterator<Reference> spliterator = Spliterators.spliteratorUnknownSize(referenceIterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					close();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		done = true;
+		parser.close();
+	}
+
+	/**
+	 * Throws the {@link InvalidDataException} that has caused a mapping
+	 * exception, or else returns a {@link ReadException} to throw. In bulk
+	 * mode, the original exception is thrown as is, and the returned one
+	 * has no stack trace.
+	 */
+	private static ReadException unwrap(JsonMappingException e, String message) throws InvalidDataException {
+		if (e.getCause() instanceof InvalidDataException) {
+			InvalidDataException cause = (InvalidDataException) e.getCause();
+			if (BulkMode.isEnabled()) {
+				throw cause;
+			}
+			throw BulkMode.invalidData(cause.getMessage(), cause.getCause());
+		}
+		return readFailed(message, e);
+	}
+
+	/**
+	 * @return The exception to throw for a failed read, without a stack trace in bulk mode
+	 */
+	private static ReadException readFailed(String message, Exception cause) {
+		return BulkMode.isEnabled() ? new StacklessReadException(message, cause) : new ReadException(message, cause);
+	}
+
+	private static void closeQuietly(JsonParser parser) {
+		if (parser != null) {
+			try {
+				parser.close();
+			}
+			catch (IOException e) {
+				// Already failing with another exception
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the remaining references, reading one ahead.
+	 */
+	private final class ReferenceIterator implements Iterator<Reference> {
+
+		private Reference next = null;
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				try {
+					next = nextReference();
+				}
+				catch (InvalidDataException e) {
+					throw new UncheckedReadException(e);
+				}
+				catch (ReadException e) {
+					throw new UncheckedReadException(e);
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public Reference next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Reference reference = next;
+			next = null;
+			return reference;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -23,10 +23,14 @@ import org.research_software.citation.cff.model.objects.Subject;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 /**
  * A custom deserializer for {@link Subject} objects, which
@@ -35,16 +39,25 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
  * The deserializer decides this based on the presence of the
  * field `name`, which is present in {@link Entity} objects but
  * not in {@link Person} objects.
+ * 
+ * The decision is made in a single pass over the fields of the
+ * object: Fields that precede `name` are buffered as tokens, and
+ * replayed to the bean deserializer of the chosen type, followed by
+ * the remaining fields, which are read directly from the parser.
+ * No intermediate tree is built.
  *
  * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
  * 
  */
-class SubjectDeserializer extends StdDeserializer<Subject> {
+class SubjectDeserializer extends StdDeserializer<Subject> implements ResolvableDeserializer {
 
 	/**
 	 * The default serial version UID.
 	 */
 	private static final long serialVersionUID = 1L;
+	private static final String ENTITY_FIELD_NAME = "name";
+	private JsonDeserializer<Object> personDeserializer;
+	private JsonDeserializer<Object> entityDeserializer;
 
 	protected SubjectDeserializer() {
 		this(null);
@@ -54,20 +67,49 @@ class SubjectDeserializer extends StdDeserializer<Subject> {
 		super(vc);
 	}
 
+	/* (non-Javadoc)
+	 * @see com.fasterxml.jackson.databind.deser.ResolvableDeserializer#resolve(com.fasterxml.jackson.databind.DeserializationContext)
+	 */
+	@Override
+	public void resolve(DeserializationContext context) throws JsonMappingException {
+		personDeserializer = context.findRootValueDeserializer(context.constructType(Person.class));
+		entityDeserializer = context.findRootValueDeserializer(context.constructType(Entity.class));
+	}
+
 	/* (non-Javadoc)
 	 * @see com.fasterxml.jackson.databind.JsonDeserializer#deserialize(com.fasterxml.jackson.core.JsonParser, com.fasterxml.jackson.databind.DeserializationContext)
 	 */
 	@Override
 	public Subject deserialize(JsonParser parser, DeserializationContext context)
 			throws IOException, JsonProcessingException {
-		final JsonNode node = parser.getCodec().readTree(parser);
-		final ObjectMapper mapper = (ObjectMapper) parser.getCodec();
-		if (node.has("name")) {
-			return mapper.treeToValue(node, Entity.class);
+		JsonToken token = parser.getCurrentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = parser.nextToken();
+		}
+		if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+			return (Subject) context.handleUnexpectedToken(Subject.class, parser);
 		}
-		else {
-			return mapper.treeToValue(node, Person.class);
+		final TokenBuffer buffer = new TokenBuffer(parser, context);
+		buffer.writeStartObject();
+		for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+			final String fieldName = parser.getCurrentName();
+			if (ENTITY_FIELD_NAME.equals(fieldName)) {
+				/*
+				 * The parser is positioned on the field name, so that the
+				 * sequence continues with it once the buffer is exhausted.
+				 */
+				final JsonParser sequence = JsonParserSequence.createFlattened(true, buffer.asParser(parser), parser);
+				sequence.nextToken();
+				return (Subject) entityDeserializer.deserialize(sequence, context);
+			}
+			buffer.writeFieldName(fieldName);
+			parser.nextToken();
+			buffer.copyCurrentStructure(parser);
 		}
+		buffer.writeEndObject();
+		final JsonParser bufferParser = buffer.asParser(parser);
+		bufferParser.nextToken();
+		return (Subject) personDeserializer.deserialize(bufferParser, context);
 	}
 
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that run each task on a thread of its own, on
+ * virtual threads where the JVM provides them.
+ *
+ * The library is compiled for Java 7, so virtual threads (Java 21)
+ * are looked up reflectively. On older JVMs, there is no fallback, as a
+ * pool of platform threads would start one thread per read in flight.
+ * Check {@link #isVirtualThreadAvailable()} first, and use a bounded
+ * pool otherwise.
+ *
+ * Combined with {@link SoftwareCitationMetadataBatchReader}, whose maximum
+ * number of reads in flight bounds the concurrency, every read of a
+ * `CITATION.cff` file gets its own virtual thread, e.g., to saturate
+ * slow, network-mounted storage:
+ *
+ * ```java
+ * ExecutorService executor = ThreadPerTaskExecutors.isVirtualThreadAvailable()
+ * 		? ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor()
+ * 		: Executors.newFixedThreadPool(16);
+ * SoftwareCitationMetadataBatchReader batchReader =
+ * 		new SoftwareCitationMetadataBatchReader(reader, executor, 1000);
+ * ```
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class ThreadPerTaskExecutors {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+	private ThreadPerTaskExecutors() {
+		// Static utility
+	}
+
+	/**
+	 * @return Whether the JVM provides virtual threads
+	 */
+	public static boolean isVirtualThreadAvailable() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for each task.
+	 *
+	 * The executor must be shut down by the client.
+	 *
+	 * @return The new executor
+	 * @throws UnsupportedOperationException if the JVM does not provide virtual threads
+	 * @see #isVirtualThreadAvailable()
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+			throw new UnsupportedOperationException("Virtual threads require Java 21 or later (running on Java "
+					+ System.getProperty("java.specification.version") + ")!");
+		}
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		}
+		catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("Could not create a virtual thread per task executor!", e);
+		}
+	}
+
+	private static Method findVirtualThreadFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}
+		catch (NoSuchMethodException | SecurityException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The keys defined for the objects in software citation metadata,
+ * the kinds of their values, and which of them are required.
+ *
+ * Mirrors the constraints enforced by the model classes when reading.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+final class Schema {
+
+	/**
+	 * The kinds of values a key can have.
+	 */
+	enum Kind {
+		/** Any scalar value */
+		STRING,
+		/** An integer, or a string representation of it */
+		INTEGER,
+		/** A sequence of scalar values */
+		STRING_LIST,
+		/** A date of the form `YYYY-MM-DD` */
+		DATE,
+		/** A URL */
+		URL,
+		/** An ORCID URL */
+		ORCID,
+		/** An ISO 3166-1 alpha-2 code */
+		COUNTRY,
+		/** A sequence of ISO 639-1 or ISO 639-3 codes */
+		LANGUAGES,
+		/** A reference type */
+		REFERENCE_TYPE,
+		/** A reference status */
+		REFERENCE_STATUS,
+		/** The supported CFF version */
+		CFF_VERSION,
+		/** A sequence of persons or entities */
+		SUBJECTS,
+		/** An entity */
+		ENTITY,
+		/** A sequence of references */
+		REFERENCES
+	}
+
+	/**
+	 * The top-level software citation metadata.
+	 */
+	static final Schema TOP;
+	/**
+	 * A reference.
+	 */
+	static final Schema REFERENCE;
+	/**
+	 * A person.
+	 */
+	static final Schema PERSON;
+	/**
+	 * An entity.
+	 */
+	static final Schema ENTITY;
+
+	static {
+		TOP = new Schema(keys(
+				"cff-version", Kind.CFF_VERSION,
+				"message", Kind.STRING,
+				"authors", Kind.SUBJECTS,
+				"date-released", Kind.DATE,
+				"title", Kind.STRING,
+				"version", Kind.STRING,
+				"abstract", Kind.STRING,
+				"commit", Kind.STRING,
+				"contact", Kind.SUBJECTS,
+				"doi", Kind.STRING,
+				"keywords", Kind.STRING_LIST,
+				"license", Kind.STRING,
+				"license-url", Kind.URL,
+				"repository", Kind.URL,
+				"repository-code", Kind.URL,
+				"repository-artifact", Kind.URL,
+				"url", Kind.URL,
+				"references", Kind.REFERENCES),
+				set("cff-version", "message", "authors", "date-released", "title", "version"),
+				set());
+		REFERENCE = new Schema(keys(
+				"type", Kind.REFERENCE_TYPE,
+				"title", Kind.STRING,
+				"authors", Kind.SUBJECTS,
+				"conference", Kind.ENTITY,
+				"abbreviation", Kind.STRING,
+				"abstract", Kind.STRING,
+				"collection-doi", Kind.STRING,
+				"collection-title", Kind.STRING,
+				"collection-type", Kind.STRING,
+				"commit", Kind.STRING,
+				"copyright", Kind.STRING,
+				"data-type", Kind.STRING,
+				"database", Kind.STRING,
+				"date-accessed", Kind.DATE,
+				"date-downloaded", Kind.DATE,
+				"date-released", Kind.DATE,
+				"date-published", Kind.DATE,
+				"department", Kind.STRING,
+				"doi", Kind.STRING,
+				"edition", Kind.STRING,
+				"end", Kind.INTEGER,
+				"entry", Kind.STRING,
+				"filename", Kind.STRING,
+				"format", Kind.STRING,
+				"isbn", Kind.STRING,
+				"issn", Kind.STRING,
+				"issue", Kind.STRING,
+				"issue-date", Kind.STRING,
+				"issue-title", Kind.STRING,
+				"journal", Kind.STRING,
+				"keywords", Kind.STRING_LIST,
+				"languages", Kind.LANGUAGES,
+				"license", Kind.STRING,
+				"license-url", Kind.URL,
+				"loc-start", Kind.INTEGER,
+				"loc-end", Kind.INTEGER,
+				"medium", Kind.STRING,
+				"month", Kind.INTEGER,
+				"nihmsid", Kind.STRING,
+				"notes", Kind.STRING,
+				"number", Kind.STRING,
+				"number-volumes", Kind.INTEGER,
+				"pages", Kind.INTEGER,
+				"patent-states", Kind.STRING_LIST,
+				"pmcid", Kind.STRING,
+				"repository", Kind.URL,
+				"repository-code", Kind.URL,
+				"repository-artifact", Kind.URL,
+				"scope", Kind.STRING,
+				"section", Kind.STRING,
+				"status", Kind.REFERENCE_STATUS,
+				"start", Kind.INTEGER,
+				"thesis-type", Kind.STRING,
+				"url", Kind.URL,
+				"version", Kind.STRING,
+				"volume", Kind.INTEGER,
+				"volume-title", Kind.STRING,
+				"year", Kind.INTEGER,
+				"year-original", Kind.INTEGER,
+				"contact", Kind.SUBJECTS,
+				"database-provider", Kind.ENTITY,
+				"editors", Kind.SUBJECTS,
+				"editors-series", Kind.SUBJECTS,
+				"institution", Kind.ENTITY,
+				"location", Kind.ENTITY,
+				"publisher", Kind.ENTITY,
+				"recipients", Kind.SUBJECTS,
+				"senders", Kind.SUBJECTS,
+				"translators", Kind.SUBJECTS),
+				set("type", "title", "authors"),
+				set("authors"));
+		PERSON = new Schema(subjectKeys(
+				"family-names", Kind.STRING,
+				"given-names", Kind.STRING,
+				"name-particle", Kind.STRING,
+				"name-suffix", Kind.STRING,
+				"affiliation", Kind.STRING),
+				set("family-names", "given-names"),
+				set());
+		ENTITY = new Schema(subjectKeys(
+				"name", Kind.STRING,
+				"date-start", Kind.DATE,
+				"date-end", Kind.DATE,
+				"location", Kind.STRING),
+				set("name"),
+				set());
+	}
+
+	private final Map<String, Kind> keys;
+	private final Set<String> required;
+	private final Set<String> nonEmpty;
+
+	private Schema(Map<String, Kind> keys, Set<String> required, Set<String> nonEmpty) {
+		this.keys = Collections.unmodifiableMap(keys);
+		this.required = required;
+		this.nonEmpty = nonEmpty;
+	}
+
+	/**
+	 * @param key The key to look up
+	 * @return The kind of value for the key, or `null` if the key is not defined
+	 */
+	Kind getKind(String key) {
+		return keys.get(key);
+	}
+
+	/**
+	 * @return All defined keys, mapped to the kinds of their values, in specification order
+	 */
+	Map<String, Kind> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * @return The keys that must be present with a non-`null` value
+	 */
+	Set<String> getRequired() {
+		return required;
+	}
+
+	/**
+	 * @param key The required key to check
+	 * @return Whether the value of the required key must also not be an empty sequence
+	 */
+	boolean mustNotBeEmpty(String key) {
+		return nonEmpty.contains(key);
+	}
+
+	private static Map<String, Kind> subjectKeys(Object... keysAndKinds) {
+		Map<String, Kind> keys = keys(keysAndKinds);
+		keys.putAll(keys(
+				"address", Kind.STRING,
+				"city", Kind.STRING,
+				"region", Kind.STRING,
+				"post-code", Kind.STRING,
+				"country", Kind.COUNTRY,
+				"orcid", Kind.ORCID,
+				"email", Kind.STRING,
+				"tel", Kind.STRING,
+				"fax", Kind.STRING,
+				"website", Kind.URL));
+		return keys;
+	}
+
+	private static Map<String, Kind> keys(Object... keysAndKinds) {
+		Map<String, Kind> keys = new LinkedHashMap<>();
+		for (int i = 0; i < keysAndKinds.length; i += 2) {
+			keys.put((String) keysAndKinds[i], (Kind) keysAndKinds[i + 1]);
+		}
+		return keys;
+	}
+
+	private static Set<String> set(String... keys) {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+	}
+
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.objects.CitationUrl;
+import org.research_software.citation.cff.model.objects.IsoDates;
+import org.research_software.citation.cff.model.objects.OrcidValidator;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.Subject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Validates software citation metadata in a single pass, and
+ * collects all violations rather than failing on the first one.
+ *
+ * Where the readers in package `org.research_software.citation.cff.reader`
+ * throw an {@link org.research_software.citation.cff.exceptions.InvalidDataException}
+ * for the first invalid field, this validator checks the complete
+ * document against the same rules, and reports each violation with
+ * the path to the offending key, e.g., `references[12].authors[3].orcid`.
+ *
+ * Instances are thread-safe.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataValidator {
+
+	private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
+	/**
+	 * Validates the software citation metadata in a file.
+	 *
+	 * @param cffFile The file to validate
+	 * @return The report listing all violations
+	 * @throws ReadException on failing read processes
+	 */
+	public ValidationReport validate(File cffFile) throws ReadException {
+		JsonNode root;
+		try {
+			root = mapper.readTree(cffFile);
+		}
+		catch (JsonProcessingException e) {
+			return syntaxError(e);
+		}
+		catch (IOException e) {
+			throw new ReadException("The read process failed due to an exception.", e);
+		}
+		return validate(root);
+	}
+
+	/**
+	 * Validates the software citation metadata in a stream.
+	 *
+	 * @param cffInputStream The stream to validate
+	 * @return The report listing all violations
+	 * @throws ReadException on failing read processes
+	 */
+	public ValidationReport validate(InputStream cffInputStream) throws ReadException {
+		JsonNode root;
+		try {
+			root = mapper.readTree(cffInputStream);
+		}
+		catch (JsonProcessingException e) {
+			return syntaxError(e);
+		}
+		catch (IOException e) {
+			throw new ReadException("The read process failed due to an exception.", e);
+		}
+		return validate(root);
+	}
+
+	private static ValidationReport validate(JsonNode root) {
+		Walker walker = new Walker();
+		if (root == null || root.isMissingNode()) {
+			walker.report(ViolationType.INVALID_TYPE, null, "The citation metadata must be a mapping of keys to values");
+		}
+		else {
+			walker.walkObject(root, Schema.TOP);
+		}
+		return new ValidationReport(walker.violations);
+	}
+
+	private static ValidationReport syntaxError(JsonProcessingException e) {
+		List<Violation> violations = new ArrayList<>(1);
+		violations.add(new Violation(ViolationType.SYNTAX_ERROR, "", null, e.getOriginalMessage()));
+		return new ValidationReport(violations);
+	}
+
+	/**
+	 * Walks the tree of a single document, tracking the path
+	 * to the current node. Paths are only rendered into strings
+	 * when a violation is reported.
+	 */
+	private static final class Walker {
+
+		private final List<Violation> violations = new ArrayList<>();
+		private final List<Object> path = new ArrayList<>();
+
+		private void walkObject(JsonNode node, Schema schema) {
+			if (!node.isObject()) {
+				report(ViolationType.INVALID_TYPE, node, "Expected a mapping of keys to values");
+				return;
+			}
+			for (Iterator<Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+				Entry<String, JsonNode> field = fields.next();
+				path.add(field.getKey());
+				Schema.Kind kind = schema.getKind(field.getKey());
+				if (kind == null) {
+					report(ViolationType.UNKNOWN_KEY, null, null);
+				}
+				else if (!field.getValue().isNull()) {
+					walkValue(field.getValue(), kind);
+				}
+				path.remove(path.size() - 1);
+			}
+			for (String key : schema.getRequired()) {
+				JsonNode value = node.get(key);
+				if (value == null || value.isNull()
+						|| (schema.mustNotBeEmpty(key) && value.isArray() && value.size() == 0)) {
+					path.add(key);
+					report(ViolationType.MISSING_KEY, null, null);
+					path.remove(path.size() - 1);
+				}
+			}
+		}
+
+		private void walkValue(JsonNode node, Schema.Kind kind) {
+			switch (kind) {
+			case STRING:
+				checkScalar(node);
+				break;
+			case INTEGER:
+				if (!node.isIntegralNumber() && !(node.isTextual() && isInteger(node.asText()))) {
+					report(ViolationType.INVALID_TYPE, node, "Expected an integer");
+				}
+				break;
+			case STRING_LIST:
+				if (checkSequence(node)) {
+					for (int i = 0; i < node.size(); i++) {
+						path.add(i);
+						checkScalar(node.get(i));
+						path.remove(path.size() - 1);
+					}
+				}
+				break;
+			case DATE:
+				if (checkScalar(node) && !IsoDates.isValid(node.asText())) {
+					report(ViolationType.INVALID_DATE, node, null);
+				}
+				break;
+			case URL:
+				if (checkScalar(node)) {
+					try {
+						CitationUrl.parse(node.asText());
+					}
+					catch (MalformedURLException e) {
+						report(ViolationType.INVALID_URL, node, e.getMessage());
+					}
+				}
+				break;
+			case ORCID:
+				if (checkScalar(node)) {
+					if (!OrcidValidator.isWellFormedUrl(node.asText())) {
+						report(ViolationType.INVALID_ORCID, node, null);
+					}
+					else if (!OrcidValidator.isValid(node.asText())) {
+						report(ViolationType.INVALID_ORCID, node, "invalid check digit");
+					}
+				}
+				break;
+			case COUNTRY:
+				if (checkScalar(node) && !Subject.isValidCountry(node.asText())) {
+					report(ViolationType.INVALID_COUNTRY, node, null);
+				}
+				break;
+			case LANGUAGES:
+				if (checkSequence(node)) {
+					for (int i = 0; i < node.size(); i++) {
+						path.add(i);
+						JsonNode language = node.get(i);
+						if (checkScalar(language) && !Reference.isValidLanguage(language.asText())) {
+							report(ViolationType.INVALID_LANGUAGE, language, null);
+						}
+						path.remove(path.size() - 1);
+					}
+				}
+				break;
+			case REFERENCE_TYPE:
+				if (checkScalar(node) && !Reference.isValidType(node.asText())) {
+					report(ViolationType.INVALID_REFERENCE_TYPE, node, null);
+				}
+				break;
+			case REFERENCE_STATUS:
+				if (checkScalar(node) && !Reference.isValidStatus(node.asText())) {
+					report(ViolationType.INVALID_REFERENCE_STATUS, node, null);
+				}
+				break;
+			case CFF_VERSION:
+				if (checkScalar(node) && !SoftwareCitationMetadata.CFF_VERSION.equals(node.asText())) {
+					report(ViolationType.INVALID_CFF_VERSION, node, "Must be " + SoftwareCitationMetadata.CFF_VERSION);
+				}
+				break;
+			case SUBJECTS:
+				if (checkSequence(node)) {
+					for (int i = 0; i < node.size(); i++) {
+						path.add(i);
+						JsonNode subject = node.get(i);
+						// Mirrors SubjectDeserializer: subjects with a name are entities
+						walkObject(subject, subject.has("name") ? Schema.ENTITY : Schema.PERSON);
+						path.remove(path.size() - 1);
+					}
+				}
+				break;
+			case ENTITY:
+				walkObject(node, Schema.ENTITY);
+				break;
+			case REFERENCES:
+				if (checkSequence(node)) {
+					for (int i = 0; i < node.size(); i++) {
+						path.add(i);
+						walkObject(node.get(i), Schema.REFERENCE);
+						path.remove(path.size() - 1);
+					}
+				}
+				break;
+			default:
+				throw new IllegalStateException("Unhandled kind of value: " + kind);
+			}
+		}
+
+		private boolean checkScalar(JsonNode node) {
+			if (!node.isValueNode()) {
+				report(ViolationType.INVALID_TYPE, node, "Expected a scalar value");
+				return false;
+			}
+			return true;
+		}
+
+		private boolean checkSequence(JsonNode node) {
+			if (!node.isArray()) {
+				report(ViolationType.INVALID_TYPE, node, "Expected a sequence");
+				return false;
+			}
+			return true;
+		}
+
+		private void report(ViolationType type, JsonNode node, String detail) {
+			String value = node != null && node.isValueNode() ? node.asText() : null;
+			violations.add(new Violation(type, renderPath(), value, detail));
+		}
+
+		private String renderPath() {
+			StringBuilder builder = new StringBuilder();
+			for (Object segment : path) {
+				if (segment instanceof Integer) {
+					builder.append('[').append(segment).append(']');
+				}
+				else {
+					if (builder.length() > 0) {
+						builder.append('.');
+					}
+					builder.append(segment);
+				}
+			}
+			return builder.toString();
+		}
+
+		private static boolean isInteger(String value) {
+			try {
+				Integer.parseInt(value.trim());
+				return true;
+			}
+			catch (NumberFormatException e) {
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of validating software citation metadata, listing
+ * all violations found in the document in document order.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class ValidationReport {
+
+	private final List<Violation> violations;
+
+	/**
+	 * Constructor setting the violations.
+	 *
+	 * @param violations The violations found in the document
+	 */
+	public ValidationReport(List<Violation> violations) {
+		this.violations = Collections.unmodifiableList(new ArrayList<>(violations));
+	}
+
+	/**
+	 * @return Whether the document is free of violations
+	 */
+	public boolean isValid() {
+		return violations.isEmpty();
+	}
+
+	/**
+	 * @return An unmodifiable list of all violations, in document order
+	 */
+	public List<Violation> getViolations() {
+		return violations;
+	}
+
+	/**
+	 * @param type The type of violations to return
+	 * @return All violations of the given type, in document order
+	 */
+	public List<Violation> getViolations(ViolationType type) {
+		List<Violation> result = new ArrayList<>();
+		for (Violation violation : violations) {
+			if (violation.getType() == type) {
+				result.add(violation);
+			}
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		if (violations.isEmpty()) {
+			return "No violations.";
+		}
+		StringBuilder builder = new StringBuilder();
+		builder.append(violations.size()).append(violations.size() == 1 ? " violation:" : " violations:");
+		for (Violation violation : violations) {
+			builder.append(System.lineSeparator()).append(violation.getMessage());
+		}
+		return builder.toString();
+	}
+
+}
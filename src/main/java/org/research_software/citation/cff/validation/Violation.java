@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+/**
+ * A single violation of the rules for software citation metadata,
+ * found at a specific location in the document.
+ *
+ * The human-readable message is only built when it is requested.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public final class Violation {
+
+	private final ViolationType type;
+	private final String path;
+	private final String value;
+	private final String detail;
+
+	/**
+	 * Constructor setting all fields.
+	 *
+	 * @param type The violated rule
+	 * @param path The path to the offending key, e.g., `references[12].authors[3].orcid`
+	 * @param value The offending value, or `null` if no value is available
+	 * @param detail Additional detail on the violation, or `null`
+	 */
+	public Violation(ViolationType type, String path, String value, String detail) {
+		this.type = type;
+		this.path = path;
+		this.value = value;
+		this.detail = detail;
+	}
+
+	/**
+	 * @return The violated rule
+	 */
+	public ViolationType getType() {
+		return type;
+	}
+
+	/**
+	 * @return The path to the offending key, e.g., `references[12].authors[3].orcid`,
+	 * or the empty string for the document itself
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return The offending value, or `null` if no value is available, e.g., for missing keys
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * @return Additional detail on the violation, or `null`
+	 */
+	public String getDetail() {
+		return detail;
+	}
+
+	/**
+	 * @return A human-readable message describing the violation
+	 */
+	public String getMessage() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(path.isEmpty() ? "<document>" : path).append(": ").append(type.getDescription());
+		if (value != null) {
+			builder.append(" ('").append(value).append("')");
+		}
+		if (detail != null) {
+			builder.append(": ").append(detail);
+		}
+		return builder.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getMessage();
+	}
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+/**
+ * The rules that software citation metadata can violate.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public enum ViolationType {
+
+	/**
+	 * The document is not well-formed YAML.
+	 */
+	SYNTAX_ERROR("The document is not well-formed YAML"),
+
+	/**
+	 * A required key is missing, or its value is `null` or empty.
+	 */
+	MISSING_KEY("A required key is missing, or its value is empty"),
+
+	/**
+	 * A key is not defined for the object.
+	 */
+	UNKNOWN_KEY("The key is not defined in the CFF format specifications"),
+
+	/**
+	 * A value has the wrong type, e.g., a mapping where a sequence is expected.
+	 */
+	INVALID_TYPE("The value has the wrong type"),
+
+	/**
+	 * The value of `cff-version` is not the supported version.
+	 */
+	INVALID_CFF_VERSION("The value is not the supported CFF version"),
+
+	/**
+	 * A date is not of the form `YYYY-MM-DD`.
+	 */
+	INVALID_DATE("The value is not a valid date"),
+
+	/**
+	 * A URL is malformed.
+	 */
+	INVALID_URL("The value is not a valid URL"),
+
+	/**
+	 * An ORCID iD is not a valid ORCID URL.
+	 */
+	INVALID_ORCID("The value is not a valid ORCID URL"),
+
+	/**
+	 * A country is not an ISO 3166-1 alpha-2 code.
+	 */
+	INVALID_COUNTRY("The value is not a valid ISO 3166-1 alpha-2 code"),
+
+	/**
+	 * A language is not an ISO 639-1 or ISO 639-3 code.
+	 */
+	INVALID_LANGUAGE("The value is not a valid ISO 639-1 or 639-3 code"),
+
+	/**
+	 * A reference type is not defined in the format specifications.
+	 */
+	INVALID_REFERENCE_TYPE("The value is not a reference type defined in the CFF format specifications"),
+
+	/**
+	 * A reference status is not defined in the format specifications.
+	 */
+	INVALID_REFERENCE_STATUS("The value is not a reference status defined in the CFF format specifications");
+
+	private final String description;
+
+	private ViolationType(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * @return A description of the rule
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+}
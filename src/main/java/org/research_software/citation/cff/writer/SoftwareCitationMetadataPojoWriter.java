@@ -0,0 +1,364 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.WriteException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues;
+import org.research_software.citation.cff.model.objects.CitationUrl;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.Subject;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * A {@link JsonGenerator}-based implementation of {@link SoftwareCitationMetadataWriter}.
+ * 
+ * The metadata, its subjects and its references are streamed directly
+ * to the generator, without building intermediate trees or strings.
+ * Keys are written in canonical order, i.e., in the order of the
+ * [format specifications](https://citation-file-format.github.io/),
+ * starting with the required keys. Keys without values are omitted.
+ * 
+ * By default, YAML is written. JSON, or YAML with other settings, is
+ * written when a respective {@link JsonFactory} is passed on construction.
+ * Generators for many documents can also be reused via
+ * {@link #write(SoftwareCitationMetadata, JsonGenerator)}, e.g., to write
+ * a YAML stream of many documents, or a JSON array.
+ * 
+ * Instances are thread-safe and should be shared rather than created
+ * per write.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public class SoftwareCitationMetadataPojoWriter implements SoftwareCitationMetadataWriter {
+
+	private static final String CFF_FILE_NAME = "CITATION.cff";
+	private static final String WRITE_FAILED = "The write process failed due to an exception.";
+	private final JsonFactory factory;
+
+	/**
+	 * Constructs a new writer, which writes YAML.
+	 */
+	public SoftwareCitationMetadataPojoWriter() {
+		this(new YAMLFactory());
+	}
+
+	/**
+	 * Constructs a new writer, which writes the format of the passed factory,
+	 * e.g., JSON for a plain {@link JsonFactory}.
+	 * 
+	 * @param factory The factory to create generators with
+	 */
+	public SoftwareCitationMetadataPojoWriter(JsonFactory factory) {
+		if (factory == null) {
+			throw new NullPointerException("Factory must not be null!");
+		}
+		this.factory = factory;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.writer.SoftwareCitationMetadataWriter#writeToFile(org.research_software.citation.cff.model.SoftwareCitationMetadata, java.io.File)
+	 */
+	@Override
+	public void writeToFile(SoftwareCitationMetadata metadata, File cffFile) throws InvalidCFFFileNameException, WriteException {
+		if (!cffFile.getName().equals(CFF_FILE_NAME)) {
+			throw new InvalidCFFFileNameException("File name of CFF file must be '" + CFF_FILE_NAME + "' (is '" + cffFile.getName() + "')!");
+		}
+		try (JsonGenerator generator = factory.createGenerator(cffFile, JsonEncoding.UTF8)) {
+			write(metadata, generator);
+		}
+		catch (IOException e) {
+			throw new WriteException(WRITE_FAILED, e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.writer.SoftwareCitationMetadataWriter#writeToStream(org.research_software.citation.cff.model.SoftwareCitationMetadata, java.io.OutputStream)
+	 */
+	@Override
+	public void writeToStream(SoftwareCitationMetadata metadata, OutputStream cffOutputStream) throws WriteException {
+		try (JsonGenerator generator = factory.createGenerator(cffOutputStream, JsonEncoding.UTF8)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			write(metadata, generator);
+		}
+		catch (IOException e) {
+			throw new WriteException(WRITE_FAILED, e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.research_software.citation.cff.writer.SoftwareCitationMetadataWriter#writeToWriter(org.research_software.citation.cff.model.SoftwareCitationMetadata, java.io.Writer)
+	 */
+	@Override
+	public void writeToWriter(SoftwareCitationMetadata metadata, Writer cffWriter) throws WriteException {
+		try (JsonGenerator generator = factory.createGenerator(cffWriter)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			write(metadata, generator);
+		}
+		catch (IOException e) {
+			throw new WriteException(WRITE_FAILED, e);
+		}
+	}
+
+	/**
+	 * Writes the software citation metadata as the next root value of
+	 * a generator, which can be reused for further documents.
+	 * 
+	 * **Note** that this method neither flushes nor closes the generator.
+	 * This must be done by the client.
+	 * 
+	 * @param metadata The software citation metadata to write
+	 * @param generator The generator to write to
+	 * @throws WriteException on failing write processes
+	 */
+	public void write(SoftwareCitationMetadata metadata, JsonGenerator generator) throws WriteException {
+		try {
+			writeMetadata(generator, metadata);
+		}
+		catch (IOException e) {
+			throw new WriteException(WRITE_FAILED, e);
+		}
+	}
+
+	private static void writeMetadata(JsonGenerator generator, SoftwareCitationMetadata metadata) throws IOException {
+		generator.writeStartObject();
+		writeString(generator, "cff-version", metadata.getCffVersion());
+		writeString(generator, "message", metadata.getMessage());
+		writeSubjects(generator, "authors", metadata.getAuthors());
+		writeDate(generator, "date-released", metadata.getDateReleased());
+		writeString(generator, "title", metadata.getTitle());
+		writeString(generator, "version", metadata.getVersion());
+		writeString(generator, "abstract", metadata.getAbstract());
+		writeString(generator, "commit", metadata.getCommit());
+		writeSubjects(generator, "contact", metadata.getContacts());
+		writeString(generator, "doi", metadata.getDoi());
+		writeStrings(generator, "keywords", metadata.getKeywords());
+		writeString(generator, "license", metadata.getLicense());
+		if (metadata instanceof SoftwareCitationMetadataUrlValues) {
+			SoftwareCitationMetadataUrlValues urls = (SoftwareCitationMetadataUrlValues) metadata;
+			writeUrl(generator, "license-url", urls.getLicenseUrlValue());
+			writeUrl(generator, "repository", urls.getRepositoryValue());
+			writeUrl(generator, "repository-code", urls.getRepositoryCodeValue());
+			writeUrl(generator, "repository-artifact", urls.getRepositoryArtifactValue());
+			writeUrl(generator, "url", urls.getUrlValue());
+		}
+		else {
+			writeUrl(generator, "license-url", CitationUrl.of(metadata.getLicenseUrl()));
+			writeUrl(generator, "repository", CitationUrl.of(metadata.getRepository()));
+			writeUrl(generator, "repository-code", CitationUrl.of(metadata.getRepositoryCode()));
+			writeUrl(generator, "repository-artifact", CitationUrl.of(metadata.getRepositoryArtifact()));
+			writeUrl(generator, "url", CitationUrl.of(metadata.getUrl()));
+		}
+		List<Reference> references = metadata.getReferences();
+		if (references != null) {
+			generator.writeArrayFieldStart("references");
+			for (Reference reference : references) {
+				writeReference(generator, reference);
+			}
+			generator.writeEndArray();
+		}
+		generator.writeEndObject();
+	}
+
+	private static void writeReference(JsonGenerator generator, Reference reference) throws IOException {
+		if (reference == null) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartObject();
+		writeString(generator, "type", reference.getType());
+		writeString(generator, "title", reference.getTitle());
+		writeSubjects(generator, "authors", reference.getAuthors());
+		writeEntity(generator, "conference", reference.getConference());
+		writeString(generator, "abbreviation", reference.getAbbreviation());
+		writeString(generator, "abstract", reference.getAbstract());
+		writeString(generator, "collection-doi", reference.getCollectionDoi());
+		writeString(generator, "collection-title", reference.getCollectionTitle());
+		writeString(generator, "collection-type", reference.getCollectionType());
+		writeString(generator, "commit", reference.getCommit());
+		writeString(generator, "copyright", reference.getCopyright());
+		writeString(generator, "data-type", reference.getDataType());
+		writeString(generator, "database", reference.getDatabase());
+		writeDate(generator, "date-accessed", reference.getDateAccessed());
+		writeDate(generator, "date-downloaded", reference.getDateDownloaded());
+		writeDate(generator, "date-released", reference.getDateReleased());
+		writeDate(generator, "date-published", reference.getDatePublished());
+		writeString(generator, "department", reference.getDepartment());
+		writeString(generator, "doi", reference.getDoi());
+		writeString(generator, "edition", reference.getEdition());
+		writeInteger(generator, "end", reference.getEnd());
+		writeString(generator, "entry", reference.getEntry());
+		writeString(generator, "filename", reference.getFilename());
+		writeString(generator, "format", reference.getFormat());
+		writeString(generator, "isbn", reference.getIsbn());
+		writeString(generator, "issn", reference.getIssn());
+		writeString(generator, "issue", reference.getIssue());
+		writeString(generator, "issue-date", reference.getIssueDate());
+		writeString(generator, "issue-title", reference.getIssueTitle());
+		writeString(generator, "journal", reference.getJournal());
+		writeStrings(generator, "keywords", reference.getKeywords());
+		writeStrings(generator, "languages", reference.getLanguages());
+		writeString(generator, "license", reference.getLicense());
+		writeUrl(generator, "license-url", reference.getLicenseUrlValue());
+		writeInteger(generator, "loc-start", reference.getLocStart());
+		writeInteger(generator, "loc-end", reference.getLocEnd());
+		writeString(generator, "medium", reference.getMedium());
+		writeInteger(generator, "month", reference.getMonth());
+		writeString(generator, "nihmsid", reference.getNihmsid());
+		writeString(generator, "notes", reference.getNotes());
+		writeString(generator, "number", reference.getNumber());
+		writeInteger(generator, "number-volumes", reference.getNumberVolumes());
+		writeInteger(generator, "pages", reference.getPages());
+		writeStrings(generator, "patent-states", reference.getPatentStates());
+		writeString(generator, "pmcid", reference.getPmcid());
+		writeUrl(generator, "repository", reference.getRepositoryValue());
+		writeUrl(generator, "repository-code", reference.getRepositoryCodeValue());
+		writeUrl(generator, "repository-artifact", reference.getRepositoryArtifactValue());
+		writeString(generator, "scope", reference.getScope());
+		writeString(generator, "section", reference.getSection());
+		writeString(generator, "status", reference.getStatus());
+		writeInteger(generator, "start", reference.getStart());
+		writeString(generator, "thesis-type", reference.getThesisType());
+		writeUrl(generator, "url", reference.getUrlValue());
+		writeString(generator, "version", reference.getVersion());
+		writeInteger(generator, "volume", reference.getVolume());
+		writeString(generator, "volume-title", reference.getVolumeTitle());
+		writeInteger(generator, "year", reference.getYear());
+		writeInteger(generator, "year-original", reference.getYearOriginal());
+		writeSubjects(generator, "contact", reference.getContact());
+		writeEntity(generator, "database-provider", reference.getDatabaseProvider());
+		writeSubjects(generator, "editors", reference.getEditors());
+		writeSubjects(generator, "editors-series", reference.getEditorsSeries());
+		writeEntity(generator, "institution", reference.getInstitution());
+		writeEntity(generator, "location", reference.getLocation());
+		writeEntity(generator, "publisher", reference.getPublisher());
+		writeSubjects(generator, "recipients", reference.getRecipients());
+		writeSubjects(generator, "senders", reference.getSenders());
+		writeSubjects(generator, "translators", reference.getTranslators());
+		generator.writeEndObject();
+	}
+
+	private static void writeSubject(JsonGenerator generator, Subject subject) throws IOException {
+		if (subject == null) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartObject();
+		if (subject instanceof Person) {
+			Person person = (Person) subject;
+			writeString(generator, "family-names", person.getFamilyNames());
+			writeString(generator, "given-names", person.getGivenNames());
+			writeString(generator, "name-particle", person.getNameParticle());
+			writeString(generator, "name-suffix", person.getNameSuffix());
+			writeString(generator, "affiliation", person.getAffiliation());
+		}
+		else if (subject instanceof Entity) {
+			Entity entity = (Entity) subject;
+			writeString(generator, "name", entity.getName());
+			writeDate(generator, "date-start", entity.getDateStart());
+			writeDate(generator, "date-end", entity.getDateEnd());
+			writeString(generator, "location", entity.getLocation());
+		}
+		writeString(generator, "address", subject.getAddress());
+		writeString(generator, "city", subject.getCity());
+		writeString(generator, "region", subject.getRegion());
+		writeString(generator, "post-code", subject.getPostCode());
+		writeString(generator, "country", subject.getCountry());
+		writeUrl(generator, "orcid", subject.getOrcidValue());
+		writeString(generator, "email", subject.getEmail());
+		writeString(generator, "tel", subject.getTel());
+		writeString(generator, "fax", subject.getFax());
+		writeUrl(generator, "website", subject.getWebsiteValue());
+		generator.writeEndObject();
+	}
+
+	/*
+	 * HELPER METHODS
+	 * 
+	 * Each helper omits the key if the value is null.
+	 */
+
+	private static void writeString(JsonGenerator generator, String key, String value) throws IOException {
+		if (value != null) {
+			generator.writeFieldName(key);
+			generator.writeString(value);
+		}
+	}
+
+	private static void writeInteger(JsonGenerator generator, String key, Integer value) throws IOException {
+		if (value != null) {
+			generator.writeFieldName(key);
+			generator.writeNumber(value.intValue());
+		}
+	}
+
+	private static void writeDate(JsonGenerator generator, String key, LocalDate value) throws IOException {
+		if (value != null) {
+			generator.writeFieldName(key);
+			generator.writeString(value.toString());
+		}
+	}
+
+	private static void writeUrl(JsonGenerator generator, String key, CitationUrl value) throws IOException {
+		if (value != null) {
+			generator.writeFieldName(key);
+			generator.writeString(value.toString());
+		}
+	}
+
+	private static void writeStrings(JsonGenerator generator, String key, List<String> values) throws IOException {
+		if (values != null) {
+			generator.writeArrayFieldStart(key);
+			for (String value : values) {
+				generator.writeString(value);
+			}
+			generator.writeEndArray();
+		}
+	}
+
+	private static void writeSubjects(JsonGenerator generator, String key, List<Subject> subjects) throws IOException {
+		if (subjects != null) {
+			generator.writeArrayFieldStart(key);
+			for (Subject subject : subjects) {
+				writeSubject(generator, subject);
+			}
+			generator.writeEndArray();
+		}
+	}
+
+	private static void writeEntity(JsonGenerator generator, String key, Entity entity) throws IOException {
+		if (entity != null) {
+			generator.writeFieldName(key);
+			writeSubject(generator, entity);
+		}
+	}
+
+}
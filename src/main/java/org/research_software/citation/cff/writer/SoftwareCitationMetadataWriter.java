@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.writer;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.WriteException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * Writes software citation metadata to a file, stream,
+ * or writer, e.g., to generate `CITATION.cff` files.
+ * 
+ * This is the counterpart of
+ * {@link org.research_software.citation.cff.reader.SoftwareCitationMetadataReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ * 
+ */
+public interface SoftwareCitationMetadataWriter {
+
+	/**
+	 * Writes the software citation metadata to a {@link File} object,
+	 * which represents a `CITATION.cff` file.
+	 * 
+	 * @param metadata The software citation metadata to write
+	 * @param cffFile The object representing the `CITATION.cff` file
+	 * 
+	 * @throws InvalidCFFFileNameException If the client is trying to write a file with another name than `CITATION.cff`
+	 * @throws WriteException on failing write processes
+	 */
+	public void writeToFile(SoftwareCitationMetadata metadata, File cffFile) throws InvalidCFFFileNameException, WriteException;
+
+	/**
+	 * Writes the software citation metadata to an {@link OutputStream}, UTF-8 encoded.
+	 * 
+	 * **Note** that this method does not close the stream. This must be done
+	 * by the client.
+	 * 
+	 * @param metadata The software citation metadata to write
+	 * @param cffOutputStream The stream to write to
+	 * @throws WriteException on failing write processes
+	 */
+	public void writeToStream(SoftwareCitationMetadata metadata, OutputStream cffOutputStream) throws WriteException;
+
+	/**
+	 * Writes the software citation metadata to a {@link Writer}.
+	 * 
+	 * **Note** that this method does not close the writer. This must be done
+	 * by the client.
+	 * 
+	 * @param metadata The software citation metadata to write
+	 * @param cffWriter The writer to write to
+	 * @throws WriteException on failing write processes
+	 */
+	public void writeToWriter(SoftwareCitationMetadata metadata, Writer cffWriter) throws WriteException;
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.Subject;
+import org.research_software.citation.cff.model.objects.ValuePool;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+
+/**
+ * Unit tests for {@link CompactSoftwareCitationMetadata}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class CompactSoftwareCitationMetadataTest {
+
+	private final SoftwareCitationMetadataPojoReader reader = new SoftwareCitationMetadataPojoReader();
+	private SoftwareCitationMetadata first = null;
+	private SoftwareCitationMetadata second = null;
+
+	/**
+	 * Reads the same metadata twice, into separate instances.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		first = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+		second = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+	}
+
+	/**
+	 * Tests that compact metadata holds the same values as the original.
+	 */
+	@Test
+	public final void testValues() {
+		CompactSoftwareCitationMetadata compact = CompactSoftwareCitationMetadata.of(first, new ValuePool());
+		assertThat(SoftwareCitationMetadataSnapshot.encode(compact), is(SoftwareCitationMetadataSnapshot.encode(first)));
+		assertThat(compact.getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(compact.getRepositoryCode(), is(first.getRepositoryCode()));
+		assertThat(compact.getPersonAuthors().size(), is(first.getPersonAuthors().size()));
+		assertThat(compact.getEntityAuthors().size(), is(first.getEntityAuthors().size()));
+	}
+
+	/**
+	 * Tests that values are shared across documents compacted with the same pool.
+	 */
+	@Test
+	public final void testSharing() {
+		ValuePool pool = new ValuePool();
+		CompactSoftwareCitationMetadata one = CompactSoftwareCitationMetadata.of(first, pool);
+		CompactSoftwareCitationMetadata two = CompactSoftwareCitationMetadata.of(second, pool);
+		assertThat(two.getCffVersion(), is(sameInstance(one.getCffVersion())));
+		assertThat(two.getMessage(), is(sameInstance(one.getMessage())));
+		for (int i = 0; i < one.getAuthors().size(); i++) {
+			assertThat(two.getAuthors().get(i), is(sameInstance(one.getAuthors().get(i))));
+		}
+		for (int i = 0; i < one.getReferences().size(); i++) {
+			assertThat(two.getReferences().get(i), is(sameInstance(one.getReferences().get(i))));
+		}
+		Reference reference = one.getReferences().get(0);
+		assertThat(reference.getLicense(), is(sameInstance(pool.intern(new String(reference.getLicense())))));
+	}
+
+	/**
+	 * Tests that subjects whose snapshots have the same hash, but differ,
+	 * are pooled separately.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testHashCollision() throws Exception {
+		ValuePool pool = new ValuePool();
+		// "Aa" and "BB" have the same hash, so do the snapshots of the persons
+		Person aa = new Person("Aa", "Given", null, null, null, null, null, null, null, null, null, null, null, null, null);
+		Person bb = new Person("BB", "Given", null, null, null, null, null, null, null, null, null, null, null, null, null);
+		Subject pooledAa = pool.intern(aa);
+		Subject pooledBb = pool.intern(bb);
+		assertThat(pooledBb, is(not(sameInstance(pooledAa))));
+		assertThat(((Person) pooledAa).getFamilyNames(), is("Aa"));
+		assertThat(((Person) pooledBb).getFamilyNames(), is("BB"));
+		assertThat(pool.intern(new Person("BB", "Given", null, null, null, null, null, null, null, null, null, null, null,
+				null, null)), is(sameInstance(pooledBb)));
+	}
+
+	/**
+	 * Tests that snapshots decoded with a pool share values.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDecodeWithPool() throws Exception {
+		ValuePool pool = new ValuePool();
+		byte[] snapshot = SoftwareCitationMetadataSnapshot.encode(first);
+		CompactSoftwareCitationMetadata one = SoftwareCitationMetadataSnapshot.decode(snapshot, true, pool);
+		CompactSoftwareCitationMetadata two = SoftwareCitationMetadataSnapshot.decode(snapshot, false, pool);
+		assertThat(SoftwareCitationMetadataSnapshot.encode(two), is(snapshot));
+		assertThat(two.getAuthors().get(0), is(sameInstance(one.getAuthors().get(0))));
+		assertThat(two.getReferences().get(0), is(sameInstance(one.getReferences().get(0))));
+		assertThat(CompactSoftwareCitationMetadata.of(second, pool).getReferences().get(0),
+				is(sameInstance(one.getReferences().get(0))));
+	}
+
+	/**
+	 * Tests that compact metadata cannot be changed.
+	 */
+	@Test
+	public final void testImmutable() {
+		CompactSoftwareCitationMetadata compact = CompactSoftwareCitationMetadata.of(first, new ValuePool());
+		try {
+			compact.getAuthors().add(compact.getAuthors().get(0));
+			fail();
+		}
+		catch (UnsupportedOperationException e) {
+			// Expected
+		}
+		try {
+			compact.getReferences().get(0).getAuthors().remove(0);
+			fail();
+		}
+		catch (UnsupportedOperationException e) {
+			// Expected
+		}
+		try {
+			compact.convertAndSetRepository("https://example.org");
+			fail();
+		}
+		catch (UnsupportedOperationException e) {
+			assertThat(e.getMessage(), is("Compact software citation metadata is immutable."));
+		}
+		for (Subject author : compact.getAuthors()) {
+			assertThat(author, is(notNullValue()));
+		}
+	}
+
+}
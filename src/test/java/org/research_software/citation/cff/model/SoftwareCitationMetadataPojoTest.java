@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -77,4 +78,24 @@ public class SoftwareCitationMetadataPojoTest {
 		new SoftwareCitationMetadataPojo("1.0.3", "message", new ArrayList<Subject>(Arrays.asList(new Person("FN", "GN", null, null, null, null, null, null, null, null, null, null, null, null, null))), "2018-01-31", "Title", "1.0.0", null, null, null, null, null, null, null, null, null, null, null, null);
 	}
 
+	/**
+	 * Sets an invalid release date on a {@link SoftwareCitationMetadataPojo} object.
+	 * 
+	 * Catches the expected {@link InvalidDataException} and asserts that the valid
+	 * release date set before has been kept.
+	 * 
+	 * @throws InvalidDataException
+	 */
+	@Test
+	public final void testInvalidDateReleasedKeepsValue() throws InvalidDataException {
+		SoftwareCitationMetadataPojo metadata = new SoftwareCitationMetadataPojo("1.0.3", "message", new ArrayList<Subject>(Arrays.asList(new Person("FN", "GN", null, null, null, null, null, null, null, null, null, null, null, null, null))), "2018-01-31", "Title", "1.0.0", null, null, null, null, null, null, null, null, null, null, null, null);
+		try {
+			metadata.convertAndSetDateReleased("2018-02-31");
+			fail();
+		}
+		catch (InvalidDataException e) {
+			assertThat(metadata.getDateReleased(), is(LocalDate.of(2018, 1, 31)));
+		}
+	}
+
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+
+/**
+ * Unit tests for {@link SoftwareCitationMetadataSnapshot}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataSnapshotTest {
+
+	private SoftwareCitationMetadata metadata = null;
+	private byte[] snapshot = null;
+
+	/**
+	 * Reads the metadata to encode, and encodes it.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		metadata = new SoftwareCitationMetadataPojoReader()
+				.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+		snapshot = SoftwareCitationMetadataSnapshot.encode(metadata);
+	}
+
+	/**
+	 * Tests that trusted and untrusted decodes restore all values, by
+	 * encoding the decoded metadata again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRoundTrip() throws Exception {
+		for (boolean trusted : new boolean[] { true, false }) {
+			SoftwareCitationMetadata decoded = SoftwareCitationMetadataSnapshot.decode(snapshot, trusted);
+			assertThat(SoftwareCitationMetadataSnapshot.encode(decoded), is(snapshot));
+			assertThat(decoded.getTitle(), is(metadata.getTitle()));
+			assertThat(decoded.getDateReleased(), is(metadata.getDateReleased()));
+			assertThat(decoded.getRepositoryCode(), is(metadata.getRepositoryCode()));
+			assertThat(decoded.getPersonAuthors().size(), is(metadata.getPersonAuthors().size()));
+			assertThat(decoded.getEntityAuthors().size(), is(metadata.getEntityAuthors().size()));
+			assertThat(decoded.getReferences().size(), is(metadata.getReferences().size()));
+			Reference reference = decoded.getReferences().get(0);
+			assertThat(reference.getType(), is(metadata.getReferences().get(0).getType()));
+			assertThat(reference.getAuthors().size(), is(metadata.getReferences().get(0).getAuthors().size()));
+		}
+	}
+
+	/**
+	 * Tests encoding to and decoding from streams.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testStreams() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SoftwareCitationMetadataSnapshot.encode(metadata, out);
+		assertThat(out.toByteArray(), is(snapshot));
+		SoftwareCitationMetadata decoded = SoftwareCitationMetadataSnapshot
+				.decode(new ByteArrayInputStream(out.toByteArray()), true);
+		assertThat(decoded.getTitle(), is(metadata.getTitle()));
+	}
+
+	/**
+	 * Tests that invalid data is only rejected in untrusted snapshots.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testUntrustedIsChecked() throws Exception {
+		byte[] tampered = replace(snapshot, "1.0.3", "9.9.9");
+		assertThat(SoftwareCitationMetadataSnapshot.decode(tampered, true).getCffVersion(), is("9.9.9"));
+		try {
+			SoftwareCitationMetadataSnapshot.decode(tampered, false);
+			fail();
+		}
+		catch (InvalidDataException e) {
+			assertThat(e.getMessage(), is("'cff-version' must be 1.0.3!"));
+		}
+	}
+
+	/**
+	 * Tests that snapshots of another format version are rejected.
+	 *
+	 * Expects a {@link ReadException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testOtherFormatVersion() throws Exception {
+		byte[] other = snapshot.clone();
+		other[4] = SoftwareCitationMetadataSnapshot.FORMAT_VERSION + 1;
+		SoftwareCitationMetadataSnapshot.decode(other, true);
+	}
+
+	/**
+	 * Tests that truncated snapshots are rejected.
+	 *
+	 * Expects a {@link ReadException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testTruncated() throws Exception {
+		SoftwareCitationMetadataSnapshot.decode(Arrays.copyOf(snapshot, snapshot.length / 2), true);
+	}
+
+	/**
+	 * Tests that data other than snapshots is rejected.
+	 *
+	 * Expects a {@link ReadException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testNoSnapshot() throws Exception {
+		SoftwareCitationMetadataSnapshot.decode("cff-version: 1.0.3".getBytes(StandardCharsets.UTF_8), true);
+	}
+
+	private static byte[] replace(byte[] bytes, String target, String replacement) {
+		byte[] from = target.getBytes(StandardCharsets.UTF_8);
+		byte[] to = replacement.getBytes(StandardCharsets.UTF_8);
+		byte[] result = bytes.clone();
+		outer: for (int i = 0; i <= result.length - from.length; i++) {
+			for (int j = 0; j < from.length; j++) {
+				if (result[i + j] != from[j]) {
+					continue outer;
+				}
+			}
+			System.arraycopy(to, 0, result, i, to.length);
+			return result;
+		}
+		throw new IllegalArgumentException(target);
+	}
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CitationUrl}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class CitationUrlTest {
+
+	/**
+	 * Tests that parsed URLs are converted into equal {@link URL}s,
+	 * and that the conversion is cached.
+	 *
+	 * @throws MalformedURLException
+	 */
+	@Test
+	public final void testToURL() throws MalformedURLException {
+		for (String value : new String[] { "https://github.com/citation-file-format/cff-reader-java",
+				"http://example.org", "https://user@example.org:8080/path?query#fragment", "ftp://example.org/file",
+				"file:/tmp/CITATION.cff" }) {
+			CitationUrl url = CitationUrl.parse(value);
+			assertThat(url.toString(), is(value));
+			assertThat(url.toURL().toExternalForm(), is(new URL(value).toExternalForm()));
+			assertThat(url.toURL(), is(sameInstance(url.toURL())));
+		}
+		assertThat(CitationUrl.toURL(null), is(nullValue()));
+	}
+
+	/**
+	 * Tests that invalid strings are rejected with the same exceptions
+	 * as thrown by {@link URL#URL(String)}.
+	 */
+	@Test
+	public final void testInvalidUrls() {
+		for (String value : new String[] { "Invalid website URL", "", "foo://bar", "http://example.org:port/" }) {
+			String expectedMessage = null;
+			try {
+				new URL(value);
+				fail("Not a malformed URL: " + value);
+			}
+			catch (MalformedURLException e) {
+				expectedMessage = e.getMessage();
+			}
+			try {
+				CitationUrl.parse(value);
+				fail();
+			}
+			catch (MalformedURLException e) {
+				assertThat(e.getMessage(), is(expectedMessage));
+			}
+		}
+	}
+
+	/**
+	 * Tests that equality and hash codes are based on the string values.
+	 *
+	 * @throws MalformedURLException
+	 */
+	@Test
+	public final void testEqualsAndHashCode() throws MalformedURLException {
+		Set<CitationUrl> urls = new HashSet<>();
+		urls.add(CitationUrl.parse("https://orcid.org/0000-0001-2345-6789"));
+		urls.add(CitationUrl.parse("https://orcid.org/0000-0001-2345-6789"));
+		urls.add(CitationUrl.parse("https://ORCID.org/0000-0001-2345-6789"));
+		assertThat(urls.size(), is(2));
+		assertThat(CitationUrl.parse("http://example.org"), is(not(CitationUrl.parse("https://example.org"))));
+	}
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CountryCodes}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class CountryCodesTest {
+
+	/**
+	 * Tests valid ISO 3166-1 alpha-2 codes, including the first and last
+	 * possible codes.
+	 */
+	@Test
+	public final void testValidCodes() {
+		assertTrue(CountryCodes.isValid("GB"));
+		assertTrue(CountryCodes.isValid("DE"));
+		assertTrue(CountryCodes.isValid("AD"));
+		assertTrue(CountryCodes.isValid("ZW"));
+		assertTrue(CountryCodes.isValid(new StringBuilder("US")));
+		assertTrue(Subject.isValidCountry("AX"));
+	}
+
+	/**
+	 * Tests invalid codes, i.e., undefined codes, codes of the wrong
+	 * length, codes with lowercase or non-ASCII letters, and `null`.
+	 */
+	@Test
+	public final void testInvalidCodes() {
+		assertFalse(CountryCodes.isValid("AA"));
+		assertFalse(CountryCodes.isValid("ZZ"));
+		assertFalse(CountryCodes.isValid("UK"));
+		assertFalse(CountryCodes.isValid("gb"));
+		assertFalse(CountryCodes.isValid("Gb"));
+		assertFalse(CountryCodes.isValid("GBR"));
+		assertFalse(CountryCodes.isValid("G"));
+		assertFalse(CountryCodes.isValid(""));
+		assertFalse(CountryCodes.isValid("É"));
+		assertFalse(CountryCodes.isValid("G1"));
+		assertFalse(CountryCodes.isValid(null));
+	}
+
+	/**
+	 * Tests that codes are converted into compact codes and back.
+	 */
+	@Test
+	public final void testCompactCodes() {
+		short code = CountryCodes.toCode("GB");
+		assertThat(code, is(not(CountryCodes.NONE)));
+		assertThat(CountryCodes.toValue(code), is("GB"));
+		assertThat(CountryCodes.toValue(code), is(sameInstance(CountryCodes.toValue(CountryCodes.toCode("GB")))));
+		assertThat(CountryCodes.toCode("DE"), is(not(code)));
+		assertThat(CountryCodes.toCode("UK"), is(CountryCodes.NONE));
+		assertThat(CountryCodes.toCode(null), is(CountryCodes.NONE));
+		assertThat(CountryCodes.toValue(CountryCodes.NONE), is(nullValue()));
+	}
+
+	/**
+	 * Tests converting a compact code of an undefined country.
+	 *
+	 * Expects an {@link IllegalArgumentException}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public final void testUndefinedCompactCode() {
+		CountryCodes.toValue((short) 0);
+	}
+
+}
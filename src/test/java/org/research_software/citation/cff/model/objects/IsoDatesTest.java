@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.BulkMode;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.StacklessInvalidDataException;
+
+/**
+ * Unit tests for {@link IsoDates}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class IsoDatesTest {
+
+	/**
+	 * Tests valid dates, including leap days.
+	 */
+	@Test
+	public final void testValidDates() {
+		assertThat(IsoDates.parse("2017-10-31"), is(LocalDate.of(2017, 10, 31)));
+		assertThat(IsoDates.parse("0000-01-01"), is(LocalDate.of(0, 1, 1)));
+		assertThat(IsoDates.parse("9999-12-31"), is(LocalDate.of(9999, 12, 31)));
+		assertThat(IsoDates.parse("2000-02-29"), is(LocalDate.of(2000, 2, 29)));
+		assertThat(IsoDates.parse("2016-02-29"), is(LocalDate.of(2016, 2, 29)));
+		assertThat(IsoDates.parse(new StringBuilder("2017-12-11")), is(LocalDate.of(2017, 12, 11)));
+		// Not of the form YYYY-MM-DD, but accepted by LocalDate.parse
+		assertThat(IsoDates.parse("+12017-12-11"), is(LocalDate.of(12017, 12, 11)));
+	}
+
+	/**
+	 * Tests invalid dates, and `null`.
+	 */
+	@Test
+	public final void testInvalidDates() {
+		assertThat(IsoDates.parse("1900-02-29"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-02-29"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-04-31"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-13-01"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-00-01"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-01-00"), is(nullValue()));
+		assertThat(IsoDates.parse("2017-1-01"), is(nullValue()));
+		assertThat(IsoDates.parse("2017/01/01"), is(nullValue()));
+		assertThat(IsoDates.parse("December 2018"), is(nullValue()));
+		assertThat(IsoDates.parse(""), is(nullValue()));
+		assertThat(IsoDates.parse(null), is(nullValue()));
+		assertFalse(IsoDates.isValid("2017-10-32"));
+		assertTrue(IsoDates.isValid("2017-10-31"));
+	}
+
+	/**
+	 * Tests that exactly the values accepted by {@link LocalDate#parse(CharSequence)}
+	 * are accepted.
+	 */
+	@Test
+	public final void testSameAsLocalDate() {
+		Random random = new Random(42);
+		String characters = "0123456789-+ ";
+		for (int i = 0; i < 100000; i++) {
+			String text;
+			if (i % 2 == 0) {
+				text = String.format("%04d-%02d-%02d", random.nextInt(10000), random.nextInt(14), random.nextInt(33));
+			}
+			else {
+				StringBuilder builder = new StringBuilder();
+				for (int j = random.nextInt(12); j >= 0; j--) {
+					builder.append(characters.charAt(random.nextInt(characters.length())));
+				}
+				text = builder.toString();
+			}
+			LocalDate expected;
+			try {
+				expected = LocalDate.parse(text);
+			}
+			catch (DateTimeException e) {
+				expected = null;
+			}
+			assertThat(text, IsoDates.parse(text), is(expected));
+		}
+	}
+
+	/**
+	 * Tests that recently parsed dates are shared.
+	 */
+	@Test
+	public final void testCache() {
+		LocalDate date = IsoDates.parse("2017-10-31");
+		assertThat(IsoDates.parse(new String("2017-10-31")), is(sameInstance(date)));
+	}
+
+	/**
+	 * Tests that rejected values are explained by the exception of
+	 * {@link LocalDate#parse(CharSequence)}.
+	 */
+	@Test
+	public final void testExplain() {
+		DateTimeException e = IsoDates.explain("December 2018");
+		assertThat(e, instanceOf(DateTimeParseException.class));
+		assertThat(e.getMessage(), is("Text 'December 2018' could not be parsed at index 0"));
+		assertThat(IsoDates.explain("2017-10-31"), is(nullValue()));
+	}
+
+	/**
+	 * Tests that rejected values are explained without parsing them again.
+	 */
+	@Test
+	public final void testReason() {
+		assertThat(IsoDates.reason("December 2018"), is("Text 'December 2018' is not a date of the form YYYY-MM-DD"));
+		assertThat(IsoDates.reason("2017-13-01"), is("Text '2017-13-01' has an invalid month 13"));
+		assertThat(IsoDates.reason("2017-02-29"), is("Text '2017-02-29' has an invalid day 29 for month 2 of year 2017"));
+		assertThat(IsoDates.reason("2016-02-29"), is(nullValue()));
+	}
+
+	/**
+	 * Tests that the exception for a rejected value has the exception of
+	 * {@link LocalDate#parse(CharSequence)} as its cause, and a stackless
+	 * cause giving the reason in bulk mode.
+	 */
+	@Test
+	public final void testInvalidDate() {
+		InvalidDataException e = IsoDates.invalidDate("Message", "2017-02-29");
+		assertThat(e.getMessage(), is("Message"));
+		assertThat(e.getCause(), instanceOf(DateTimeParseException.class));
+		boolean previous = BulkMode.setEnabled(true);
+		try {
+			e = IsoDates.invalidDate("Message", "2017-02-29");
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+		assertThat(e, instanceOf(StacklessInvalidDataException.class));
+		assertThat(e.getMessage(), is("Message"));
+		assertThat(e.getCause(), instanceOf(StacklessInvalidDataException.class));
+		assertThat(e.getCause().getStackTrace().length, is(0));
+		assertThat(e.getCause().getMessage(), is(IsoDates.reason("2017-02-29")));
+	}
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LanguageCodes}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class LanguageCodesTest {
+
+	/**
+	 * Tests valid ISO 639-1 and ISO 639-3 codes, including the first
+	 * and last codes in the table.
+	 */
+	@Test
+	public final void testValidCodes() {
+		assertTrue(LanguageCodes.isValid("en"));
+		assertTrue(LanguageCodes.isValid("de"));
+		assertTrue(LanguageCodes.isValid("deu"));
+		assertTrue(LanguageCodes.isValid("aa"));
+		assertTrue(LanguageCodes.isValid("aaa"));
+		assertTrue(LanguageCodes.isValid("zzj"));
+		assertTrue(LanguageCodes.isValid("zu"));
+		assertTrue(LanguageCodes.isValid(new StringBuilder("eng")));
+	}
+
+	/**
+	 * Tests invalid codes, i.e., undefined codes, codes of the wrong
+	 * length, codes with uppercase or non-ASCII letters, and `null`.
+	 */
+	@Test
+	public final void testInvalidCodes() {
+		assertFalse(LanguageCodes.isValid("xx"));
+		assertFalse(LanguageCodes.isValid("aaaa"));
+		assertFalse(LanguageCodes.isValid("zzz"));
+		assertFalse(LanguageCodes.isValid("EN"));
+		assertFalse(LanguageCodes.isValid("En"));
+		assertFalse(LanguageCodes.isValid("e"));
+		assertFalse(LanguageCodes.isValid(""));
+		assertFalse(LanguageCodes.isValid("é"));
+		assertFalse(LanguageCodes.isValid("e1"));
+		assertFalse(LanguageCodes.isValid("e{"));
+		assertFalse(LanguageCodes.isValid(null));
+	}
+
+	/**
+	 * Tests that {@link DefinedValues#isLanguageValid(String)} delegates
+	 * to {@link LanguageCodes}.
+	 */
+	@Test
+	public final void testDefinedValuesDelegates() {
+		assertTrue(DefinedValues.isLanguageValid("deu"));
+		assertFalse(DefinedValues.isLanguageValid("DEU"));
+	}
+
+}
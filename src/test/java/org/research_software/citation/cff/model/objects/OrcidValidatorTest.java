@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+
+/**
+ * Unit tests for {@link OrcidValidator}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class OrcidValidatorTest {
+
+	/**
+	 * Tests well-formed ORCID iD URLs, including a check digit `X`.
+	 */
+	@Test
+	public final void testWellFormedUrls() {
+		assertTrue(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0001-2345-6789"));
+		assertTrue(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0002-1694-233X"));
+		assertTrue(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0000-0000-0000"));
+	}
+
+	/**
+	 * Tests malformed ORCID iD URLs.
+	 */
+	@Test
+	public final void testMalformedUrls() {
+		assertFalse(OrcidValidator.isWellFormedUrl(null));
+		assertFalse(OrcidValidator.isWellFormedUrl(""));
+		assertFalse(OrcidValidator.isWellFormedUrl("BAD ORCID"));
+		assertFalse(OrcidValidator.isWellFormedUrl("0000-0001-2345-6789"));
+		assertFalse(OrcidValidator.isWellFormedUrl("http://orcid.org/0000-0001-2345-6789"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0001-2345-678"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0001-2345-67890"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000 0001-2345-6789"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-000X-2345-6789"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0001-2345-678x"));
+		assertFalse(OrcidValidator.isWellFormedUrl("https://orcid.org/0000-0001-2345-678a"));
+	}
+
+	/**
+	 * Tests the verification of check digits.
+	 */
+	@Test
+	public final void testCheckDigits() {
+		assertTrue(OrcidValidator.isValid("https://orcid.org/0000-0001-2345-6789"));
+		assertTrue(OrcidValidator.isValid("https://orcid.org/0000-0002-1825-0097"));
+		assertTrue(OrcidValidator.isValid("https://orcid.org/0000-0002-1694-233X"));
+		assertFalse(OrcidValidator.isValid("https://orcid.org/0000-0002-1825-0098"));
+		assertFalse(OrcidValidator.isValid("https://orcid.org/0000-0000-0000-0000"));
+		assertFalse(OrcidValidator.isValid("BAD ORCID"));
+		assertTrue(OrcidValidator.isValidId("0000-0002-1825-0097"));
+		assertFalse(OrcidValidator.isValidId("0000-0002-1825-0098"));
+		assertFalse(OrcidValidator.isValidId("https://orcid.org/0000-0002-1825-0097"));
+		assertFalse(OrcidValidator.isValidId(null));
+	}
+
+	/**
+	 * Creates a new {@link Person} with an ORCID iD whose check digit is `X`.
+	 *
+	 * @throws InvalidDataException
+	 */
+	@Test
+	public final void testPersonWithCheckDigitX() throws InvalidDataException {
+		Person person = new Person("Family", "Given", null, null, null, null, null, null, null, null,
+				"https://orcid.org/0000-0002-1694-233X", null, null, null, null);
+		assertThat(person.getOrcid().toString(), is("https://orcid.org/0000-0002-1694-233X"));
+	}
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.model.objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ReferenceType} and {@link ReferenceStatus}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ReferenceTypeTest {
+
+	/**
+	 * Tests that all types and statuses are found by their values.
+	 */
+	@Test
+	public final void testFromValue() {
+		for (ReferenceType type : ReferenceType.values()) {
+			assertThat(ReferenceType.fromValue(type.getValue()), is(type));
+			assertTrue(Reference.isValidType(type.toString()));
+		}
+		for (ReferenceStatus status : ReferenceStatus.values()) {
+			assertThat(ReferenceStatus.fromValue(status.getValue()), is(status));
+			assertTrue(Reference.isValidStatus(status.toString()));
+		}
+		assertThat(ReferenceType.values().length, is(47));
+		assertThat(ReferenceType.fromValue("software-virtual-machine"), is(ReferenceType.SOFTWARE_VIRTUAL_MACHINE));
+		assertThat(ReferenceStatus.fromValue("in-press"), is(ReferenceStatus.IN_PRESS));
+	}
+
+	/**
+	 * Tests that undefined values and `null` are not found.
+	 */
+	@Test
+	public final void testUndefinedValues() {
+		assertThat(ReferenceType.fromValue("SOFTWARE"), is(nullValue()));
+		assertThat(ReferenceType.fromValue("software_code"), is(nullValue()));
+		assertThat(ReferenceType.fromValue(""), is(nullValue()));
+		assertThat(ReferenceType.fromValue(null), is(nullValue()));
+		assertThat(ReferenceStatus.fromValue("published"), is(nullValue()));
+		assertThat(ReferenceStatus.fromValue(null), is(nullValue()));
+		assertFalse(Reference.isValidType("undefined"));
+		assertFalse(Reference.isValidStatus(null));
+	}
+
+}
@@ -19,7 +19,9 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.research_software.citation.cff.exceptions.BulkMode;
 import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.StacklessInvalidDataException;
 
 /**
  * Unit tests for {@link Subject}.
@@ -55,12 +57,71 @@ public class SubjectTest {
 		}
 		catch (InvalidDataException e) {
 			assertThat(e, instanceOf(InvalidDataException.class));
-			assertThat(e.getMessage(), is("ORCID id BAD ORCID is not a valid ORCID URL with pattern 'https://orcid.org/[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{4}'!"));
+			assertThat(e.getMessage(), is("ORCID id BAD ORCID is not a valid ORCID URL with pattern 'https://orcid.org/[0-9]{4}-[0-9]{4}-[0-9]{4}-[0-9]{3}[0-9X]'!"));
 			return;
 		}
 		fail();
 	}
 	
+	/**
+	 * Creates a new {@link Person} object, passing a well-formed ORCID iD
+	 * with an invalid check digit into the constructor.
+	 * 
+	 * Catches the expected {@link InvalidDataException} and asserts the exception message.
+	 */
+	@Test
+	public final void testBadOrcidCheckDigitMessage() {
+		try {
+			new Person(null, null, null, null, null, null, null, null, null, null, "https://orcid.org/0000-0002-1825-0098", null, null, null, null);
+		}
+		catch (InvalidDataException e) {
+			assertThat(e.getMessage(), is("ORCID id https://orcid.org/0000-0002-1825-0098 has an invalid check digit (ISO/IEC 7064:2003, MOD 11-2)!"));
+			return;
+		}
+		fail();
+	}
+	
+	/**
+	 * Creates a new {@link Person} object with an invalid ORCID iD, outside
+	 * of a bulk read.
+	 * 
+	 * Asserts that the expected {@link InvalidDataException} has a stack trace.
+	 */
+	@Test
+	public final void testInvalidDataHasStackTrace() {
+		try {
+			new Person(null, null, null, null, null, null, null, null, null, null, "https://orcid.org/0000-0002-1825-0098", null, null, null, null);
+		}
+		catch (InvalidDataException e) {
+			assertThat(e, not(instanceOf(StacklessInvalidDataException.class)));
+			assertThat(e.getStackTrace().length, is(greaterThan(0)));
+			return;
+		}
+		fail();
+	}
+	
+	/**
+	 * Creates a new {@link Person} object with an invalid ORCID iD, in bulk mode.
+	 * 
+	 * Asserts that the expected {@link InvalidDataException} has no stack trace.
+	 */
+	@Test
+	public final void testInvalidDataInBulkMode() {
+		boolean previous = BulkMode.setEnabled(true);
+		try {
+			new Person(null, null, null, null, null, null, null, null, null, null, "https://orcid.org/0000-0002-1825-0098", null, null, null, null);
+		}
+		catch (InvalidDataException e) {
+			assertThat(e, instanceOf(StacklessInvalidDataException.class));
+			assertThat(e.getStackTrace().length, is(0));
+			return;
+		}
+		finally {
+			BulkMode.setEnabled(previous);
+		}
+		fail();
+	}
+	
 	/**
 	 * Creates a new {@link Reference} object, passing an invalid country into the constructor.
 	 * 
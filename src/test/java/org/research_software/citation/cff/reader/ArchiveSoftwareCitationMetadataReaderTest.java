@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Unit tests for {@link ArchiveSoftwareCitationMetadataReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ArchiveSoftwareCitationMetadataReaderTest {
+
+	private final ArchiveSoftwareCitationMetadataReader fixture = new ArchiveSoftwareCitationMetadataReader(
+			new SoftwareCitationMetadataPojoReader());
+
+	/**
+	 * Tests reading a zip archive containing valid and invalid
+	 * `CITATION.cff` entries, as well as other entries.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testReadZip() throws IOException, ReadException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			zip.putNextEntry(new ZipEntry("repo/"));
+			zip.putNextEntry(new ZipEntry("repo/CITATION.cff"));
+			zip.write(resource("/CITATION.cff"));
+			zip.putNextEntry(new ZipEntry("repo/README.md"));
+			zip.write("# CITATION.cff".getBytes(StandardCharsets.UTF_8));
+			zip.putNextEntry(new ZipEntry("repo/bugs/CITATION.cff"));
+			zip.write(resource("/bugs/1/CITATION.cff"));
+			zip.putNextEntry(new ZipEntry("repo/NOT-CITATION.cff"));
+			zip.write(resource("/CITATION.cff"));
+		}
+		List<ReadResult> results = fixture.readZip(new ByteArrayInputStream(bytes.toByteArray()));
+		assertResults(results, "repo/CITATION.cff", "repo/bugs/CITATION.cff");
+	}
+
+	/**
+	 * Tests reading an uncompressed and a gzip-compressed tar archive
+	 * containing valid and invalid `CITATION.cff` entries, other entries,
+	 * and an entry with a GNU long name.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testReadTar() throws IOException, ReadException {
+		char[] chars = new char[120];
+		Arrays.fill(chars, 'd');
+		String longPath = new String(chars) + "/CITATION.cff";
+		ByteArrayOutputStream tar = new ByteArrayOutputStream();
+		writeTarEntry(tar, "./repo/", '5', new byte[0]);
+		writeTarEntry(tar, "./repo/CITATION.cff", '0', resource("/CITATION.cff"));
+		writeTarEntry(tar, "./repo/README.md", '0', "# CITATION.cff".getBytes(StandardCharsets.UTF_8));
+		writeTarEntry(tar, "././@LongLink", 'L', (longPath + "\0").getBytes(StandardCharsets.UTF_8));
+		writeTarEntry(tar, longPath.substring(0, 99), '0', resource("/bugs/1/CITATION.cff"));
+		tar.write(new byte[1024]);
+
+		assertResults(fixture.readTar(new ByteArrayInputStream(tar.toByteArray())), "repo/CITATION.cff", longPath);
+
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+			out.write(tar.toByteArray());
+		}
+		assertResults(fixture.readTar(new ByteArrayInputStream(gzip.toByteArray())), "repo/CITATION.cff", longPath);
+	}
+
+	/**
+	 * Tests reading a stream that is not a tar archive.
+	 *
+	 * Expects a {@link ReadException}.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 */
+	@Test(expected = ReadException.class)
+	public final void testReadInvalidTar() throws IOException, ReadException {
+		fixture.readTar(getClass().getResourceAsStream("/invalid-files/CITATION.cff"));
+	}
+
+	private static void assertResults(List<ReadResult> results, String validPath, String invalidPath) {
+		assertThat(results.size(), is(2));
+		assertThat(results.get(0).getSource(), is(validPath));
+		assertThat(results.get(0).isSuccess(), is(true));
+		assertThat(results.get(0).getMetadata().getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(results.get(1).getSource(), is(invalidPath));
+		assertThat(results.get(1).isSuccess(), is(false));
+		assertThat(results.get(1).getException(), is(instanceOf(InvalidDataException.class)));
+	}
+
+	private byte[] resource(String name) throws IOException {
+		try (InputStream in = getClass().getResourceAsStream(name)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Writes a ustar header and the padded contents of an entry.
+	 */
+	private static void writeTarEntry(ByteArrayOutputStream tar, String name, char type, byte[] contents) {
+		byte[] header = new byte[512];
+		put(header, 0, name);
+		put(header, 100, "0000644");
+		put(header, 108, "0000000");
+		put(header, 116, "0000000");
+		put(header, 124, String.format("%011o", contents.length));
+		put(header, 136, String.format("%011o", 0));
+		header[156] = (byte) type;
+		put(header, 257, "ustar");
+		put(header, 263, "00");
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		long sum = 0;
+		for (byte b : header) {
+			sum += b & 0xff;
+		}
+		put(header, 148, String.format("%06o", sum));
+		header[155] = ' ';
+		tar.write(header, 0, header.length);
+		tar.write(contents, 0, contents.length);
+		int padding = (512 - contents.length % 512) % 512;
+		tar.write(new byte[padding], 0, padding);
+	}
+
+	private static void put(byte[] header, int offset, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(bytes, 0, header, offset, bytes.length);
+	}
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * Unit tests for {@link AsyncSoftwareCitationMetadataReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class AsyncSoftwareCitationMetadataReaderTest {
+
+	/**
+	 * Temporary directory for copied files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final AsyncSoftwareCitationMetadataReader fixture = new AsyncSoftwareCitationMetadataReader(
+			new SoftwareCitationMetadataPojoReader(), executor);
+
+	/**
+	 * Shuts down the executor.
+	 */
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests reading many files concurrently.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromFile() throws Exception {
+		List<CompletableFuture<SoftwareCitationMetadata>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			futures.add(fixture.readFromFile(copy("/CITATION.cff", "file" + i)));
+		}
+		for (CompletableFuture<SoftwareCitationMetadata> future : futures) {
+			assertThat(future.get().getTitle(), is("Citation File Format 1.0.0"));
+		}
+	}
+
+	/**
+	 * Tests reading from a stream.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromStream() throws Exception {
+		SoftwareCitationMetadata metadata = fixture.readFromStream(getClass().getResourceAsStream("/CITATION.cff"))
+				.get();
+		assertThat(metadata.getTitle(), is("Citation File Format 1.0.0"));
+	}
+
+	/**
+	 * Tests that invalid data completes the future exceptionally.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testInvalidData() throws Exception {
+		assertCause(fixture.readFromFile(copy("/bugs/1/CITATION.cff", "invalid")), InvalidDataException.class);
+	}
+
+	/**
+	 * Tests that a bad file name completes the future exceptionally.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testBadCFFFileName() throws Exception {
+		assertCause(fixture.readFromFile(new File("CITATION.xff")), InvalidCFFFileNameException.class);
+	}
+
+	/**
+	 * Tests that a missing file completes the future exceptionally.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testMissingFile() throws Exception {
+		assertCause(fixture.readFromFile(new File(folder.getRoot(), "CITATION.cff")), ReadException.class);
+	}
+
+	/**
+	 * Tests that files are opened on the executor rather than on the calling
+	 * thread, and that a failure to open them completes the future exceptionally.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOpenOnExecutor() throws Exception {
+		final List<Runnable> tasks = new ArrayList<>();
+		AsyncSoftwareCitationMetadataReader reader = new AsyncSoftwareCitationMetadataReader(
+				new SoftwareCitationMetadataPojoReader(), new Executor() {
+
+					@Override
+					public void execute(Runnable command) {
+						tasks.add(command);
+					}
+				});
+		CompletableFuture<SoftwareCitationMetadata> future = reader
+				.readFromFile(new File(folder.getRoot(), "CITATION.cff"));
+		assertThat(future.isDone(), is(false));
+		assertThat(tasks, hasSize(1));
+		tasks.get(0).run();
+		assertCause(future, ReadException.class);
+	}
+
+	/**
+	 * Tests reading files with a delegate that cannot read from buffers.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromFileWithPlainReader() throws Exception {
+		final SoftwareCitationMetadataReader pojoReader = new SoftwareCitationMetadataPojoReader();
+		AsyncSoftwareCitationMetadataReader reader = new AsyncSoftwareCitationMetadataReader(
+				new SoftwareCitationMetadataReader() {
+
+					@Override
+					public SoftwareCitationMetadata readFromFile(File cffFile)
+							throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+						return pojoReader.readFromFile(cffFile);
+					}
+
+					@Override
+					public SoftwareCitationMetadata readFromStream(InputStream cffInputStream)
+							throws InvalidDataException, ReadException {
+						return pojoReader.readFromStream(cffInputStream);
+					}
+				}, executor);
+		assertThat(reader.readFromFile(copy("/CITATION.cff", "plain")).get().getTitle(),
+				is("Citation File Format 1.0.0"));
+	}
+
+	private static void assertCause(CompletableFuture<SoftwareCitationMetadata> future,
+			Class<? extends Exception> type) throws InterruptedException {
+		try {
+			future.get();
+			fail();
+		}
+		catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(type));
+		}
+	}
+
+	private File copy(String resource, String directory) throws Exception {
+		File file = new File(folder.newFolder(directory), "CITATION.cff");
+		Files.copy(getClass().getResourceAsStream(resource), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		return file;
+	}
+
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * Unit tests for {@link CachingSoftwareCitationMetadataReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class CachingSoftwareCitationMetadataReaderTest {
+
+	private static final String MINIMAL = "cff-version: 1.0.3\n"
+			+ "message: Message\n"
+			+ "authors:\n"
+			+ "  - name: Team\n"
+			+ "title: %s\n"
+			+ "version: 1.0.0\n"
+			+ "date-released: 2017-12-11\n";
+
+	/**
+	 * Temporary directory for generated files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private final SoftwareCitationMetadataPojoReader delegate = new SoftwareCitationMetadataPojoReader();
+
+	/**
+	 * Tests that identical contents are served from the cache.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testHitsAndMisses() throws Exception {
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 10);
+		SoftwareCitationMetadata first = fixture.readFromStream(stream("One"));
+		SoftwareCitationMetadata second = fixture.readFromStream(stream("One"));
+		SoftwareCitationMetadata third = fixture.readFromStream(stream("Two"));
+		assertThat(first.getTitle(), is("One"));
+		assertThat(second, is(sameInstance(first)));
+		assertThat(third.getTitle(), is("Two"));
+		assertThat(fixture.getHitCount(), is(1L));
+		assertThat(fixture.getMissCount(), is(2L));
+		assertThat(fixture.size(), is(2));
+	}
+
+	/**
+	 * Tests that the least recently used entry is evicted when the
+	 * maximum number of entries is exceeded.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testEvictionByEntries() throws Exception {
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 2);
+		fixture.readFromStream(stream("One"));
+		fixture.readFromStream(stream("Two"));
+		fixture.readFromStream(stream("One"));
+		fixture.readFromStream(stream("Three"));
+		assertThat(fixture.size(), is(2));
+		assertThat(fixture.getEvictionCount(), is(1L));
+		// "Two" has been evicted, "One" is still cached
+		fixture.readFromStream(stream("One"));
+		assertThat(fixture.getHitCount(), is(2L));
+		fixture.readFromStream(stream("Two"));
+		assertThat(fixture.getMissCount(), is(4L));
+	}
+
+	/**
+	 * Tests that entries are evicted when the maximum weight is exceeded.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testEvictionByWeight() throws Exception {
+		long length = String.format(MINIMAL, "One").getBytes(StandardCharsets.UTF_8).length;
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 10,
+				length + 1, false);
+		fixture.readFromStream(stream("One"));
+		assertThat(fixture.getWeight(), is(length));
+		fixture.readFromStream(stream("Two"));
+		assertThat(fixture.size(), is(1));
+		assertThat(fixture.getWeight(), is(length));
+		assertThat(fixture.getEvictionCount(), is(1L));
+		fixture.clear();
+		assertThat(fixture.size(), is(0));
+		assertThat(fixture.getWeight(), is(0L));
+	}
+
+	/**
+	 * Tests that files are identified by their attributes, and that
+	 * changed files are read again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testFileAttributes() throws Exception {
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 10,
+				Long.MAX_VALUE, true);
+		File file = write("One");
+		SoftwareCitationMetadata first = fixture.readFromFile(file);
+		assertThat(fixture.readFromFile(file), is(sameInstance(first)));
+		assertThat(fixture.getHitCount(), is(1L));
+
+		write("Two");
+		Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 10000));
+		assertThat(fixture.readFromFile(file).getTitle(), is("Two"));
+		assertThat(fixture.getMissCount(), is(2L));
+
+		// Same contents in another file are served by content
+		File copy = new File(folder.newFolder(), "CITATION.cff");
+		Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+		assertThat(fixture.readFromFile(copy).getTitle(), is("Two"));
+		assertThat(fixture.getHitCount(), is(2L));
+	}
+
+	/**
+	 * Tests that paths, files and buffers with identical contents share cache entries.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPathsAndBuffers() throws Exception {
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 10);
+		File file = write("One");
+		SoftwareCitationMetadata first = fixture.readFromPath(file.toPath());
+		assertThat(fixture.readFromFile(file), is(sameInstance(first)));
+		ByteBuffer buffer = ByteBuffer.wrap(String.format(MINIMAL, "One").getBytes(StandardCharsets.UTF_8));
+		assertThat(fixture.readFromBuffer(buffer), is(sameInstance(first)));
+		assertThat(buffer.position(), is(0));
+		assertThat(fixture.getHitCount(), is(2L));
+		assertThat(fixture.getMissCount(), is(1L));
+	}
+
+	/**
+	 * Tests that invalid data is not cached, and exceptions are passed on.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testInvalidDataNotCached() throws ReadException {
+		CachingSoftwareCitationMetadataReader fixture = new CachingSoftwareCitationMetadataReader(delegate, 10);
+		for (int i = 0; i < 2; i++) {
+			try {
+				fixture.readFromStream(getClass().getResourceAsStream("/bugs/1/CITATION.cff"));
+				fail();
+			}
+			catch (InvalidDataException e) {
+				assertThat(e.getMessage(), is("DateTimeParseException in field 'date-released'!"));
+			}
+		}
+		assertThat(fixture.getMissCount(), is(2L));
+		assertThat(fixture.size(), is(0));
+	}
+
+	/**
+	 * Tests reading from a CFF file with an invalid name.
+	 *
+	 * Expects an {@link InvalidCFFFileNameException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = InvalidCFFFileNameException.class)
+	public final void testBadCFFFileName() throws Exception {
+		new CachingSoftwareCitationMetadataReader(delegate, 10).readFromFile(new File("CITATION.xff"));
+	}
+
+	private InputStream stream(String title) {
+		return new ByteArrayInputStream(String.format(MINIMAL, title).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private File write(String title) throws IOException {
+		File file = new File(folder.getRoot(), "CITATION.cff");
+		Files.write(file.toPath(), String.format(MINIMAL, title).getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+}
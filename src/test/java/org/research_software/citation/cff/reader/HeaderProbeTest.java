@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Unit tests for header probes with {@link HeaderProbe}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class HeaderProbeTest {
+
+	private static final String HEADER = "cff-version: 1.0.3\n"
+			+ "message: Message\n"
+			+ "authors:\n"
+			+ "  - name: Team\n"
+			+ "title: The title of the software\n";
+
+	private final ExtendedSoftwareCitationMetadataReader reader = new SoftwareCitationMetadataPojoReader();
+
+	/**
+	 * Tests probing a complete file.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testProbe() throws Exception {
+		CitationHeader header = reader.probeFromStream(getClass().getResourceAsStream("/CITATION.cff"), 1 << 20);
+		assertThat(header.getCffVersion(), is("1.0.3"));
+		assertThat(header.getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(header.getVersion(), is("1.0.0"));
+		assertThat(header.getDoi(), is("10.5281/zenodo.1003150"));
+		assertThat(header.getDateReleased(), is("2017-12-11"));
+		assertFalse(header.isTruncated());
+	}
+
+	/**
+	 * Tests that the probe stops at `references`, and that values are not validated.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testStopAtReferences() throws Exception {
+		StringBuilder cff = new StringBuilder(HEADER).append("date-released: 2017-13-45\nreferences:\n");
+		for (int i = 0; i < 10000; i++) {
+			cff.append("  - type: software\n    title: Reference ").append(i).append("\n    authors:\n      - name: Team\n");
+		}
+		cff.append("doi: 10.5281/zenodo.1003150\n");
+		CountingInputStream in = new CountingInputStream(stream(cff.toString()));
+		CitationHeader header = reader.probeFromStream(in, Integer.MAX_VALUE);
+		assertThat(header.getTitle(), is("The title of the software"));
+		assertThat(header.getDateReleased(), is("2017-13-45"));
+		assertThat(header.getDoi(), is(nullValue()));
+		assertFalse(header.isTruncated());
+		assertThat(in.count, is(lessThan(cff.length() / 10L)));
+	}
+
+	/**
+	 * Tests that no more than the budget is read, and that values cut off by
+	 * the budget are not returned.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testBudget() throws Exception {
+		StringBuilder cff = new StringBuilder(HEADER);
+		for (int i = 0; i < 10000; i++) {
+			cff.append("key-").append(i).append(": value\n");
+		}
+		cff.append("doi: 10.5281/zenodo.1003150\n");
+		CountingInputStream in = new CountingInputStream(stream(cff.toString()));
+		CitationHeader header = reader.probeFromStream(in, 4096);
+		assertThat(header.getCffVersion(), is("1.0.3"));
+		assertThat(header.getTitle(), is("The title of the software"));
+		assertThat(header.getDoi(), is(nullValue()));
+		assertTrue(header.isTruncated());
+		assertThat(in.count, is(lessThanOrEqualTo(4097L)));
+
+		// Budget ends within the title
+		int cut = HEADER.indexOf("software");
+		header = reader.probeFromStream(stream(HEADER), cut);
+		assertThat(header.getCffVersion(), is("1.0.3"));
+		assertThat(header.getTitle(), is(nullValue()));
+		assertTrue(header.isTruncated());
+
+		// Budget ends within the first key
+		header = reader.probeFromStream(stream(HEADER), 3);
+		assertThat(header.getCffVersion(), is(nullValue()));
+		assertTrue(header.isTruncated());
+
+		// Budget ends exactly at the end of the data
+		header = reader.probeFromStream(stream(HEADER), HEADER.length());
+		assertThat(header.getTitle(), is("The title of the software"));
+		assertFalse(header.isTruncated());
+	}
+
+	/**
+	 * Tests that data without a mapping at the top-level is rejected.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testNoMapping() throws Exception {
+		reader.probeFromStream(stream("- title\n"), 1024);
+	}
+
+	/**
+	 * Tests that malformed data within the budget is rejected.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testMalformed() throws Exception {
+		reader.probeFromStream(stream("cff-version: 1.0.3\nauthors: [\n"), 1024);
+	}
+
+	/**
+	 * Tests that budgets must be positive.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInvalidBudget() throws Exception {
+		reader.probeFromStream(stream(HEADER), 0);
+	}
+
+	/**
+	 * Tests probing a file, also through a caching reader.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testProbeFile() throws Exception {
+		File file = new File(getClass().getResource("/CITATION.cff").toURI());
+		assertThat(reader.probeFromFile(file, 1024).getCffVersion(), is("1.0.3"));
+		CachingSoftwareCitationMetadataReader cachingReader = new CachingSoftwareCitationMetadataReader(reader, 10);
+		assertThat(cachingReader.probeFromFile(file, 1 << 20).getDoi(), is("10.5281/zenodo.1003150"));
+		assertThat(cachingReader.size(), is(0));
+	}
+
+	/**
+	 * Tests probing a CFF file with an invalid name.
+	 *
+	 * Expects an {@link InvalidCFFFileNameException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = InvalidCFFFileNameException.class)
+	public final void testBadCFFFileName() throws Exception {
+		reader.probeFromFile(new File("CITATION.xff"), 1024);
+	}
+
+	private static InputStream stream(String cff) {
+		return new ByteArrayInputStream(cff.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count = 0;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int read = super.read(bytes, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Unit tests for {@link FieldMask} and projected reads with
+ * {@link SoftwareCitationMetadataPojoReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ProjectionTest {
+
+	private final SoftwareCitationMetadataPojoReader reader = new SoftwareCitationMetadataPojoReader();
+
+	/**
+	 * Tests that only the selected top-level keys are read.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testTopLevelKeys() throws Exception {
+		Projection projection = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"),
+				FieldMask.of("title", "doi", "version", "date-released"));
+		assertThat(projection.getString("title"), is("Citation File Format 1.0.0"));
+		assertThat(projection.getString("doi"), is("10.5281/zenodo.1003150"));
+		assertThat(projection.getString("version"), is("1.0.0"));
+		assertThat(projection.getDate("date-released"), is(LocalDate.of(2017, 12, 11)));
+		assertFalse(projection.has("references"));
+		assertFalse(projection.has("authors"));
+		assertThat(projection.getString("message"), is(nullValue()));
+		assertThat(projection.getTree().size(), is(4));
+	}
+
+	/**
+	 * Tests that nested keys are read through sequences.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testNestedKeys() throws Exception {
+		Projection projection = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"),
+				FieldMask.of("authors.family-names", "keywords"));
+		assertThat(projection.getStrings("authors.family-names"), hasItem("Real Person"));
+		assertFalse(projection.has("authors.given-names"));
+		assertFalse(projection.has("authors.name"));
+		assertThat(projection.getStrings("keywords"), is(not(empty())));
+		assertThat(projection.getStrings("references.title"), is(empty()));
+	}
+
+	/**
+	 * Tests that values are neither bound nor validated before they are
+	 * requested, and that missing required keys do not fail a projected read.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testUnvalidatedValues() throws Exception {
+		Projection projection = reader.readFromStream(stream("title: Title\n"
+				+ "date-released: 2017-13-45\n"
+				+ "url: not a url\n"
+				+ "references:\n"
+				+ "  - type: unknown\n"),
+				FieldMask.of("title", "date-released", "url"));
+		assertThat(projection.getString("title"), is("Title"));
+		try {
+			projection.getDate("date-released");
+			fail();
+		}
+		catch (InvalidDataException e) {
+			assertThat(e.getMessage(), is("DateTimeException in field 'date-released'!"));
+		}
+		try {
+			projection.getUrl("url");
+			fail();
+		}
+		catch (InvalidDataException e) {
+			assertThat(e.getMessage(), startsWith("The projection contains an invalid URL in field 'url'"));
+		}
+	}
+
+	/**
+	 * Tests that a shorter path selects the whole subtree, regardless of longer paths.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOverlappingPaths() throws Exception {
+		FieldMask mask = FieldMask.of("authors.family-names", "authors", "title.x");
+		assertThat(mask.toString(), is("FieldMask [authors, title.x]"));
+		Projection projection = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"), mask);
+		assertThat(projection.getStrings("authors.given-names"), hasItem("One Truly"));
+		assertThat(projection.getStrings("authors.name"), is(not(empty())));
+		// Scalars are dropped when a nested key is selected in them
+		assertFalse(projection.has("title"));
+	}
+
+	/**
+	 * Tests that paths with empty keys are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public final void testEmptyKey() {
+		FieldMask.of("authors..name");
+	}
+
+	/**
+	 * Tests that data without a mapping at the top-level is rejected.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = ReadException.class)
+	public final void testNoMapping() throws Exception {
+		reader.readFromStream(stream("- title\n"), FieldMask.of("title"));
+	}
+
+	/**
+	 * Tests reading from a CFF file with an invalid name.
+	 *
+	 * Expects an {@link InvalidCFFFileNameException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = InvalidCFFFileNameException.class)
+	public final void testBadCFFFileName() throws Exception {
+		reader.readFromFile(new File("CITATION.xff"), FieldMask.of("title"));
+	}
+
+	private static InputStream stream(String cff) {
+		return new ByteArrayInputStream(cff.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
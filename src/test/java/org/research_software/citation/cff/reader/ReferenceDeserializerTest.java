@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.SoftwareCitationMetadataSnapshot;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Reference;
+
+/**
+ * Unit tests for {@link ReferenceDeserializer}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ReferenceDeserializerTest {
+
+	private static final String MINIMAL = "cff-version: 1.0.3\n"
+			+ "message: Message\n"
+			+ "authors:\n"
+			+ "  - name: Team\n"
+			+ "title: Title\n"
+			+ "version: 1.0.0\n"
+			+ "date-released: 2017-12-11\n"
+			+ "references:\n"
+			+ "  - type: software\n"
+			+ "    title: Reference\n"
+			+ "    authors:\n"
+			+ "      - family-names: Druskat\n"
+			+ "        given-names: Stephan\n";
+
+	private final SoftwareCitationMetadataPojoReader defaultReader = new SoftwareCitationMetadataPojoReader();
+	private final SoftwareCitationMetadataPojoReader fixture = new SoftwareCitationMetadataPojoReader(false, true);
+
+	/**
+	 * Tests that references are bound to the same values as by the
+	 * default bean deserializer.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSameAsDefault() throws Exception {
+		SoftwareCitationMetadata expected = defaultReader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+		SoftwareCitationMetadata actual = fixture.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+		assertThat(SoftwareCitationMetadataSnapshot.encode(actual), is(SoftwareCitationMetadataSnapshot.encode(expected)));
+		assertThat(actual.getReferences().get(0).getTitle(), is("Book Title"));
+	}
+
+	/**
+	 * Tests scalar values of other types, `null` values, and nested entities.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testValues() throws Exception {
+		Reference reference = fixture.readFromStream(stream(MINIMAL
+				+ "    issue: 123\n"
+				+ "    volume: \"4\"\n"
+				+ "    notes: ~\n"
+				+ "    keywords: [a, b]\n"
+				+ "    publisher:\n"
+				+ "      name: Publisher\n")).getReferences().get(0);
+		assertThat(reference.getIssue(), is("123"));
+		assertThat(reference.getVolume(), is(4));
+		assertThat(reference.getNotes(), is(nullValue()));
+		assertThat(reference.getKeywords(), contains("a", "b"));
+		assertThat(reference.getPublisher(), instanceOf(Entity.class));
+		assertThat(reference.getPublisher().getName(), is("Publisher"));
+		assertThat(reference.getPersonAuthors().get(0).getFamilyNames(), is("Druskat"));
+	}
+
+	/**
+	 * Tests that invalid data found by the reference constructor is
+	 * reported as by the default bean deserializer.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testInvalidData() throws ReadException {
+		String invalid = MINIMAL.replace("type: software", "type: sofware");
+		for (SoftwareCitationMetadataPojoReader reader : new SoftwareCitationMetadataPojoReader[] { defaultReader, fixture }) {
+			try {
+				reader.readFromStream(stream(invalid));
+				fail();
+			}
+			catch (InvalidDataException e) {
+				assertThat(e.getMessage(), is("The reference type 'sofware' is not defined in the CFF format specifications."));
+			}
+		}
+	}
+
+	/**
+	 * Tests that unknown keys are handled as by the default bean deserializer,
+	 * i.e., the read returns no metadata.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testUnknownKey() throws Exception {
+		String unknown = MINIMAL + "    undefined: value\n";
+		assertThat(defaultReader.readFromStream(stream(unknown)), is(nullValue()));
+		assertThat(fixture.readFromStream(stream(unknown)), is(nullValue()));
+	}
+
+	/**
+	 * Tests that references are bound directly when read lazily.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testStreaming() throws Exception {
+		try (StreamingSoftwareCitationMetadata citation = fixture.readStreamingFromStream(stream(MINIMAL))) {
+			Reference reference = citation.nextReference();
+			assertThat(reference.getTitle(), is("Reference"));
+			assertThat(citation.nextReference(), is(nullValue()));
+		}
+	}
+
+	private static InputStream stream(String contents) {
+		return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
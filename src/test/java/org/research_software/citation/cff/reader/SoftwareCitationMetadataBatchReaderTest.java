@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.exceptions.InvalidDataException;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+
+/**
+ * Unit tests for {@link SoftwareCitationMetadataBatchReader}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataBatchReaderTest {
+
+	/**
+	 * Temporary directory tree to read.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private ForkJoinPool pool = null;
+	private SoftwareCitationMetadataBatchReader fixture = null;
+
+	/**
+	 * Sets up the fixture.
+	 */
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(2);
+		fixture = new SoftwareCitationMetadataBatchReader(new SoftwareCitationMetadataPojoReader(), pool, 2);
+	}
+
+	/**
+	 * Shuts down the pool used by the fixture.
+	 */
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Tests reading a directory tree containing valid and invalid
+	 * `CITATION.cff` files, as well as other files.
+	 *
+	 * Asserts that every `CITATION.cff` file yields a result, and that
+	 * failed reads do not stop the batch.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testReadTree() throws IOException, ReadException {
+		Path root = folder.getRoot().toPath();
+		copy("/CITATION.cff", root.resolve("valid/CITATION.cff"));
+		copy("/CITATION.cff", root.resolve("nested/deeply/valid/CITATION.cff"));
+		copy("/bugs/1/CITATION.cff", root.resolve("invalid-date/CITATION.cff"));
+		copy("/invalid-files/CITATION.cff", root.resolve("binary/CITATION.cff"));
+		copy("/CITATION.cff", root.resolve("valid/NOT-CITATION.cff"));
+
+		Map<String, ReadResult> results = new HashMap<>();
+		for (Iterator<ReadResult> iterator = fixture.readTree(root); iterator.hasNext();) {
+			ReadResult result = iterator.next();
+			results.put(root.relativize(root.getFileSystem().getPath(result.getSource())).toString()
+					.replace('\\', '/'), result);
+		}
+
+		assertThat(results.keySet(), containsInAnyOrder("valid/CITATION.cff", "nested/deeply/valid/CITATION.cff",
+				"invalid-date/CITATION.cff", "binary/CITATION.cff"));
+		assertThat(results.get("valid/CITATION.cff").isSuccess(), is(true));
+		assertThat(results.get("valid/CITATION.cff").getMetadata().getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(results.get("nested/deeply/valid/CITATION.cff").isSuccess(), is(true));
+		assertThat(results.get("invalid-date/CITATION.cff").isSuccess(), is(false));
+		assertThat(results.get("invalid-date/CITATION.cff").getException(), instanceOf(InvalidDataException.class));
+		assertThat(results.get("binary/CITATION.cff").isSuccess(), is(false));
+		assertThat(results.get("binary/CITATION.cff").getException(), instanceOf(ReadException.class));
+	}
+
+	/**
+	 * Tests reading an empty directory tree.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testReadEmptyTree() throws ReadException {
+		assertThat(fixture.readTree(folder.getRoot().toPath()).hasNext(), is(false));
+	}
+
+	/**
+	 * Tests reading a directory tree whose root does not exist.
+	 *
+	 * @throws ReadException
+	 */
+	@Test(expected = ReadException.class)
+	public final void testReadMissingTree() throws ReadException {
+		fixture.readTree(folder.getRoot().toPath().resolve("missing"));
+	}
+
+	/**
+	 * Tests that a large tree is walked as results are requested, so that
+	 * the first result is available before the whole tree has been walked.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testReadTreeLazily() throws IOException, ReadException {
+		Path root = folder.getRoot().toPath();
+		for (int i = 0; i < 10; i++) {
+			copy("/CITATION.cff", root.resolve(i + "/CITATION.cff"));
+		}
+		Iterator<ReadResult> results = fixture.readTree(root);
+		/*
+		 * With at most two reads in flight, at most two of the ten directories
+		 * have been visited so far, so files added to the other eight are found.
+		 */
+		for (int i = 0; i < 10; i++) {
+			copy("/CITATION.cff", root.resolve(i + "/added-later/CITATION.cff"));
+		}
+		int count = 0;
+		while (results.hasNext()) {
+			assertThat(results.next().isSuccess(), is(true));
+			count++;
+		}
+		assertThat(count, is(greaterThanOrEqualTo(18)));
+	}
+
+	/**
+	 * Tests reading files with a reader that only implements
+	 * {@link SoftwareCitationMetadataReader}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public final void testReadAllWithPlainReader() throws IOException {
+		final SoftwareCitationMetadataReader delegate = new SoftwareCitationMetadataPojoReader();
+		SoftwareCitationMetadataReader plain = new SoftwareCitationMetadataReader() {
+
+			@Override
+			public SoftwareCitationMetadata readFromFile(File cffFile)
+					throws InvalidCFFFileNameException, InvalidDataException, ReadException {
+				return delegate.readFromFile(cffFile);
+			}
+
+			@Override
+			public SoftwareCitationMetadata readFromStream(InputStream cffInputStream)
+					throws InvalidDataException, ReadException {
+				return delegate.readFromStream(cffInputStream);
+			}
+		};
+		Path cffFile = folder.getRoot().toPath().resolve("valid/CITATION.cff");
+		copy("/CITATION.cff", cffFile);
+		Iterator<ReadResult> results = new SoftwareCitationMetadataBatchReader(plain, pool, 2)
+				.readAll(Collections.singletonList(cffFile));
+		ReadResult result = results.next();
+		assertThat(result.isSuccess(), is(true));
+		assertThat(result.getMetadata().getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(results.hasNext(), is(false));
+	}
+
+	private void copy(String resource, Path target) throws IOException {
+		Files.createDirectories(target.getParent());
+		try (InputStream stream = getClass().getResourceAsStream(resource)) {
+			Files.copy(stream, target);
+		}
+	}
+
+}
@@ -19,23 +19,44 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.exceptions.BulkMode;
 import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
 import org.research_software.citation.cff.exceptions.InvalidDataException;
 import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.exceptions.StacklessInvalidDataException;
+import org.research_software.citation.cff.exceptions.StacklessReadException;
+import org.research_software.citation.cff.exceptions.UncheckedReadException;
 import org.research_software.citation.cff.model.objects.Entity;
 import org.research_software.citation.cff.model.objects.Person;
 import org.research_software.citation.cff.model.objects.Reference;
+import org.research_software.citation.cff.model.objects.ReferenceStatus;
+import org.research_software.citation.cff.model.objects.ReferenceType;
 
 /**
  * Unit tests for {@link SoftwareCitationMetadataPojoReader}.
@@ -49,8 +70,31 @@ public class SoftwareCitationMetadataPojoReaderTest {
 	private static final String INVALID_CITATION_FILE_PATH = "invalid-files/CITATION.cff";
 	private static final String CITATION_FILE_PATH_WITH_PRECEDING_SLASH = "/" + CITATION_FILE_PATH;
 	private static final String INVALID_CITATION_FILE_PATH_WITH_PRECEDING_SLASH = "/" + INVALID_CITATION_FILE_PATH;
+	private static final String KEY_AFTER_REFERENCES = "cff-version: 1.0.3\n"
+			+ "message: Message\n"
+			+ "authors:\n"
+			+ "  - name: Team\n"
+			+ "title: Title\n"
+			+ "version: 1.0.0\n"
+			+ "date-released: 2017-12-11\n"
+			+ "references:\n"
+			+ "  - type: book\n"
+			+ "    title: One\n"
+			+ "    authors:\n"
+			+ "      - name: Team\n"
+			+ "  - type: software\n"
+			+ "    title: Two\n"
+			+ "    authors:\n"
+			+ "      - name: Team\n"
+			+ "doi: 10.5281/zenodo.1003150\n";
 	private SoftwareCitationMetadataPojoReader fixture = null;
 
+	/**
+	 * Temporary directory for generated files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	/**
 	 * Sets up the fixture.
 	 * 
@@ -92,6 +136,76 @@ public class SoftwareCitationMetadataPojoReaderTest {
 		test(citation);
 	}
 	
+	/**
+	 * Tests reading from the path of a valid and key-complete CFF file.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromPath() throws Exception {
+		Path cffPath = new File(getClass().getClassLoader().getResource(CITATION_FILE_PATH).getFile()).toPath();
+		test(getFixture().readFromPath(cffPath));
+	}
+
+	/**
+	 * Tests reading from the path of a CFF file that is small enough to be
+	 * read into a heap buffer rather than memory-mapped.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromPathRead() throws Exception {
+		File cffFile = new File(folder.getRoot(), CITATION_FILE_PATH);
+		Files.write(cffFile.toPath(), KEY_AFTER_REFERENCES.getBytes(StandardCharsets.UTF_8));
+		assertThat(getFixture().readFromPath(cffFile.toPath()).getTitle(), is("Title"));
+	}
+
+	/**
+	 * Tests reading from the path of a CFF file that is large enough to be memory-mapped.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromPathMapped() throws Exception {
+		File cffFile = new File(folder.getRoot(), CITATION_FILE_PATH);
+		StringBuilder padding = new StringBuilder();
+		while (padding.length() < 2 << 20) {
+			padding.append("# Padding to exceed the threshold for memory-mapping files\n");
+		}
+		Files.write(cffFile.toPath(), (padding + KEY_AFTER_REFERENCES).getBytes(StandardCharsets.UTF_8));
+		assertThat(getFixture().readFromPath(cffFile.toPath()).getTitle(), is("Title"));
+	}
+
+	/**
+	 * Tests reading from heap and direct buffers holding a valid and key-complete CFF file.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadFromBuffer() throws Exception {
+		byte[] contents = Files.readAllBytes(
+				new File(getClass().getClassLoader().getResource(CITATION_FILE_PATH).getFile()).toPath());
+		byte[] padded = new byte[contents.length + 20];
+		System.arraycopy(contents, 0, padded, 10, contents.length);
+		ByteBuffer heap = ByteBuffer.wrap(padded, 10, contents.length).slice();
+		test(getFixture().readFromBuffer(heap));
+		assertThat(heap.position(), is(0));
+		ByteBuffer direct = ByteBuffer.allocateDirect(contents.length);
+		direct.put(contents).flip();
+		test(getFixture().readFromBuffer(direct));
+		assertThat(direct.remaining(), is(contents.length));
+	}
+
+	/**
+	 * Tests reading from a path with an invalid file name.
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected = InvalidCFFFileNameException.class)
+	public final void testBadCFFPathName() throws Exception {
+		getFixture().readFromPath(Paths.get("CITATION.xff"));
+	}
+
 	/**
 	 * Tests reading from a CFF file with an invalid name.
 	 * 
@@ -159,6 +273,194 @@ public class SoftwareCitationMetadataPojoReaderTest {
 		fail();
 	}
 	
+	/**
+	 * Tests reading from streams of a valid and key-complete CFF file
+	 * concurrently, using a single, shared reader instance.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testConcurrentReadFromStream() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<SoftwareCitationMetadata>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				futures.add(executor.submit(new Callable<SoftwareCitationMetadata>() {
+
+					@Override
+					public SoftwareCitationMetadata call() throws Exception {
+						try (InputStream stream = getClass().getResourceAsStream(CITATION_FILE_PATH_WITH_PRECEDING_SLASH)) {
+							return getFixture().readFromStream(stream);
+						}
+					}
+				}));
+			}
+			for (Future<SoftwareCitationMetadata> future : futures) {
+				test(future.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests reading the top-level metadata and lazily reading the
+	 * references from a valid and key-complete CFF file.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingFromFile() throws Exception {
+		File cffFile = new File(getClass().getClassLoader().getResource(CITATION_FILE_PATH).getFile());
+		try (StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromFile(cffFile)) {
+			testStreaming(citation);
+		}
+	}
+
+	/**
+	 * Tests reading the top-level metadata and lazily reading the
+	 * references from a stream of a valid and key-complete CFF file.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingFromStream() throws Exception {
+		try (InputStream stream = getClass().getResourceAsStream(CITATION_FILE_PATH_WITH_PRECEDING_SLASH);
+				StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromStream(stream)) {
+			testStreaming(citation);
+		}
+	}
+
+	/**
+	 * Tests lazily reading the references from a file in which
+	 * `references` is not the last key.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingFromFileWithKeyAfterReferences() throws Exception {
+		File cffFile = folder.newFile(CITATION_FILE_PATH);
+		Files.write(cffFile.toPath(), KEY_AFTER_REFERENCES.getBytes(StandardCharsets.UTF_8));
+		try (StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromFile(cffFile)) {
+			assertThat(citation.getMetadata().getTitle(), is("Title"));
+			assertThat(citation.getMetadata().getDoi(), is("10.5281/zenodo.1003150"));
+			List<String> titles = new ArrayList<>();
+			for (Iterator<Reference> iterator = citation.referenceIterator(); iterator.hasNext();) {
+				titles.add(iterator.next().getTitle());
+			}
+			assertThat(titles, contains("One", "Two"));
+			assertThat(citation.nextReference(), is(nullValue()));
+		}
+	}
+
+	/**
+	 * Tests lazily reading the references from a stream in which
+	 * `references` is not the last key.
+	 * 
+	 * Expects a {@link ReadException} once the key following
+	 * `references` is reached.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingFromStreamWithKeyAfterReferences() throws Exception {
+		InputStream stream = new ByteArrayInputStream(KEY_AFTER_REFERENCES.getBytes(StandardCharsets.UTF_8));
+		try (StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromStream(stream)) {
+			assertThat(citation.getMetadata().getTitle(), is("Title"));
+			assertThat(citation.getMetadata().getDoi(), is(nullValue()));
+			assertThat(citation.nextReference().getTitle(), is("One"));
+			assertThat(citation.nextReference().getTitle(), is("Two"));
+			try {
+				citation.nextReference();
+				fail();
+			}
+			catch (ReadException e) {
+				assertThat(e.getMessage(), is(
+						"The key 'doi' follows 'references', which must be the last key when streaming from a stream."));
+			}
+			assertThat(citation.nextReference(), is(nullValue()));
+		}
+	}
+
+	/**
+	 * Tests that invalid references are reported when they are read,
+	 * wrapped into an {@link UncheckedReadException} by the stream of references.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingInvalidReference() throws Exception {
+		String cff = KEY_AFTER_REFERENCES.replace("type: software", "type: singularity");
+		InputStream stream = new ByteArrayInputStream(cff.getBytes(StandardCharsets.UTF_8));
+		try (StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromStream(stream)) {
+			citation.references().count();
+			fail();
+		}
+		catch (UncheckedReadException e) {
+			assertThat(e.getCause(), instanceOf(InvalidDataException.class));
+			assertThat(e.getMessage(), is("The reference type 'singularity' is not defined in the CFF format specifications."));
+		}
+	}
+
+	/**
+	 * Tests that a reference with an invalid nested subject is skipped,
+	 * and that reading continues with the following reference.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadStreamingInvalidNestedSubject() throws Exception {
+		String cff = "cff-version: 1.0.3\n"
+				+ "message: Message\n"
+				+ "authors:\n"
+				+ "  - name: Team\n"
+				+ "title: Title\n"
+				+ "version: 1.0.0\n"
+				+ "date-released: 2017-12-11\n"
+				+ "references:\n"
+				+ "  - type: software\n"
+				+ "    title: One\n"
+				+ "    authors:\n"
+				+ "      - name: Team\n"
+				+ "        country: XX\n"
+				+ "        city: Citationburgh\n"
+				+ "    version: 1.0.0\n"
+				+ "  - type: software\n"
+				+ "    title: Two\n"
+				+ "    authors:\n"
+				+ "      - name: Team\n";
+		InputStream stream = new ByteArrayInputStream(cff.getBytes(StandardCharsets.UTF_8));
+		try (StreamingSoftwareCitationMetadata citation = getFixture().readStreamingFromStream(stream)) {
+			try {
+				citation.nextReference();
+				fail();
+			}
+			catch (InvalidDataException e) {
+				assertThat(e.getMessage(), containsString("XX"));
+			}
+			assertThat(citation.nextReference().getTitle(), is("Two"));
+			assertThat(citation.nextReference(), is(nullValue()));
+		}
+	}
+
+	private void testStreaming(StreamingSoftwareCitationMetadata citation) throws Exception {
+		SoftwareCitationMetadata metadata = citation.getMetadata();
+		assertThat(metadata.getCffVersion(), is("1.0.3"));
+		assertThat(metadata.getTitle(), is("Citation File Format 1.0.0"));
+		assertThat(metadata.getVersion(), is("1.0.0"));
+		assertThat(metadata.getAuthors().size(), is(2));
+		assertThat(metadata.getContacts().size(), is(2));
+		assertThat(metadata.getReferences(), is(nullValue()));
+		Reference reference = citation.nextReference();
+		assertThat(reference.getType(), is("book"));
+		assertThat(reference.getTitle(), is("Book Title"));
+		assertThat(reference.getAuthors().size(), is(2));
+		assertThat(reference.getYearOriginal(), is(2012));
+		assertThat(citation.nextReference(), is(nullValue()));
+		assertThat(citation.referenceIterator().hasNext(), is(false));
+	}
+
 	private void test(SoftwareCitationMetadata citation) throws MalformedURLException {
 		assertNotNull(citation);
 
@@ -214,6 +516,7 @@ public class SoftwareCitationMetadataPojoReaderTest {
 		assertThat(citation.getReferences().size(), is(1));
 		Reference reference = citation.getReferences().get(0);
 		assertThat(reference.getType(), is("book"));
+		assertThat(reference.getTypeValue(), is(ReferenceType.BOOK));
 		assertThat(reference.getTitle(), is("Book Title"));
 		assertThat(reference.getAbbreviation(), is("Abbr"));
 		assertThat(reference.getAbstract(), is("Description of the book."));
@@ -266,6 +569,7 @@ public class SoftwareCitationMetadataPojoReaderTest {
 				"Cite this book if you want to reference the general concepts implemented in Citation File Format 1.0.0."));
 		assertThat(reference.getSection(), is("Chapter 2 - \"Reference keys\""));
 		assertThat(reference.getStatus(), is("advance-online"));
+		assertThat(reference.getStatusValue(), is(ReferenceStatus.ADVANCE_ONLINE));
 		assertThat(reference.getStart(), is(123));
 		assertThat(reference.getThesisType(), is("Doctoral dissertation"));
 		assertThat(reference.getUrl(), is(new URL("http://j.mp")));
@@ -420,5 +724,96 @@ public class SoftwareCitationMetadataPojoReaderTest {
 		fail();
 	}
 
+	/**
+	 * Tests that invalid data is passed on without a stack trace in bulk mode,
+	 * with the same message and cause as in the default mode, and that bulk
+	 * mode is disabled again after the read.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testBulkModeInvalidData() throws Exception {
+		File cffFile = new File(getClass().getClassLoader().getResource("bugs/1/url/CITATION.cff").getFile());
+		InvalidDataException withStackTrace = null;
+		InvalidDataException withoutStackTrace = null;
+		try {
+			new SoftwareCitationMetadataPojoReader().readFromFile(cffFile);
+		}
+		catch (InvalidDataException e) {
+			withStackTrace = e;
+		}
+		try {
+			new SoftwareCitationMetadataPojoReader(true).readFromFile(cffFile);
+		}
+		catch (InvalidDataException e) {
+			withoutStackTrace = e;
+		}
+		assertThat(withStackTrace, not(instanceOf(StacklessInvalidDataException.class)));
+		assertThat(withStackTrace.getStackTrace().length, is(greaterThan(0)));
+		assertThat(withoutStackTrace, instanceOf(StacklessInvalidDataException.class));
+		assertThat(withoutStackTrace.getStackTrace().length, is(0));
+		assertThat(withoutStackTrace.getMessage(), is(withStackTrace.getMessage()));
+		assertThat(withoutStackTrace.getCause(), instanceOf(MalformedURLException.class));
+		assertThat(withoutStackTrace.getCause().getMessage(), is(withStackTrace.getCause().getMessage()));
+		assertThat(BulkMode.isEnabled(), is(false));
+	}
+
+	/**
+	 * Tests that failing reads throw a {@link ReadException} without a stack trace in bulk mode.
+	 * 
+	 * @throws InvalidDataException
+	 */
+	@Test
+	public final void testBulkModeReadFailure() throws InvalidDataException {
+		try {
+			new SoftwareCitationMetadataPojoReader(true)
+					.readFromStream(getClass().getResourceAsStream(INVALID_CITATION_FILE_PATH_WITH_PRECEDING_SLASH));
+			fail();
+		}
+		catch (ReadException e) {
+			assertThat(e, instanceOf(StacklessReadException.class));
+			assertThat(e.getStackTrace().length, is(0));
+			assertThat(e.getMessage(), is("The read process failed due to an exception."));
+			assertThat(e.getCause(), is(notNullValue()));
+		}
+	}
+
+	/**
+	 * Tests that streaming reads pass on invalid metadata and invalid references
+	 * without a stack trace in bulk mode, and that bulk mode is disabled again
+	 * after each read.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testBulkModeReadStreaming() throws Exception {
+		File cffFile = new File(getClass().getClassLoader().getResource("bugs/1/url/CITATION.cff").getFile());
+		try {
+			new SoftwareCitationMetadataPojoReader(true).readStreamingFromFile(cffFile);
+			fail();
+		}
+		catch (InvalidDataException e) {
+			assertThat(e, instanceOf(StacklessInvalidDataException.class));
+			assertThat(e.getStackTrace().length, is(0));
+			assertThat(e.getCause(), instanceOf(MalformedURLException.class));
+		}
+		assertThat(BulkMode.isEnabled(), is(false));
+		String cff = KEY_AFTER_REFERENCES.replace("type: book", "type: singularity");
+		InputStream stream = new ByteArrayInputStream(cff.getBytes(StandardCharsets.UTF_8));
+		try (StreamingSoftwareCitationMetadata citation = new SoftwareCitationMetadataPojoReader(true)
+				.readStreamingFromStream(stream)) {
+			assertThat(BulkMode.isEnabled(), is(false));
+			try {
+				citation.nextReference();
+				fail();
+			}
+			catch (InvalidDataException e) {
+				assertThat(e, instanceOf(StacklessInvalidDataException.class));
+				assertThat(e.getStackTrace().length, is(0));
+				assertThat(e.getMessage(), is("The reference type 'singularity' is not defined in the CFF format specifications."));
+			}
+			assertThat(BulkMode.isEnabled(), is(false));
+		}
+	}
 
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Subject;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Unit tests for {@link SubjectDeserializer}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SubjectDeserializerTest {
+
+	private ObjectReader fixture = null;
+
+	/**
+	 * Sets up the fixture.
+	 */
+	@Before
+	public void setUp() {
+		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+		SimpleModule module = new SimpleModule();
+		module.addDeserializer(Subject.class, new SubjectDeserializer());
+		mapper.registerModule(module);
+		fixture = mapper.readerFor(new TypeReference<List<Subject>>() {
+		});
+	}
+
+	/**
+	 * Tests that entities are detected when their `name` field
+	 * is preceded by other fields, and that the preceding fields
+	 * are bound as well.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public final void testEntityWithNameAfterOtherFields() throws IOException {
+		List<Subject> subjects = fixture.readValue("- city: Citationburgh\n"
+				+ "  country: GB\n"
+				+ "  date-start: 2017-01-01\n"
+				+ "  name: Team\n"
+				+ "  location: The team garage\n");
+		assertThat(subjects.size(), is(1));
+		assertThat(subjects.get(0), instanceOf(Entity.class));
+		Entity entity = (Entity) subjects.get(0);
+		assertThat(entity.getName(), is("Team"));
+		assertThat(entity.getCity(), is("Citationburgh"));
+		assertThat(entity.getCountry(), is("GB"));
+		assertThat(entity.getDateStart(), is(LocalDate.of(2017, 1, 1)));
+		assertThat(entity.getLocation(), is("The team garage"));
+	}
+
+	/**
+	 * Tests that a mixed list of persons and entities is bound to the
+	 * respective types in order.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public final void testMixedList() throws IOException {
+		List<Subject> subjects = fixture.readValue("- name: Team\n"
+				+ "- family-names: Person\n"
+				+ "  given-names: Real\n"
+				+ "  website: https://www.entity-project-team.io\n"
+				+ "- name: Other team\n");
+		assertThat(subjects.size(), is(3));
+		assertThat(subjects.get(0), instanceOf(Entity.class));
+		assertThat(((Entity) subjects.get(0)).getName(), is("Team"));
+		assertThat(subjects.get(1), instanceOf(Person.class));
+		Person person = (Person) subjects.get(1);
+		assertThat(person.getFamilyNames(), is("Person"));
+		assertThat(person.getGivenNames(), is("Real"));
+		assertThat(person.getWebsite().toString(), is("https://www.entity-project-team.io"));
+		assertThat(subjects.get(2), instanceOf(Entity.class));
+		assertThat(((Entity) subjects.get(2)).getName(), is("Other team"));
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.reader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.ReadException;
+
+/**
+ * Unit tests for {@link ThreadPerTaskExecutors}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class ThreadPerTaskExecutorsTest {
+
+	/**
+	 * Temporary directory tree to read.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that tasks run on virtual threads. Skipped on JVMs without
+	 * virtual threads.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testVirtualThreads() throws Exception {
+		assumeTrue(ThreadPerTaskExecutors.isVirtualThreadAvailable());
+		ExecutorService executor = ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor();
+		try {
+			Boolean virtual = executor.submit(new Callable<Boolean>() {
+
+				@Override
+				public Boolean call() throws Exception {
+					return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+				}
+			}).get();
+			assertThat(virtual, is(true));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that no executor is created on JVMs without virtual threads.
+	 * Skipped on JVMs with virtual threads.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public final void testNoVirtualThreads() {
+		assumeFalse(ThreadPerTaskExecutors.isVirtualThreadAvailable());
+		ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Tests a batch read with a concurrency limit.
+	 *
+	 * @throws IOException
+	 * @throws ReadException
+	 * @throws InterruptedException
+	 */
+	@Test
+	public final void testBatchRead() throws IOException, ReadException, InterruptedException {
+		Path root = folder.getRoot().toPath();
+		for (int i = 0; i < 20; i++) {
+			Path file = root.resolve(i + "/CITATION.cff");
+			Files.createDirectories(file.getParent());
+			Files.copy(getClass().getResourceAsStream(i % 2 == 0 ? "/CITATION.cff" : "/bugs/1/CITATION.cff"), file,
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		ExecutorService executor = ThreadPerTaskExecutors.isVirtualThreadAvailable()
+				? ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor()
+				: Executors.newFixedThreadPool(4);
+		try {
+			Iterator<ReadResult> results = new SoftwareCitationMetadataBatchReader(
+					new SoftwareCitationMetadataPojoReader(true), executor, 4).readTree(root);
+			int successes = 0;
+			int failures = 0;
+			while (results.hasNext()) {
+				if (results.next().isSuccess()) {
+					successes++;
+				}
+				else {
+					failures++;
+				}
+			}
+			assertThat(successes, is(10));
+			assertThat(failures, is(10));
+		}
+		finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.validation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.research_software.citation.cff.exceptions.ReadException;
+import org.research_software.citation.cff.model.objects.Entity;
+import org.research_software.citation.cff.model.objects.Person;
+import org.research_software.citation.cff.model.objects.Reference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Unit tests for {@link SoftwareCitationMetadataValidator}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataValidatorTest {
+
+	private static final String INVALID = "cff-version: 1.0.2\n"
+			+ "authors:\n"
+			+ "  - family-names: Druskat\n"
+			+ "    given-names: Stephan\n"
+			+ "    orcid: https://orcid.org/0000-0003-4925-7248-1\n"
+			+ "  - family-names: Doe\n"
+			+ "  - name: Team\n"
+			+ "    country: XX\n"
+			+ "title: Title\n"
+			+ "version: 1.0.0\n"
+			+ "date-released: December 2018\n"
+			+ "repository-code: github.com/sdruskat/citation-file-format\n"
+			+ "colour: blue\n"
+			+ "references:\n"
+			+ "  - type: software\n"
+			+ "    title: Valid\n"
+			+ "    authors:\n"
+			+ "      - name: Team\n"
+			+ "  - type: spaceship\n"
+			+ "    authors: []\n"
+			+ "    status: unknown\n"
+			+ "    languages: [en, xx]\n"
+			+ "    pages: many\n"
+			+ "    institution: [Institute]\n";
+
+	private final SoftwareCitationMetadataValidator fixture = new SoftwareCitationMetadataValidator();
+
+	/**
+	 * Tests that valid metadata yields no violations.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testValid() throws ReadException {
+		ValidationReport report = fixture.validate(getClass().getResourceAsStream("/CITATION.cff"));
+		assertThat(report.toString(), report.isValid(), is(true));
+		assertThat(report.getViolations(), is(empty()));
+	}
+
+	/**
+	 * Tests that all violations in a document are reported in one pass.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testCollectAll() throws ReadException {
+		ValidationReport report = fixture.validate(stream(INVALID));
+		assertThat(report.isValid(), is(false));
+		List<String> actual = new ArrayList<>();
+		for (Violation violation : report.getViolations()) {
+			actual.add(violation.getType() + " " + violation.getPath());
+		}
+		assertThat(actual, contains(
+				"INVALID_CFF_VERSION cff-version",
+				"INVALID_ORCID authors[0].orcid",
+				"MISSING_KEY authors[1].given-names",
+				"INVALID_COUNTRY authors[2].country",
+				"INVALID_DATE date-released",
+				"INVALID_URL repository-code",
+				"UNKNOWN_KEY colour",
+				"INVALID_REFERENCE_TYPE references[1].type",
+				"INVALID_REFERENCE_STATUS references[1].status",
+				"INVALID_LANGUAGE references[1].languages[1]",
+				"INVALID_TYPE references[1].pages",
+				"INVALID_TYPE references[1].institution",
+				"MISSING_KEY references[1].title",
+				"MISSING_KEY references[1].authors",
+				"MISSING_KEY message"));
+		Violation language = report.getViolations(ViolationType.INVALID_LANGUAGE).get(0);
+		assertThat(language.getValue(), is("xx"));
+		assertThat(language.getMessage(),
+				is("references[1].languages[1]: The value is not a valid ISO 639-1 or 639-3 code ('xx')"));
+	}
+
+	/**
+	 * Tests that ORCID iDs with an invalid check digit are reported.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testInvalidOrcidCheckDigit() throws ReadException {
+		ValidationReport report = fixture.validate(stream("cff-version: 1.0.3\n"
+				+ "message: Message\n"
+				+ "authors:\n"
+				+ "  - family-names: Doe\n"
+				+ "    given-names: Jane\n"
+				+ "    orcid: https://orcid.org/0000-0002-1825-0098\n"
+				+ "title: Title\n"
+				+ "version: 1.0.0\n"
+				+ "date-released: 2017-12-11\n"));
+		assertThat(report.getViolations(), hasSize(1));
+		Violation orcid = report.getViolations().get(0);
+		assertThat(orcid.getType(), is(ViolationType.INVALID_ORCID));
+		assertThat(orcid.getDetail(), is("invalid check digit"));
+	}
+
+	/**
+	 * Tests that the invalid date that the readers fail on is reported.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testInvalidDate() throws ReadException {
+		ValidationReport report = fixture.validate(getClass().getResourceAsStream("/bugs/1/CITATION.cff"));
+		assertThat(report.getViolations(), hasSize(1));
+		assertThat(report.getViolations().get(0).getType(), is(ViolationType.INVALID_DATE));
+		assertThat(report.getViolations().get(0).getValue(), is("December 2018"));
+	}
+
+	/**
+	 * Tests that malformed YAML is reported as a syntax error.
+	 *
+	 * @throws ReadException
+	 */
+	@Test
+	public final void testSyntaxError() throws ReadException {
+		ValidationReport report = fixture.validate(stream("title: [Title\nversion: 1.0.0\n"));
+		assertThat(report.getViolations(), hasSize(1));
+		assertThat(report.getViolations().get(0).getType(), is(ViolationType.SYNTAX_ERROR));
+	}
+
+	/**
+	 * Tests that the schema defines exactly the keys that the model classes bind.
+	 *
+	 * @throws ClassNotFoundException
+	 */
+	@Test
+	public final void testSchemaMatchesModel() throws ClassNotFoundException {
+		// The implementation of the top-level metadata is package-private
+		Class<?> pojo = Class.forName("org.research_software.citation.cff.model.SoftwareCitationMetadataPojo");
+		assertThat(Schema.TOP.getKeys().keySet(), is(boundKeys(pojo)));
+		assertThat(Schema.REFERENCE.getKeys().keySet(), is(boundKeys(Reference.class)));
+		assertThat(Schema.PERSON.getKeys().keySet(), is(boundKeys(Person.class)));
+		assertThat(Schema.ENTITY.getKeys().keySet(), is(boundKeys(Entity.class)));
+	}
+
+	private static Set<String> boundKeys(Class<?> type) {
+		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+		Set<String> keys = new LinkedHashSet<>();
+		for (BeanPropertyDefinition property : mapper.getDeserializationConfig()
+				.introspect(mapper.constructType(type)).findProperties()) {
+			if (property.hasConstructorParameter() || property.hasSetter()) {
+				keys.add(property.getName());
+			}
+		}
+		return keys;
+	}
+
+	private static InputStream stream(String contents) {
+		return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
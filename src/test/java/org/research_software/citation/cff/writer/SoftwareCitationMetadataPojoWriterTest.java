@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2018ff. Stephan Druskat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.research_software.citation.cff.writer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.research_software.citation.cff.exceptions.InvalidCFFFileNameException;
+import org.research_software.citation.cff.model.SoftwareCitationMetadata;
+import org.research_software.citation.cff.model.SoftwareCitationMetadataUrlValues;
+import org.research_software.citation.cff.model.SoftwareCitationMetadataSnapshot;
+import org.research_software.citation.cff.reader.SoftwareCitationMetadataPojoReader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Unit tests for {@link SoftwareCitationMetadataPojoWriter}.
+ *
+ * @author Stephan Druskat <[mail@sdruskat.net](mailto:mail@sdruskat.net)>
+ *
+ */
+public class SoftwareCitationMetadataPojoWriterTest {
+
+	/**
+	 * Temporary directory for written files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private final SoftwareCitationMetadataPojoReader reader = new SoftwareCitationMetadataPojoReader();
+	private SoftwareCitationMetadata metadata = null;
+
+	/**
+	 * Reads the metadata to write.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		metadata = reader.readFromStream(getClass().getResourceAsStream("/CITATION.cff"));
+	}
+
+	/**
+	 * Tests that YAML written to a file is read back into identical metadata.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testYamlRoundTrip() throws Exception {
+		File file = new File(folder.getRoot(), "CITATION.cff");
+		new SoftwareCitationMetadataPojoWriter().writeToFile(metadata, file);
+		assertSameMetadata(reader.readFromFile(file));
+	}
+
+	/**
+	 * Tests that metadata implemented outside of this API, which provides its
+	 * URLs only as {@link java.net.URL}s, is written correctly.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testForeignImplementation() throws Exception {
+		final SoftwareCitationMetadata delegate = metadata;
+		SoftwareCitationMetadata foreign = (SoftwareCitationMetadata) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { SoftwareCitationMetadata.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						return method.invoke(delegate, args);
+					}
+				});
+		assertThat(foreign, is(not(instanceOf(SoftwareCitationMetadataUrlValues.class))));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SoftwareCitationMetadataPojoWriter().writeToStream(foreign, out);
+		assertSameMetadata(reader.readFromStream(new ByteArrayInputStream(out.toByteArray())));
+		assertSameMetadata(foreign);
+	}
+
+	/**
+	 * Tests that JSON written to a stream is read back into identical metadata.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testJsonRoundTrip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SoftwareCitationMetadataPojoWriter(new JsonFactory()).writeToStream(metadata, out);
+		assertThat(new ObjectMapper().readTree(out.toByteArray()).get("title").asText(), is(metadata.getTitle()));
+		assertSameMetadata(reader.readFromStream(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	/**
+	 * Tests that keys are written in canonical order, and that
+	 * keys without values are omitted.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testCanonicalKeyOrder() throws Exception {
+		StringWriter writer = new StringWriter();
+		new SoftwareCitationMetadataPojoWriter().writeToWriter(metadata, writer);
+		JsonNode tree = new ObjectMapper(new YAMLFactory()).readTree(writer.toString());
+		Iterator<String> keys = tree.fieldNames();
+		assertThat(keys.next(), is("cff-version"));
+		assertThat(keys.next(), is("message"));
+		assertThat(keys.next(), is("authors"));
+		assertThat(keys.next(), is("date-released"));
+		assertThat(keys.next(), is("title"));
+		assertThat(keys.next(), is("version"));
+		Iterator<String> referenceKeys = tree.get("references").get(0).fieldNames();
+		assertThat(referenceKeys.next(), is("type"));
+		assertThat(referenceKeys.next(), is("title"));
+		assertThat(referenceKeys.next(), is("authors"));
+		Iterator<String> authorKeys = tree.get("authors").get(0).fieldNames();
+		assertThat(authorKeys.next(), is("family-names"));
+		assertThat(authorKeys.next(), is("given-names"));
+		for (JsonNode reference : tree.get("references")) {
+			for (Iterator<JsonNode> values = reference.elements(); values.hasNext();) {
+				assertThat(values.next().isNull(), is(false));
+			}
+		}
+	}
+
+	/**
+	 * Tests writing several documents through one generator.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReuseGenerator() throws Exception {
+		SoftwareCitationMetadataPojoWriter fixture = new SoftwareCitationMetadataPojoWriter(new JsonFactory());
+		StringWriter writer = new StringWriter();
+		try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+			generator.writeStartArray();
+			fixture.write(metadata, generator);
+			fixture.write(metadata, generator);
+			generator.writeEndArray();
+		}
+		JsonNode tree = new ObjectMapper().readTree(writer.toString());
+		assertThat(tree.size(), is(2));
+		assertThat(tree.get(1).get("title").asText(), is(metadata.getTitle()));
+	}
+
+	/**
+	 * Tests writing to a file with an invalid name.
+	 *
+	 * Expects an {@link InvalidCFFFileNameException}.
+	 *
+	 * @throws Exception
+	 */
+	@Test(expected = InvalidCFFFileNameException.class)
+	public final void testBadCFFFileName() throws Exception {
+		new SoftwareCitationMetadataPojoWriter().writeToFile(metadata, new File(folder.getRoot(), "CITATION.xff"));
+	}
+
+	/**
+	 * Compares all values via the snapshots of the metadata.
+	 */
+	private void assertSameMetadata(SoftwareCitationMetadata written) {
+		assertThat(SoftwareCitationMetadataSnapshot.encode(written), is(SoftwareCitationMetadataSnapshot.encode(metadata)));
+	}
+
+}